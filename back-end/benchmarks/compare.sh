@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Compara dois resultados JSON do JMH (results/jmh-*.json): um benchmark por linha, com os
+# parâmetros, o score de cada execução e a variação. Para AverageTime, variação positiva = mais lento.
+#
+# Uso: benchmarks/compare.sh results/jmh-antes.json results/jmh-depois.json
+# Requer jq.
+set -euo pipefail
+
+if [ $# -ne 2 ]; then
+  echo "uso: $0 <antes.json> <depois.json>" >&2
+  exit 1
+fi
+
+key='(.benchmark | sub("^.*\\.bench\\."; "")) + ((.params // {}) | to_entries | map(" " + .key + "=" + .value) | join(""))'
+
+jq -r -n --slurpfile before "$1" --slurpfile after "$2" "
+  (\$before[0] | map({key: ($key), value: .}) | from_entries) as \$a
+  | \$after[0][]
+  | ($key) as \$k
+  | select(\$a[\$k] != null)
+  | [\$k,
+     (\$a[\$k].primaryMetric.score * 100 | round / 100),
+     (.primaryMetric.score * 100 | round / 100),
+     .primaryMetric.scoreUnit,
+     (((.primaryMetric.score / \$a[\$k].primaryMetric.score) - 1) * 1000 | round / 10 | tostring + \"%\")]
+  | @tsv
+" | awk -F '\t' '{ printf "%-60s %12s %12s %-6s %8s\n", $1, $2, $3, $4, $5 }'
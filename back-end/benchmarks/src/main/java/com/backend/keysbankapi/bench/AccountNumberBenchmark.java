@@ -0,0 +1,56 @@
+package com.backend.keysbankapi.bench;
+
+import com.backend.keysbankapi.account.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code Account.generateAccountNumber}, chamado na criação de toda conta. O método é privado e é
+ * chamado por um MethodHandle constante, que o JIT inlina. A variante com 8 threads mostra a
+ * disputa no gerador compartilhado de Math.random.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AccountNumberBenchmark {
+
+  private static final MethodHandle GENERATE;
+
+  static {
+    try {
+      GENERATE = MethodHandles.privateLookupIn(Account.class, MethodHandles.lookup())
+          .findVirtual(Account.class, "generateAccountNumber", MethodType.methodType(String.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Account account = new Account();
+
+  @Benchmark
+  public String generate() throws Throwable {
+    return (String) GENERATE.invokeExact(account);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String generateContended() throws Throwable {
+    return (String) GENERATE.invokeExact(account);
+  }
+}
@@ -0,0 +1,29 @@
+package com.backend.keysbankapi.bench;
+
+import org.openjdk.jmh.Main;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ponto de entrada do benchmarks.jar: o mesmo Main do JMH, mas sem -rf o resultado sai em JSON
+ * em results/jmh-AAAAMMDD-HHMMSS.json, para comparar execuções com compare.sh.
+ */
+public final class Benchmarks {
+
+  private Benchmarks() {}
+
+  public static void main(String[] args) throws Exception {
+    List<String> options = new ArrayList<>(List.of(args));
+    if (!options.contains("-rf") && !options.contains("-l") && !options.contains("-h")) {
+      String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+      options.addAll(List.of("-rf", "json", "-rff", "results/jmh-" + stamp + ".json"));
+      Files.createDirectories(Path.of("results"));
+    }
+    Main.main(options.toArray(String[]::new));
+  }
+}
@@ -0,0 +1,101 @@
+package com.backend.keysbankapi.bench;
+
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.ledger.DailyBalanceRepository;
+import com.backend.keysbankapi.ledger.DaySeed;
+import com.backend.keysbankapi.ledger.HotAccountTracker;
+import com.backend.keysbankapi.ledger.Transaction;
+import com.backend.keysbankapi.ledger.TransactionRepository;
+import com.backend.keysbankapi.ledger.TransactionRepositoryCustom.PostingOutcome;
+import com.backend.keysbankapi.ledger.TransactionService;
+import com.backend.keysbankapi.metrics.LedgerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lado Java do lançamento em {@link TransactionService#createTransaction}, incluindo o saldo do
+ * dia (updateDayBalance) e o rollup, com os repositórios em memória.
+ *
+ * <p>O histórico da conta fica no banco: o saldo do dia é um UPDATE incremental e, só no primeiro
+ * lançamento do dia, uma soma feita pelo PostgreSQL. Por isso historySize (lançamentos já
+ * existentes no dia, devolvidos pela soma) não deve mudar o score; se mudar, algum caminho voltou a
+ * trazer histórico para a aplicação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DailyBalanceBenchmark {
+
+  @Param({"0", "1000", "100000"})
+  public int historySize;
+
+  // true: primeiro lançamento do dia (addToBalance não encontra linha e o saldo é semeado)
+  @Param({"false", "true"})
+  public boolean firstPostingOfDay;
+
+  private TransactionService service;
+  private UUID accountId;
+  private DaySeed seed;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    accountId = UUID.randomUUID();
+    seed = new DaySeed(new BigDecimal("10.00").multiply(BigDecimal.valueOf(historySize)), (long) historySize);
+    int updatedRows = firstPostingOfDay ? 0 : 1;
+
+    TransactionRepository transactions = InMemoryRepositories.of(TransactionRepository.class, Map.of(
+        "post", args -> PostingOutcome.POSTED,
+        "postToShard", args -> PostingOutcome.POSTED));
+    DailyBalanceRepository dailyBalances = InMemoryRepositories.of(DailyBalanceRepository.class, Map.of(
+        "addToBalance", args -> updatedRows,
+        "seedBalance", args -> seed,
+        "upsertBalance", args -> 1,
+        "addToShard", args -> 1,
+        "addToRollup", args -> 1));
+    // Sem promoções: todas as contas no modo normal, como na maior parte do tráfego
+    HotAccountTracker hotAccounts = new HotAccountTracker(new JdbcTemplate(), null, 16, Double.MAX_VALUE, 0);
+
+    service = new TransactionService(transactions, dailyBalances, hotAccounts, new LedgerMetrics(new SimpleMeterRegistry()),
+        new LedgerFlightRecorder(256, Duration.ofMillis(100)), noTransactions());
+  }
+
+  // Transações vazias: o TransactionTemplate entra na medida, o commit não vai a banco nenhum
+  private static PlatformTransactionManager noTransactions() {
+    return InMemoryRepositories.of(PlatformTransactionManager.class, Map.of(
+        "getTransaction", args -> null,
+        "commit", args -> null,
+        "rollback", args -> null));
+  }
+
+  @Benchmark
+  public Transaction credit() {
+    return service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", null);
+  }
+
+  @Benchmark
+  public Transaction debit() {
+    return service.createTransaction(accountId, "DEBIT", "PIX", new BigDecimal("10.00"), "Pix enviado", null);
+  }
+}
@@ -0,0 +1,27 @@
+package com.backend.keysbankapi.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repositórios Spring Data de mentira para os benchmarks: cada método atendido vira uma função
+ * sobre os argumentos; qualquer outro método falha, para um benchmark não medir sem querer um
+ * caminho que não preparou. O custo do proxy (alguns ns por chamada) entra na medida, igual em
+ * todas as execuções.
+ */
+final class InMemoryRepositories {
+
+  private InMemoryRepositories() {}
+
+  static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+    Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+      Function<Object[], Object> handler = methods.get(method.getName());
+      if (handler == null) {
+        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " não preparado no benchmark");
+      }
+      return handler.apply(args);
+    });
+    return type.cast(proxy);
+  }
+}
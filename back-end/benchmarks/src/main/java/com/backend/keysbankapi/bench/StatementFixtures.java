@@ -0,0 +1,70 @@
+package com.backend.keysbankapi.bench;
+
+import com.backend.keysbankapi.ledger.DailyBalance;
+import com.backend.keysbankapi.ledger.DailyBalanceId;
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/** Histórico sintético de uma conta: lançamentos a cada 30 minutos e um saldo por dia com movimento. */
+final class StatementFixtures {
+
+  static final int POSTINGS_PER_DAY = 48;
+
+  private StatementFixtures() {}
+
+  // Mais recente primeiro, como o banco devolve
+  static List<StatementItemResponse> transactions(int size) {
+    List<StatementItemResponse> items = new ArrayList<>(size);
+    Instant newest = Instant.parse("2026-06-30T23:30:00Z");
+    for (int i = 0; i < size; i++) {
+      boolean credit = i % 3 != 0;
+      items.add(new StatementItemResponse(
+          UUID.randomUUID(),
+          credit ? "CREDIT" : "DEBIT",
+          credit ? "DEPOSITO" : "PIX",
+          new BigDecimal(credit ? "125.40" : "37.90"),
+          credit ? "Depósito em conta" : "Pix enviado",
+          newest.minusSeconds(i * 1800L)));
+    }
+    return items;
+  }
+
+  static List<DailyBalance> dailyBalances(UUID accountId, int transactions) {
+    int days = Math.max(1, transactions / POSTINGS_PER_DAY);
+    List<DailyBalance> balances = new ArrayList<>(days);
+    LocalDate newest = LocalDate.of(2026, 6, 30);
+    for (int i = 0; i < days; i++) {
+      LocalDate day = newest.minusDays(i);
+      balances.add(dailyBalance(new DailyBalanceId(accountId, day), new BigDecimal("2818.80"),
+          day.atTime(23, 30).atZone(ZoneId.of("UTC")).toInstant()));
+    }
+    return balances;
+  }
+
+  // A entidade só é preenchida pelo Hibernate; aqui os campos são gravados por reflexão, fora da medida
+  private static DailyBalance dailyBalance(DailyBalanceId id, BigDecimal balance, Instant updatedAt) {
+    try {
+      DailyBalance entity = new DailyBalance();
+      set(entity, "id", id);
+      set(entity, "balance", balance);
+      set(entity, "updatedAt", updatedAt);
+      return entity;
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("DailyBalance mudou de forma", e);
+    }
+  }
+
+  private static void set(Object target, String field, Object value) throws ReflectiveOperationException {
+    Field f = target.getClass().getDeclaredField(field);
+    f.setAccessible(true);
+    f.set(target, value);
+  }
+}
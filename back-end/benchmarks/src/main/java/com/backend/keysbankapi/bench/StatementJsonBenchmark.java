@@ -0,0 +1,56 @@
+package com.backend.keysbankapi.bench;
+
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de extratos grandes com o Jackson usado pelo Spring MVC. {@code toStream}
+ * escreve direto num OutputStream, como o conversor HTTP faz; {@code toBytes} monta o corpo
+ * inteiro em memória, para comparar a alocação (rodar com -prof gc).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StatementJsonBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  public int historySize;
+
+  private JsonMapper mapper;
+  private List<StatementItemResponse> statement;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    mapper = JsonMapper.builder().build();
+    statement = StatementFixtures.transactions(historySize);
+  }
+
+  @Benchmark
+  public void toStream() {
+    mapper.writeValue(OutputStream.nullOutputStream(), statement);
+  }
+
+  @Benchmark
+  public byte[] toBytes() {
+    return mapper.writeValueAsBytes(statement);
+  }
+}
@@ -0,0 +1,95 @@
+package com.backend.keysbankapi.bench;
+
+import com.backend.keysbankapi.account.AccountDirectory;
+import com.backend.keysbankapi.archive.TransactionArchive;
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.ledger.DailyBalance;
+import com.backend.keysbankapi.ledger.DailyBalanceRepository;
+import com.backend.keysbankapi.ledger.StatementService;
+import com.backend.keysbankapi.ledger.TransactionRepository;
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem do extrato em {@link StatementService}: os lançamentos já chegam projetados em
+ * {@link StatementItemResponse}, então o trabalho na aplicação é converter os saldos diários
+ * (entidade {@link DailyBalance}, com o id derivado de conta + dia) e intercalá-los com os lançamentos.
+ * Os repositórios devolvem listas prontas; a consulta ao banco fica de fora.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StatementMappingBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  public int historySize;
+
+  private StatementService service;
+  private UUID accountId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    accountId = UUID.randomUUID();
+    List<StatementItemResponse> transactions = StatementFixtures.transactions(historySize);
+    List<DailyBalance> balances = StatementFixtures.dailyBalances(accountId, historySize);
+
+    TransactionRepository transactionRepository = InMemoryRepositories.of(TransactionRepository.class, Map.of(
+        "findStatementItems", args -> transactions));
+    DailyBalanceRepository dailyBalanceRepository = InMemoryRepositories.of(DailyBalanceRepository.class, Map.of(
+        "findByAccountIdOrderByDayDesc", args -> balances,
+        "findByAccountIdAndDayRangeOrderByDayDesc", args -> balances));
+
+    AccountDirectory accountDirectory = new AccountDirectory(null, 1, Duration.ofMinutes(1), Duration.ofMinutes(1)) {
+      @Override
+      public boolean exists(UUID id) {
+        return true;
+      }
+    };
+    TransactionArchive archive = new TransactionArchive(new JdbcTemplate(), "archive") {
+      @Override
+      public boolean hasMonths() {
+        return false;
+      }
+    };
+
+    service = new StatementService(transactionRepository, dailyBalanceRepository, accountDirectory, archive,
+        new LedgerFlightRecorder(256, Duration.ofMillis(100)));
+  }
+
+  @Benchmark
+  public List<StatementItemResponse> fullStatement() {
+    return service.getStatement(accountId);
+  }
+
+  @Benchmark
+  public List<StatementItemResponse> dateRangeStatement() {
+    return service.getStatementFiltered(accountId, LocalDate.of(2020, 1, 1), LocalDate.of(2026, 6, 30), null);
+  }
+
+  @Benchmark
+  public List<StatementItemResponse> balancesOnly() {
+    return service.getStatementFiltered(accountId, null, null, "BALANCE");
+  }
+}
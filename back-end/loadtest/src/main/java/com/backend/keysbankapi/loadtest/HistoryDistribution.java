@@ -0,0 +1,65 @@
+package com.backend.keysbankapi.loadtest;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Quantidade de lançamentos de histórico por conta.
+ *
+ * <ul>
+ *   <li>{@code fixed:N} — todas as contas com N lançamentos</li>
+ *   <li>{@code uniform:MIN-MAX} — uniforme entre MIN e MAX</li>
+ *   <li>{@code pareto:MEDIA} — cauda longa com a média pedida (alfa 1,5): a maioria das contas
+ *       tem pouco histórico e poucas contas concentram muitos lançamentos, como em produção</li>
+ * </ul>
+ *
+ * O resultado é limitado a {@code max} para que uma amostra extrema da cauda não domine o seed.
+ */
+record HistoryDistribution(String spec, Kind kind, double a, double b, int max) {
+
+  enum Kind { FIXED, UNIFORM, PARETO }
+
+  private static final double PARETO_ALPHA = 1.5;
+
+  static HistoryDistribution parse(String spec, int max) {
+    int colon = spec.indexOf(':');
+    if (colon < 0) {
+      throw new IllegalArgumentException("Distribuição inválida: " + spec + " (use fixed:N, uniform:MIN-MAX ou pareto:MEDIA)");
+    }
+    String name = spec.substring(0, colon);
+    String args = spec.substring(colon + 1);
+    try {
+      return switch (name) {
+        case "fixed" -> new HistoryDistribution(spec, Kind.FIXED, Integer.parseInt(args), 0, max);
+        case "uniform" -> {
+          String[] range = args.split("-", 2);
+          int min = Integer.parseInt(range[0]);
+          int top = Integer.parseInt(range[1]);
+          if (min < 0 || top < min) {
+            throw new IllegalArgumentException("Intervalo inválido em " + spec);
+          }
+          yield new HistoryDistribution(spec, Kind.UNIFORM, min, top, max);
+        }
+        case "pareto" -> {
+          double mean = Double.parseDouble(args);
+          if (mean <= 0) {
+            throw new IllegalArgumentException("A média deve ser positiva em " + spec);
+          }
+          // Média de Pareto = alfa * xm / (alfa - 1)
+          yield new HistoryDistribution(spec, Kind.PARETO, mean * (PARETO_ALPHA - 1) / PARETO_ALPHA, 0, max);
+        }
+        default -> throw new IllegalArgumentException("Distribuição desconhecida: " + name);
+      };
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Distribuição inválida: " + spec);
+    }
+  }
+
+  int sample(RandomGenerator random) {
+    double value = switch (kind) {
+      case FIXED -> a;
+      case UNIFORM -> a + random.nextInt((int) (b - a) + 1);
+      case PARETO -> a / Math.pow(1 - random.nextDouble(), 1 / PARETO_ALPHA);
+    };
+    return (int) Math.min(Math.round(value), max);
+  }
+}
@@ -0,0 +1,145 @@
+package com.backend.keysbankapi.loadtest;
+
+import com.backend.keysbankapi.loadtest.Workload.Operation;
+import com.backend.keysbankapi.loadtest.Workload.SeededAccount;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executa o workload contra a API por um tempo fixo, um worker por thread virtual.
+ *
+ * Sem --rate o teste é em malha fechada: cada worker manda a próxima requisição assim que a
+ * anterior responde, e a vazão medida é a que a API sustenta com aquela concorrência. Com --rate
+ * o teste é em malha aberta: as requisições seguem um cronograma fixo e a latência é contada a
+ * partir do instante planejado, não do envio. Assim uma pausa da API aparece nos percentis em vez
+ * de simplesmente reduzir o número de amostras (coordinated omission).
+ *
+ * O aquecimento (--warmup) roda a mesma carga sem registrar nada: JIT, caches e pool de conexões
+ * da API chegam aquecidos na janela medida.
+ */
+final class LoadRunner {
+
+  // Latências em microssegundos, até 60 s, com 3 dígitos significativos
+  private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+  record Config(int concurrency, Duration duration, Duration warmup, double rate) {}
+
+  /** Contadores de uma operação na janela medida. */
+  static final class Stats {
+    final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    final LongAdder requests = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final Map<String, LongAdder> errorsByKind = new ConcurrentHashMap<>();
+
+    void record(long micros, String error) {
+      latency.recordValue(Math.min(Math.max(micros, 1), MAX_LATENCY_MICROS));
+      requests.increment();
+      if (error != null) {
+        errors.increment();
+        errorsByKind.computeIfAbsent(error, k -> new LongAdder()).increment();
+      }
+    }
+  }
+
+  private final HttpClient client;
+  private final Workload workload;
+  private final List<SeededAccount> accounts;
+  private final Config config;
+
+  LoadRunner(HttpClient client, Workload workload, List<SeededAccount> accounts, Config config) {
+    this.client = client;
+    this.workload = workload;
+    this.accounts = accounts;
+    this.config = config;
+  }
+
+  Map<Operation, Stats> run() throws InterruptedException {
+    Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    for (Operation op : workload.operations()) {
+      stats.put(op, new Stats());
+    }
+
+    long start = System.nanoTime();
+    long measureFrom = start + config.warmup().toNanos();
+    long deadline = measureFrom + config.duration().toNanos();
+    // Intervalo entre requisições de um mesmo worker em malha aberta
+    long interval = config.rate() > 0 ? (long) (config.concurrency() * 1e9 / config.rate()) : 0;
+
+    try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int w = 0; w < config.concurrency(); w++) {
+        long firstSlot = start + interval * w / config.concurrency();
+        workers.submit(() -> work(stats, firstSlot, interval, measureFrom, deadline));
+      }
+      workers.shutdown();
+      // Requisições em voo no fim da janela ainda têm o timeout para terminar
+      if (!workers.awaitTermination(config.duration().plus(config.warmup()).toSeconds() + 120, TimeUnit.SECONDS)) {
+        workers.shutdownNow();
+      }
+    }
+    return stats;
+  }
+
+  private void work(Map<Operation, Stats> stats, long firstSlot, long interval, long measureFrom, long deadline) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long scheduled = firstSlot;
+    while (!Thread.currentThread().isInterrupted()) {
+      if (interval > 0) {
+        long wait = scheduled - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+      } else {
+        scheduled = System.nanoTime();
+      }
+      if (scheduled >= deadline) {
+        return;
+      }
+
+      Operation op = workload.pick(random);
+      HttpRequest request = workload.request(op, accounts.get(random.nextInt(accounts.size())), random);
+      String error = send(request);
+      long micros = (System.nanoTime() - scheduled) / 1_000;
+      if (scheduled >= measureFrom) {
+        stats.get(op).record(micros, error);
+      }
+      if (interval > 0) {
+        scheduled += interval;
+      }
+    }
+  }
+
+  /** Envia a requisição e devolve o tipo do erro, ou null em sucesso (2xx e 304). */
+  private String send(HttpRequest request) {
+    try {
+      int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+      if ((status >= 200 && status < 300) || status == 304) {
+        return null;
+      }
+      return "http_" + status;
+    } catch (HttpTimeoutException e) {
+      return "timeout";
+    } catch (IOException e) {
+      return "io";
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return "interrupted";
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package com.backend.keysbankapi.loadtest;
+
+import com.backend.keysbankapi.loadtest.LoadRunner.Stats;
+import com.backend.keysbankapi.loadtest.Workload.Operation;
+import com.backend.keysbankapi.loadtest.Workload.SeededAccount;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Ponto de entrada do loadtest.jar.
+ *
+ * <pre>
+ *   seed     gera clientes, contas e histórico de lançamentos na agência de teste
+ *   run      dispara o workload misto contra a API e reporta vazão, latência e erros
+ *   cleanup  remove os dados da agência de teste
+ * </pre>
+ *
+ * Banco e API são locais: --db aponta para o PostgreSQL (padrão: o do docker-compose) e --url
+ * para a API já rodando. Ver README.md para as opções.
+ */
+public final class LoadTest {
+
+  private static final Set<String> DB_OPTIONS = Set.of("db", "db-user", "db-password");
+  private static final Set<String> SEED_OPTIONS = Set.of("accounts", "history", "history-days", "history-max", "seed");
+  private static final Set<String> RUN_OPTIONS = Set.of("url", "duration", "warmup", "concurrency", "rate", "mix",
+      "timeout", "history-days", "out");
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0 || args[0].equals("-h") || args[0].equals("--help")) {
+      usage();
+      return;
+    }
+    try {
+      switch (args[0]) {
+        case "seed" -> seed(Options.parse(args, 1, union(DB_OPTIONS, SEED_OPTIONS)));
+        case "run" -> run(Options.parse(args, 1, union(DB_OPTIONS, RUN_OPTIONS)));
+        case "cleanup" -> cleanup(Options.parse(args, 1, DB_OPTIONS));
+        default -> throw new IllegalArgumentException("Comando desconhecido: " + args[0]);
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println();
+      usage();
+      System.exit(2);
+    }
+  }
+
+  private static void seed(Options options) throws SQLException {
+    int accounts = options.integer("accounts", 1_000);
+    int historyDays = options.integer("history-days", 180);
+    if (accounts <= 0 || historyDays <= 0) {
+      throw new IllegalArgumentException("--accounts e --history-days devem ser positivos");
+    }
+    HistoryDistribution history = HistoryDistribution.parse(options.string("history", "pareto:200"),
+        options.integer("history-max", 100_000));
+
+    try (Connection connection = connect(options)) {
+      Seeder.Result result = new Seeder(connection).seed(accounts, history, historyDays, options.integer("seed", 42));
+      System.out.printf("seed: %d contas, %d lançamentos (%s em %d dias) em %.1f s%n",
+          result.accounts(), result.transactions(), history.spec(), historyDays, result.millis() / 1000.0);
+    }
+  }
+
+  private static void cleanup(Options options) throws SQLException {
+    try (Connection connection = connect(options)) {
+      System.out.printf("cleanup: %d contas removidas%n", new Seeder(connection).cleanup());
+    }
+  }
+
+  private static void run(Options options) throws Exception {
+    URI url = URI.create(options.string("url", "http://localhost:8080"));
+    int concurrency = options.integer("concurrency", 32);
+    double rate = options.decimal("rate", 0);
+    Duration duration = options.duration("duration", Duration.ofSeconds(60));
+    Duration warmup = options.duration("warmup", Duration.ofSeconds(10));
+    Duration timeout = options.duration("timeout", Duration.ofSeconds(10));
+    int historyDays = options.integer("history-days", 180);
+    String mix = options.string("mix", Workload.DEFAULT_MIX);
+    if (concurrency <= 0 || rate < 0 || duration.isZero() || duration.isNegative()) {
+      throw new IllegalArgumentException("--concurrency e --duration devem ser positivos e --rate não pode ser negativo");
+    }
+
+    List<SeededAccount> accounts;
+    try (Connection connection = connect(options)) {
+      accounts = seededAccounts(connection);
+    }
+    if (accounts.isEmpty()) {
+      throw new IllegalArgumentException("Nenhuma conta de teste no banco; rode o comando seed antes");
+    }
+
+    Workload workload = new Workload(url, timeout, historyDays, mix);
+    LoadRunner.Config config = new LoadRunner.Config(concurrency, duration, warmup, rate);
+    System.out.printf("run: %s, %d contas, concorrência %d, %s, aquecimento %d s, medição %d s%n",
+        url, accounts.size(), concurrency, rate > 0 ? "malha aberta a " + rate + " req/s" : "malha fechada",
+        warmup.toSeconds(), duration.toSeconds());
+
+    Map<Operation, Stats> stats;
+    try (HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(timeout)
+        .build()) {
+      stats = new LoadRunner(client, workload, accounts, config).run();
+    }
+
+    Map<String, Object> settings = new LinkedHashMap<>();
+    settings.put("url", url);
+    settings.put("accounts", accounts.size());
+    settings.put("concurrency", concurrency);
+    settings.put("rate", rate);
+    settings.put("durationSeconds", duration.toSeconds());
+    settings.put("warmupSeconds", warmup.toSeconds());
+    settings.put("mix", mix);
+    Report report = new Report(stats, settings, duration.toNanos() / 1e9);
+    report.print(System.out);
+
+    Path out = Path.of(options.string("out",
+        "results/loadtest-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json"));
+    report.write(out);
+    System.out.println("resultado gravado em " + out);
+  }
+
+  private static List<SeededAccount> seededAccounts(Connection connection) throws SQLException {
+    List<SeededAccount> accounts = new ArrayList<>();
+    try (Statement st = connection.createStatement();
+         ResultSet rs = st.executeQuery("SELECT id, account_number FROM accounts WHERE agency = '" + Seeder.AGENCY + "'")) {
+      while (rs.next()) {
+        accounts.add(new SeededAccount(rs.getObject(1, UUID.class), rs.getString(2)));
+      }
+    }
+    return accounts;
+  }
+
+  private static Connection connect(Options options) throws SQLException {
+    String password = options.string("db-password", System.getenv().getOrDefault("PGPASSWORD", "bankpass"));
+    return DriverManager.getConnection(
+        options.string("db", "jdbc:postgresql://localhost:5432/bank"),
+        options.string("db-user", "bankuser"),
+        password);
+  }
+
+  private static Set<String> union(Set<String> a, Set<String> b) {
+    Set<String> all = new HashSet<>(a);
+    all.addAll(b);
+    return all;
+  }
+
+  private static void usage() {
+    System.out.println("""
+        Uso: java -jar loadtest.jar <seed|run|cleanup> [opções]
+
+          seed     --accounts 1000 --history pareto:200 --history-days 180 --history-max 100000 --seed 42
+          run      --url http://localhost:8080 --duration 60s --warmup 10s --concurrency 32 [--rate 500]
+                   --mix %s
+                   --timeout 10s --history-days 180 --out results/loadtest-<data>.json
+          cleanup
+
+        Banco (todos os comandos): --db jdbc:postgresql://localhost:5432/bank --db-user bankuser --db-password bankpass
+        """.formatted(Workload.DEFAULT_MIX));
+  }
+}
@@ -0,0 +1,101 @@
+package com.backend.keysbankapi.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opções de linha de comando no formato --nome valor ou --nome=valor. Opções desconhecidas
+ * são rejeitadas para que um erro de digitação não vire um teste com o valor padrão.
+ */
+final class Options {
+
+  private final Map<String, String> values = new HashMap<>();
+
+  private Options() {}
+
+  static Options parse(String[] args, int from, Set<String> known) {
+    Options options = new Options();
+    for (int i = from; i < args.length; i++) {
+      String arg = args[i];
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Argumento inesperado: " + arg);
+      }
+      String name = arg.substring(2);
+      String value;
+      int eq = name.indexOf('=');
+      if (eq >= 0) {
+        value = name.substring(eq + 1);
+        name = name.substring(0, eq);
+      } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+        value = args[++i];
+      } else {
+        value = "true";
+      }
+      if (!known.contains(name)) {
+        throw new IllegalArgumentException("Opção desconhecida: --" + name);
+      }
+      options.values.put(name, value);
+    }
+    return options;
+  }
+
+  String string(String name, String defaultValue) {
+    return values.getOrDefault(name, defaultValue);
+  }
+
+  int integer(String name, int defaultValue) {
+    String value = values.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("--" + name + " deve ser um número inteiro: " + value);
+    }
+  }
+
+  double decimal(String name, double defaultValue) {
+    String value = values.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("--" + name + " deve ser um número: " + value);
+    }
+  }
+
+  boolean flag(String name) {
+    return Boolean.parseBoolean(values.getOrDefault(name, "false"));
+  }
+
+  /** Durações como 500ms, 30s, 5m ou 1h; sem unidade, segundos. */
+  Duration duration(String name, Duration defaultValue) {
+    String value = values.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      if (value.endsWith("ms")) {
+        return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+      }
+      char unit = value.charAt(value.length() - 1);
+      if (Character.isDigit(unit)) {
+        return Duration.ofSeconds(Long.parseLong(value));
+      }
+      long amount = Long.parseLong(value.substring(0, value.length() - 1));
+      return switch (unit) {
+        case 's' -> Duration.ofSeconds(amount);
+        case 'm' -> Duration.ofMinutes(amount);
+        case 'h' -> Duration.ofHours(amount);
+        default -> throw new IllegalArgumentException("--" + name + ": unidade desconhecida em " + value);
+      };
+    } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("--" + name + " deve ser uma duração (ex.: 30s, 5m): " + value);
+    }
+  }
+}
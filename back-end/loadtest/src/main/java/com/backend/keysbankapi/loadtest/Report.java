@@ -0,0 +1,118 @@
+package com.backend.keysbankapi.loadtest;
+
+import com.backend.keysbankapi.loadtest.LoadRunner.Stats;
+import com.backend.keysbankapi.loadtest.Workload.Operation;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultado do teste de carga: tabela no console e o mesmo conteúdo em JSON, com a configuração
+ * da execução, para comparar execuções depois.
+ */
+final class Report {
+
+  private final Map<Operation, Stats> stats;
+  private final Map<String, Object> config;
+  private final double seconds;
+
+  Report(Map<Operation, Stats> stats, Map<String, Object> config, double seconds) {
+    this.stats = stats;
+    this.config = config;
+    this.seconds = seconds;
+  }
+
+  void print(PrintStream out) {
+    out.printf("%-20s %10s %9s %10s %9s %9s %9s %9s%n",
+        "operacao", "requisicoes", "erros", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    Histogram all = new Histogram(3);
+    long requests = 0;
+    long errors = 0;
+    for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+      Stats s = entry.getValue();
+      Histogram h = s.latency.copy();
+      all.add(h);
+      requests += s.requests.sum();
+      errors += s.errors.sum();
+      line(out, entry.getKey().label, s.requests.sum(), s.errors.sum(), h);
+    }
+    line(out, "total", requests, errors, all);
+
+    for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+      if (!entry.getValue().errorsByKind.isEmpty()) {
+        Map<String, Long> kinds = new TreeMap<>();
+        entry.getValue().errorsByKind.forEach((k, v) -> kinds.put(k, v.sum()));
+        out.println("erros em " + entry.getKey().label + ": " + kinds);
+      }
+    }
+  }
+
+  private void line(PrintStream out, String name, long requests, long errors, Histogram h) {
+    out.printf("%-20s %10d %8.2f%% %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+        name, requests, percent(errors, requests), requests / seconds,
+        ms(h, 50), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0);
+  }
+
+  void write(Path file) throws IOException {
+    StringBuilder json = new StringBuilder("{\n");
+    json.append("  \"finishedAt\": \"").append(Instant.now()).append("\",\n");
+    json.append("  \"measuredSeconds\": ").append(seconds).append(",\n");
+    json.append("  \"config\": {");
+    String sep = "\n";
+    for (Map.Entry<String, Object> entry : config.entrySet()) {
+      json.append(sep).append("    \"").append(entry.getKey()).append("\": ");
+      if (entry.getValue() instanceof Number) {
+        json.append(entry.getValue());
+      } else {
+        json.append('"').append(String.valueOf(entry.getValue()).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+      }
+      sep = ",\n";
+    }
+    json.append("\n  },\n  \"operations\": {");
+    sep = "\n";
+    for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+      Stats s = entry.getValue();
+      Histogram h = s.latency.copy();
+      long requests = s.requests.sum();
+      long errors = s.errors.sum();
+      json.append(sep).append("    \"").append(entry.getKey().label).append("\": {")
+          .append("\"requests\": ").append(requests)
+          .append(", \"errors\": ").append(errors)
+          .append(", \"errorRate\": ").append(requests == 0 ? 0 : (double) errors / requests)
+          .append(", \"throughput\": ").append(requests / seconds)
+          .append(", \"p50Ms\": ").append(ms(h, 50))
+          .append(", \"p99Ms\": ").append(ms(h, 99))
+          .append(", \"p999Ms\": ").append(ms(h, 99.9))
+          .append(", \"maxMs\": ").append(h.getMaxValue() / 1000.0)
+          .append(", \"errorsByKind\": {");
+      String kindSep = "";
+      for (Map.Entry<String, LongAdder> kind : new TreeMap<>(s.errorsByKind).entrySet()) {
+        json.append(kindSep).append('"').append(kind.getKey()).append("\": ").append(kind.getValue().sum());
+        kindSep = ", ";
+      }
+      json.append("}}");
+      sep = ",\n";
+    }
+    json.append("\n  }\n}\n");
+
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    Files.writeString(file, json);
+  }
+
+  private static double ms(Histogram h, double percentile) {
+    return h.getTotalCount() == 0 ? 0 : h.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  private static double percent(long part, long total) {
+    return total == 0 ? 0 : part * 100.0 / total;
+  }
+}
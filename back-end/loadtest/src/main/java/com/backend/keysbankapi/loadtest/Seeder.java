@@ -0,0 +1,255 @@
+package com.backend.keysbankapi.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Gera o razão sintético direto no banco: clientes, contas e o histórico de lançamentos por COPY,
+ * depois recalcula saldo, saldos diários e rollups das contas geradas com comandos em conjunto,
+ * como a importação em lote faz. Passar pela API levaria horas para históricos grandes.
+ *
+ * Os dados ficam marcados pela agência {@link #AGENCY}: o seed remove os dados de uma execução
+ * anterior antes de gerar e o cleanup remove tudo. Nada fora dessa agência é tocado.
+ */
+final class Seeder {
+
+  static final String AGENCY = "9997";
+
+  private static final String[] CREDIT_CATEGORIES = {"DEPOSITO", "PIX", "TRANSFERENCIA", "SALARIO"};
+  private static final String[] DEBIT_CATEGORIES = {"PIX", "TRANSFERENCIA", "PAGAMENTO_CONTA", "CARTAO"};
+  private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+  private static final int COPY_BUFFER = 1 << 20;
+
+  private static final String LOAD_ACCOUNTS = "(SELECT id FROM accounts WHERE agency = '" + AGENCY + "')";
+
+  private static final List<String> CLEANUP = List.of(
+      "DELETE FROM transaction_idempotency_keys k USING transactions t WHERE k.transaction_id = t.id AND t.account_id IN " + LOAD_ACCOUNTS,
+      "DELETE FROM ledger_daily_rollups WHERE account_id IN " + LOAD_ACCOUNTS,
+      "DELETE FROM account_daily_balance_shards WHERE account_id IN " + LOAD_ACCOUNTS,
+      "DELETE FROM account_balance_shards WHERE account_id IN " + LOAD_ACCOUNTS,
+      "DELETE FROM account_daily_balances WHERE account_id IN " + LOAD_ACCOUNTS,
+      "DELETE FROM transactions WHERE account_id IN " + LOAD_ACCOUNTS,
+      "DELETE FROM bills WHERE account_id IN " + LOAD_ACCOUNTS);
+
+  private static final String DELETE_ACCOUNTS = "DELETE FROM accounts WHERE agency = '" + AGENCY + "'";
+  private static final String DELETE_CUSTOMERS = "DELETE FROM customers WHERE email LIKE 'loadtest-%@loadtest.local'";
+
+  private static final String REBUILD_DAILY_BALANCES = """
+      INSERT INTO account_daily_balances (account_id, day, balance, updated_at)
+      SELECT account_id, created_at::date,
+             SUM(CASE WHEN type = 'CREDIT' THEN amount WHEN type = 'DEBIT' THEN -amount ELSE 0 END),
+             MAX(created_at)
+      FROM transactions
+      WHERE account_id IN %s
+      GROUP BY account_id, created_at::date
+      """.formatted(LOAD_ACCOUNTS);
+
+  private static final String REBUILD_ACCOUNT_BALANCES = """
+      UPDATE accounts a
+      SET balance = s.total, ledger_version = s.n
+      FROM (
+        SELECT account_id, SUM(CASE WHEN type = 'CREDIT' THEN amount WHEN type = 'DEBIT' THEN -amount ELSE 0 END) AS total,
+               COUNT(*) AS n
+        FROM transactions
+        WHERE account_id IN %s
+        GROUP BY account_id
+      ) s
+      WHERE s.account_id = a.id
+      """.formatted(LOAD_ACCOUNTS);
+
+  private static final String REBUILD_ROLLUPS = """
+      INSERT INTO ledger_daily_rollups (account_id, day, category, type, shard, total, tx_count)
+      SELECT account_id, created_at::date, category, type, 0, SUM(amount), COUNT(*)
+      FROM transactions
+      WHERE account_id IN %s
+      GROUP BY account_id, created_at::date, category, type
+      """.formatted(LOAD_ACCOUNTS);
+
+  private final Connection connection;
+
+  Seeder(Connection connection) {
+    this.connection = connection;
+  }
+
+  record Result(int accounts, long transactions, long millis) {}
+
+  Result seed(int accounts, HistoryDistribution history, int historyDays, long seed) throws SQLException {
+    long started = System.nanoTime();
+    cleanup();
+
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime oldest = now.minusDays(historyDays);
+    createMissingPartitions(YearMonth.from(oldest), YearMonth.from(now));
+
+    long rows;
+    connection.setAutoCommit(false);
+    try {
+      SplittableRandom random = new SplittableRandom(seed);
+      List<UUID> ids = new ArrayList<>(accounts);
+      for (int i = 0; i < accounts; i++) {
+        ids.add(new UUID(random.nextLong(), random.nextLong()));
+      }
+      copyCustomersAndAccounts(ids, now);
+      rows = copyTransactions(ids, history, now, historyDays * 86_400L, random);
+
+      try (Statement st = connection.createStatement()) {
+        st.executeUpdate(REBUILD_ACCOUNT_BALANCES);
+        st.executeUpdate(REBUILD_DAILY_BALANCES);
+        st.executeUpdate(REBUILD_ROLLUPS);
+      }
+      connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+
+    // Estatísticas atualizadas para o planner não tratar as contas novas como vazias
+    try (Statement st = connection.createStatement()) {
+      st.execute("ANALYZE transactions");
+      st.execute("ANALYZE accounts");
+    }
+    return new Result(accounts, rows, (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /** Remove os dados da agência de teste. Devolve o número de contas removidas. */
+  int cleanup() throws SQLException {
+    connection.setAutoCommit(false);
+    try (Statement st = connection.createStatement()) {
+      for (String sql : CLEANUP) {
+        st.executeUpdate(sql);
+      }
+      int removed = st.executeUpdate(DELETE_ACCOUNTS);
+      st.executeUpdate(DELETE_CUSTOMERS);
+      connection.commit();
+      return removed;
+    } catch (SQLException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  /*
+   * O histórico pode recuar além das partições criadas pela migration. Sem partição o COPY cairia
+   * em transactions_default e as consultas por período perderiam o pruning. Um mês que já tem
+   * linhas na default não pode ganhar partição; nesse caso o mês fica como está.
+   */
+  private void createMissingPartitions(YearMonth first, YearMonth last) throws SQLException {
+    for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+      String name = "transactions_p%d_%02d".formatted(month.getYear(), month.getMonthValue());
+      String sql = "CREATE TABLE IF NOT EXISTS %s PARTITION OF transactions FOR VALUES FROM ('%s') TO ('%s')"
+          .formatted(name, month.atDay(1), month.plusMonths(1).atDay(1));
+      try (Statement st = connection.createStatement()) {
+        st.execute(sql);
+      } catch (SQLException e) {
+        System.err.println("Aviso: não foi possível criar " + name + " (" + e.getMessage() + "); os lançamentos do mês vão para transactions_default");
+      }
+    }
+  }
+
+  private void copyCustomersAndAccounts(List<UUID> ids, LocalDateTime now) throws SQLException {
+    String created = now.minusDays(1).format(TIMESTAMP);
+    StringBuilder customers = new StringBuilder();
+    StringBuilder accounts = new StringBuilder();
+    for (int i = 0; i < ids.size(); i++) {
+      UUID id = ids.get(i);
+      customers.append(id).append(",Cliente carga ").append(i).append(",loadtest-").append(i)
+          .append("@loadtest.local,").append(created).append('\n');
+      accounts.append(id).append(',').append(id).append(',').append(AGENCY).append(',')
+          .append(accountNumber(i)).append(",ATIVA,").append(created).append('\n');
+    }
+    copy("COPY customers (id, name, email, created_at) FROM STDIN (FORMAT csv)", customers);
+    copy("COPY accounts (id, customer_id, agency, account_number, status, created_at) FROM STDIN (FORMAT csv)", accounts);
+  }
+
+  /** Número de conta da i-ésima conta de teste; o workload refaz o mesmo cálculo no login. */
+  static String accountNumber(int index) {
+    return "LT%07d".formatted(index);
+  }
+
+  /*
+   * Créditos mais frequentes e maiores que os débitos, para o saldo final ficar positivo e os
+   * débitos do workload não esbarrarem em saldo insuficiente. Os ids seguem o layout UUID v7
+   * com o instante do lançamento, como os gerados pela API.
+   */
+  private long copyTransactions(List<UUID> ids, HistoryDistribution history, LocalDateTime now, long spanSeconds,
+                                SplittableRandom random) throws SQLException {
+    CopyIn copy = ((PGConnection) connection.unwrap(PGConnection.class)).getCopyAPI()
+        .copyIn("COPY transactions (id, account_id, type, category, amount, description, created_at) FROM STDIN (FORMAT csv)");
+    ZoneId zone = ZoneId.systemDefault();
+    long rows = 0;
+    StringBuilder buffer = new StringBuilder(COPY_BUFFER + 1024);
+    try {
+      for (UUID account : ids) {
+        int count = history.sample(random);
+        for (int i = 0; i < count; i++) {
+          LocalDateTime createdAt = now.minusSeconds(1 + random.nextLong(spanSeconds)).withNano(random.nextInt(1_000_000) * 1_000);
+          boolean credit = random.nextInt(10) < 7;
+          long cents = credit ? 1_000 + random.nextLong(49_000) : 500 + random.nextLong(14_500);
+          buffer.append(uuidV7(createdAt.atZone(zone).toInstant().toEpochMilli(), random)).append(',')
+              .append(account).append(',')
+              .append(credit ? "CREDIT" : "DEBIT").append(',')
+              .append(credit ? pick(CREDIT_CATEGORIES, random) : pick(DEBIT_CATEGORIES, random)).append(',')
+              .append(cents / 100).append('.').append(cents % 100 < 10 ? "0" : "").append(cents % 100).append(',')
+              .append("Lançamento sintético ").append(rows).append(',')
+              .append(createdAt.format(TIMESTAMP)).append('\n');
+          rows++;
+          if (buffer.length() >= COPY_BUFFER) {
+            write(copy, buffer);
+          }
+        }
+      }
+      write(copy, buffer);
+      copy.endCopy();
+      return rows;
+    } finally {
+      if (copy.isActive()) {
+        copy.cancelCopy();
+      }
+    }
+  }
+
+  private void copy(String sql, StringBuilder csv) throws SQLException {
+    CopyIn copy = ((PGConnection) connection.unwrap(PGConnection.class)).getCopyAPI().copyIn(sql);
+    try {
+      write(copy, csv);
+      copy.endCopy();
+    } finally {
+      if (copy.isActive()) {
+        copy.cancelCopy();
+      }
+    }
+  }
+
+  private static void write(CopyIn copy, StringBuilder buffer) throws SQLException {
+    byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+    copy.writeToCopy(bytes, 0, bytes.length);
+    buffer.setLength(0);
+  }
+
+  private static String pick(String[] values, SplittableRandom random) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private static UUID uuidV7(long epochMillis, SplittableRandom random) {
+    long msb = (epochMillis << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+    long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+}
@@ -0,0 +1,169 @@
+package com.backend.keysbankapi.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Mistura de requisições do teste de carga. Cada operação tem um peso; a cada iteração o worker
+ * sorteia a operação pelo peso e uma conta de teste ao acaso.
+ *
+ * Formato de --mix: {@code login=10,post=40,statement-page=25,statement-filtered=20,balance=5}.
+ * Operações omitidas ficam com peso zero.
+ */
+final class Workload {
+
+  static final String DEFAULT_MIX = "login=10,post=40,statement-page=25,statement-filtered=20,balance=5";
+
+  record SeededAccount(UUID id, String accountNumber) {}
+
+  enum Operation {
+    /** GET /accounts/login com agência e número da conta */
+    LOGIN("login"),
+    /** POST /transaction com Idempotency-Key; 80% créditos, 20% débitos pequenos */
+    POST("post"),
+    /** GET /accounts/{id}/statement?limit=50, primeira página */
+    STATEMENT_PAGE("statement-page"),
+    /** GET /accounts/{id}/statement com período de 7 a 90 dias e, em metade das vezes, tipo */
+    STATEMENT_FILTERED("statement-filtered"),
+    /** GET /accounts/{id}/statement sem filtros: o extrato completo da conta */
+    STATEMENT("statement"),
+    /** GET /accounts/{id}/balance */
+    BALANCE("balance");
+
+    final String label;
+
+    Operation(String label) {
+      this.label = label;
+    }
+
+    static Operation of(String label) {
+      for (Operation op : values()) {
+        if (op.label.equals(label)) {
+          return op;
+        }
+      }
+      throw new IllegalArgumentException("Operação desconhecida em --mix: " + label);
+    }
+  }
+
+  private final URI base;
+  private final Duration timeout;
+  private final int historyDays;
+  private final Map<Operation, Integer> weights;
+  private final Operation[] operations;
+  private final int[] cumulative;
+
+  Workload(URI base, Duration timeout, int historyDays, String mix) {
+    this.base = base;
+    this.timeout = timeout;
+    this.historyDays = Math.max(historyDays, 7);
+    this.weights = parseMix(mix);
+
+    List<Operation> ops = new ArrayList<>();
+    List<Integer> sums = new ArrayList<>();
+    int total = 0;
+    for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+      if (entry.getValue() > 0) {
+        total += entry.getValue();
+        ops.add(entry.getKey());
+        sums.add(total);
+      }
+    }
+    if (ops.isEmpty()) {
+      throw new IllegalArgumentException("--mix precisa de ao menos uma operação com peso positivo");
+    }
+    this.operations = ops.toArray(Operation[]::new);
+    this.cumulative = sums.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new LinkedHashMap<>();
+    for (String part : mix.split(",")) {
+      String[] kv = part.trim().split("=", 2);
+      if (kv.length != 2) {
+        throw new IllegalArgumentException("Item inválido em --mix: " + part);
+      }
+      int weight;
+      try {
+        weight = Integer.parseInt(kv[1].trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Peso inválido em --mix: " + part);
+      }
+      if (weight < 0) {
+        throw new IllegalArgumentException("Peso negativo em --mix: " + part);
+      }
+      weights.put(Operation.of(kv[0].trim()), weight);
+    }
+    return weights;
+  }
+
+  /** Operações com peso positivo, na ordem do --mix. */
+  List<Operation> operations() {
+    return List.of(operations);
+  }
+
+  Map<Operation, Integer> weights() {
+    return weights;
+  }
+
+  Operation pick(RandomGenerator random) {
+    int roll = random.nextInt(cumulative[cumulative.length - 1]);
+    for (int i = 0; i < cumulative.length; i++) {
+      if (roll < cumulative[i]) {
+        return operations[i];
+      }
+    }
+    return operations[operations.length - 1];
+  }
+
+  HttpRequest request(Operation op, SeededAccount account, RandomGenerator random) {
+    return switch (op) {
+      case LOGIN -> get("/accounts/login?agency=" + Seeder.AGENCY + "&accountNumber=" + account.accountNumber());
+      case POST -> post(account, random);
+      case STATEMENT_PAGE -> get("/accounts/" + account.id() + "/statement?limit=50");
+      case STATEMENT_FILTERED -> get(filteredStatement(account, random));
+      case STATEMENT -> get("/accounts/" + account.id() + "/statement");
+      case BALANCE -> get("/accounts/" + account.id() + "/balance");
+    };
+  }
+
+  private String filteredStatement(SeededAccount account, RandomGenerator random) {
+    int days = 7 + random.nextInt(Math.min(historyDays, 90) - 6);
+    LocalDate end = LocalDate.now().minusDays(random.nextInt(historyDays - days + 1));
+    StringBuilder path = new StringBuilder("/accounts/").append(account.id())
+        .append("/statement?startDate=").append(end.minusDays(days)).append("&endDate=").append(end);
+    if (random.nextBoolean()) {
+      path.append("&type=").append(random.nextBoolean() ? "CREDIT" : "DEBIT");
+    }
+    return path.toString();
+  }
+
+  private HttpRequest post(SeededAccount account, RandomGenerator random) {
+    boolean credit = random.nextInt(10) < 8;
+    long cents = credit ? 100 + random.nextLong(19_900) : 100 + random.nextLong(1_900);
+    String body = """
+        {"accountId":"%s","type":"%s","category":"PIX","amount":%d.%02d,"description":"Carga"}"""
+        .formatted(account.id(), credit ? "CREDIT" : "DEBIT", cents / 100, cents % 100);
+    return HttpRequest.newBuilder(base.resolve("/transaction"))
+        .timeout(timeout)
+        .header("Content-Type", "application/json")
+        .header("Idempotency-Key", UUID.randomUUID().toString())
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(base.resolve(path))
+        .timeout(timeout)
+        .GET()
+        .build();
+  }
+}
@@ -2,7 +2,10 @@ package com.backend.keysbankapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -10,24 +13,31 @@ import org.springframework.web.filter.CorsFilter;
 import java.util.Arrays;
 
 @SpringBootApplication
+@EnableScheduling
 public class KeysbankapiApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(KeysbankapiApplication.class, args);
 	}
 
+	// Antes do controle de admissão (HIGHEST_PRECEDENCE + 10): o 503 de sobrecarga também leva os
+	// cabeçalhos de CORS e o navegador consegue ler o Retry-After
 	@Bean
-	public CorsFilter corsFilter() {
+	public FilterRegistrationBean<CorsFilter> corsFilter() {
 		CorsConfiguration config = new CorsConfiguration();
 		config.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://localhost:3001"));
 		config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
 		config.setAllowedHeaders(Arrays.asList("*"));
+		// ETag do extrato e do saldo (versão do razão), para clientes que fazem o GET condicional por conta própria
+		config.setExposedHeaders(Arrays.asList("ETag"));
 		config.setAllowCredentials(true);
 		config.setMaxAge(3600L);
 
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
 		source.registerCorsConfiguration("/**", config);
-		return new CorsFilter(source);
+		FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(new CorsFilter(source));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+		return registration;
 	}
 
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.backend.keysbankapi.account;
 
+import com.backend.keysbankapi.common.UuidV7;
 import jakarta.persistence.*;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -22,15 +24,20 @@ public class Account {
   @Column(nullable = false)
   private String status; // "ATIVA"
 
+  // mantido pelos lançamentos com UPDATE atômico; a entidade nunca sobrescreve o valor
+  @Column(nullable = false, precision = 18, scale = 2, updatable = false)
+  private BigDecimal balance;
+
   @Column(name = "created_at", nullable = false)
   private Instant createdAt;
 
   @PrePersist
   void prePersist() {
-    if (id == null) id = UUID.randomUUID();
+    if (id == null) id = UuidV7.next();
     if (createdAt == null) createdAt = Instant.now();
     if (status == null) status = "ATIVA";
     if (agency == null) agency = "0001";
+    if (balance == null) balance = BigDecimal.ZERO;
     if (accountNumber == null) accountNumber = generateAccountNumber();
   }
 
@@ -46,5 +53,7 @@ public class Account {
   public String getAgency() { return agency; }
   public String getAccountNumber() { return accountNumber; }
   public String getStatus() { return status; }
+  public BigDecimal getBalance() { return balance; }
+  void setBalance(BigDecimal balance) { this.balance = balance; }
   public Instant getCreatedAt() { return createdAt; }
 }
@@ -1,6 +1,7 @@
 package com.backend.keysbankapi.account;
 
 import com.backend.keysbankapi.account.dto.AccountResponse;
+import com.backend.keysbankapi.account.dto.BalanceResponse;
 import com.backend.keysbankapi.account.dto.CreateAccountRequest;
 import com.backend.keysbankapi.account.dto.LoginResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,8 +11,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/accounts")
@@ -82,4 +88,44 @@ public class AccountController {
       @RequestParam String accountNumber) {
     return service.validateAndGetAccount(agency, accountNumber);
   }
+
+  @GetMapping("/{accountId}/balance")
+  @Operation(
+      summary = "Consultar saldo corrente da conta",
+      description = "Retorna o saldo corrente da conta, mantido a cada lançamento. A consulta é uma leitura única pela chave da conta, " +
+          "independente do tamanho do histórico. A resposta traz a versão do razão da conta como ETag; com If-None-Match " +
+          "ainda atual a resposta é 304, sem corpo."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Saldo recuperado com sucesso",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = BalanceResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "304",
+          description = "Saldo não mudou desde a ETag enviada em If-None-Match"
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Conta não encontrada"
+      ),
+      @ApiResponse(
+          responseCode = "500",
+          description = "Erro interno do servidor"
+      )
+  })
+  public ResponseEntity<BalanceResponse> getBalance(@PathVariable UUID accountId, WebRequest request) {
+    String etag = service.ledgerETag(accountId);
+    if (etag != null && request.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache())
+        .eTag(etag)
+        .body(service.getBalance(accountId));
+  }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.backend.keysbankapi.account;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cadastro das contas em memória (id → status, agência, número, cliente), para que extratos e
+ * lançamentos não precisem ir ao banco só para saber se a conta existe.
+ *
+ * <p>Limitado por tamanho, carregado sob demanda e com estatísticas de acerto/erro. Ids
+ * desconhecidos também ficam em cache por pouco tempo, para que requisições com ids inválidos
+ * não martelem o banco. As entradas expiram mesmo sem invalidação, para que mudanças feitas por
+ * outra instância apareçam aqui em algum momento.
+ */
+@Component
+public class AccountDirectory {
+
+  public record Entry(UUID id, UUID customerId, String agency, String accountNumber, String status) {
+    static Entry of(Account account) {
+      return new Entry(account.getId(), account.getCustomerId(), account.getAgency(), account.getAccountNumber(), account.getStatus());
+    }
+  }
+
+  private final LoadingCache<UUID, Optional<Entry>> entries;
+
+  public AccountDirectory(
+      AccountRepository accountRepository,
+      @Value("${keysbank.account-directory.maximum-size:200000}") long maximumSize,
+      @Value("${keysbank.account-directory.ttl:10m}") Duration ttl,
+      @Value("${keysbank.account-directory.negative-ttl:30s}") Duration negativeTtl
+  ) {
+    this.entries = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(new Expiry<UUID, Optional<Entry>>() {
+          @Override
+          public long expireAfterCreate(UUID id, Optional<Entry> entry, long currentTime) {
+            return (entry.isPresent() ? ttl : negativeTtl).toNanos();
+          }
+
+          @Override
+          public long expireAfterUpdate(UUID id, Optional<Entry> entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, entry, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(UUID id, Optional<Entry> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build(new CacheLoader<>() {
+          @Override
+          public Optional<Entry> load(UUID id) {
+            return accountRepository.findById(id).map(Entry::of);
+          }
+
+          // Lotes: uma única consulta para todas as contas que ainda não estão em cache
+          @Override
+          public Map<UUID, Optional<Entry>> loadAll(Set<? extends UUID> ids) {
+            Map<UUID, Optional<Entry>> loaded = new HashMap<>();
+            ids.forEach(id -> loaded.put(id, Optional.empty()));
+            accountRepository.findAllById(Set.copyOf(ids)).forEach(a -> loaded.put(a.getId(), Optional.of(Entry.of(a))));
+            return loaded;
+          }
+        });
+  }
+
+  public Optional<Entry> find(UUID accountId) {
+    return entries.get(accountId);
+  }
+
+  public boolean exists(UUID accountId) {
+    return find(accountId).isPresent();
+  }
+
+  /** Ids existentes entre os informados, com uma única consulta para os que não estão em cache. */
+  public Set<UUID> findExisting(Collection<UUID> accountIds) {
+    return entries.getAll(accountIds).entrySet().stream()
+        .filter(e -> e.getValue().isPresent())
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Descarta a conta do cache depois do commit da transação corrente (ou na hora, fora de
+   * transação). Deve ser chamado sempre que a conta for criada ou mudar de status.
+   */
+  public void invalidate(UUID accountId) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      entries.invalidate(accountId);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        entries.invalidate(accountId);
+      }
+    });
+  }
+
+  public CacheStats stats() {
+    return entries.stats();
+  }
+
+  public long size() {
+    return entries.estimatedSize();
+  }
+}
@@ -0,0 +1,43 @@
+package com.backend.keysbankapi.account;
+
+import com.backend.keysbankapi.account.dto.AccountDirectoryStatsResponse;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/account-directory")
+@Tag(name = "Admin", description = "Endpoints operacionais")
+public class AccountDirectoryController {
+
+  private final AccountDirectory directory;
+
+  public AccountDirectoryController(AccountDirectory directory) {
+    this.directory = directory;
+  }
+
+  @GetMapping("/stats")
+  @Operation(
+      summary = "Estatísticas do cadastro de contas em memória",
+      description = "Retorna tamanho, acertos, erros e remoções do cache de contas usado para validar contas em extratos e lançamentos"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Estatísticas retornadas com sucesso",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = AccountDirectoryStatsResponse.class)
+          )
+      )
+  })
+  public AccountDirectoryStatsResponse stats() {
+    CacheStats stats = directory.stats();
+    return new AccountDirectoryStatsResponse(directory.size(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+  }
+}
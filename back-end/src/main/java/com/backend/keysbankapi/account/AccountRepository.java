@@ -1,13 +1,41 @@
 package com.backend.keysbankapi.account;
 
+import com.backend.keysbankapi.account.dto.LoginResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import jakarta.validation.constraints.NotNull;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface AccountRepository extends JpaRepository<Account, UUID> {
     boolean existsByCustomerId(UUID customerId);
     Optional<Account> findByAgencyAndAccountNumber(String agency, String accountNumber);
+
+    // Login em uma consulta só: conta e nome do cliente pelo índice (agency, account_number)
+    @Query("""
+        SELECT new com.backend.keysbankapi.account.dto.LoginResponse(a.id, a.agency, a.accountNumber, c.name)
+        FROM Account a JOIN Customer c ON c.id = a.customerId
+        WHERE a.agency = :agency AND a.accountNumber = :accountNumber
+        """)
+    Optional<LoginResponse> findLogin(@Param("agency") String agency, @Param("accountNumber") String accountNumber);
+
+    // Saldo corrente somado às parcelas de saldo de conta quente (account_balance_shards)
+    @Query(value = """
+        SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+        FROM accounts a
+        WHERE a.id = :accountId
+        """, nativeQuery = true)
+    Optional<BigDecimal> findBalanceById(@Param("accountId") UUID accountId);
+
+    // Versão do razão (V11): a da conta somada às das parcelas de conta quente; leitura pela chave, como o saldo
+    @Query(value = """
+        SELECT a.ledger_version + COALESCE((SELECT SUM(s.ledger_version) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+        FROM accounts a
+        WHERE a.id = :accountId
+        """, nativeQuery = true)
+    Optional<Long> findLedgerVersion(@Param("accountId") UUID accountId);
 }
\ No newline at end of file
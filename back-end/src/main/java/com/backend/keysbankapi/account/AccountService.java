@@ -1,27 +1,54 @@
 package com.backend.keysbankapi.account;
 
+import com.backend.keysbankapi.account.dto.BalanceResponse;
 import com.backend.keysbankapi.account.dto.CreateAccountRequest;
 import com.backend.keysbankapi.account.dto.LoginResponse;
-import com.backend.keysbankapi.customer.Customer;
 import com.backend.keysbankapi.customer.CustomerRepository;
+import com.backend.keysbankapi.ledger.DailyBalanceRepository;
 import com.backend.keysbankapi.ledger.Transaction;
 import com.backend.keysbankapi.ledger.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class AccountService {
+  private static final BigDecimal OPENING_BONUS = new BigDecimal("100.00");
+
   private final AccountRepository accountRepo;
   private final CustomerRepository customerRepo;
   private final TransactionRepository txRepo;
+  private final DailyBalanceRepository dailyBalanceRepository;
+  private final AccountDirectory accountDirectory;
+
+  private record LoginKey(String agency, String accountNumber) {}
 
-  public AccountService(AccountRepository accountRepo, CustomerRepository customerRepo, TransactionRepository txRepo) {
+  // Logins recentes, com sucesso ou não: picos no início do dia e tentativas repetidas com dados
+  // inválidos são respondidos da memória. Logins simultâneos com a mesma chave fazem uma só consulta
+  private final Cache<LoginKey, Optional<LoginResponse>> recentLogins = Caffeine.newBuilder()
+      .maximumSize(100_000)
+      .expireAfterWrite(Duration.ofSeconds(30))
+      .build();
+
+  public AccountService(AccountRepository accountRepo, CustomerRepository customerRepo, TransactionRepository txRepo,
+                        DailyBalanceRepository dailyBalanceRepository, AccountDirectory accountDirectory) {
     this.accountRepo = accountRepo;
     this.customerRepo = customerRepo;
     this.txRepo = txRepo;
+    this.dailyBalanceRepository = dailyBalanceRepository;
+    this.accountDirectory = accountDirectory;
   }
 
   @Transactional
@@ -36,6 +63,7 @@ public class AccountService {
 
     Account account = new Account();
     account.setCustomerId(req.customerId());
+    account.setBalance(OPENING_BONUS);
     account = accountRepo.save(account);
 
     // bônus de abertura (ledger)
@@ -43,20 +71,56 @@ public class AccountService {
     bonus.setAccountId(account.getId());
     bonus.setType("CREDIT");
     bonus.setCategory("BONUS_ABERTURA");
-    bonus.setAmount(new BigDecimal("100.00"));
+    bonus.setAmount(OPENING_BONUS);
     bonus.setDescription("Bônus de abertura de conta");
+    bonus.setCreatedAt(Instant.now());
     txRepo.save(bonus);
-    
+
+    // Saldo do dia e rollup dos relatórios, como em qualquer lançamento; a conta é nova, então as linhas também
+    LocalDate day = bonus.getCreatedAt().atZone(ZoneId.systemDefault()).toLocalDate();
+    dailyBalanceRepository.upsertBalance(account.getId(), day, OPENING_BONUS, OPENING_BONUS, bonus.getCreatedAt());
+    dailyBalanceRepository.addToRollup(account.getId(), day, bonus.getCategory(), bonus.getType(), 0, OPENING_BONUS);
+
+    // Um id ou login consultado antes de existir pode estar em cache como desconhecido
+    accountDirectory.invalidate(account.getId());
+    invalidateLoginAfterCommit(new LoginKey(account.getAgency(), account.getAccountNumber()));
     return account;
   }
 
+  // Descartar antes do commit deixaria um login simultâneo gravar de novo "conta inválida" no cache
+  private void invalidateLoginAfterCommit(LoginKey key) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      recentLogins.invalidate(key);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        recentLogins.invalidate(key);
+      }
+    });
+  }
+
   public LoginResponse validateAndGetAccount(String agency, String accountNumber) {
-    Account account = accountRepo.findByAgencyAndAccountNumber(agency, accountNumber)
+    return recentLogins.get(new LoginKey(agency, accountNumber), key -> accountRepo.findLogin(key.agency(), key.accountNumber()))
         .orElseThrow(() -> new NoSuchElementException("Conta inválida"));
-    
-    Customer customer = customerRepo.findById(account.getCustomerId())
-        .orElseThrow(() -> new NoSuchElementException("Cliente não encontrado"));
-    
-    return new LoginResponse(account.getId(), account.getAgency(), account.getAccountNumber(), customer.getName());
+  }
+
+  /**
+   * ETag fraca com a versão do razão da conta, ou null se a conta não existe. A versão é lida antes
+   * da consulta que ela protege: um lançamento no meio do caminho deixa a ETag mais velha que o
+   * corpo, o que só custa uma resposta 200 a mais no próximo pedido.
+   */
+  public String ledgerETag(UUID accountId) {
+    return accountRepo.findLedgerVersion(accountId)
+        .map(version -> "W/\"" + version + "\"")
+        .orElse(null);
+  }
+
+  public BalanceResponse getBalance(UUID accountId) {
+    BigDecimal balance = accountRepo.findBalanceById(accountId)
+        .orElseThrow(() -> new IllegalArgumentException("Conta não encontrada"));
+
+    return new BalanceResponse(accountId, balance);
   }
 }
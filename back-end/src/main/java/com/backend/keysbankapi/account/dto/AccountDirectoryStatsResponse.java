@@ -0,0 +1,17 @@
+package com.backend.keysbankapi.account.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "AccountDirectoryStatsResponse", description = "Estatísticas do cadastro de contas em memória")
+public record AccountDirectoryStatsResponse(
+    @Schema(description = "Entradas em cache (aproximado), incluindo ids desconhecidos", example = "15230")
+    long size,
+    @Schema(description = "Consultas respondidas pelo cache", example = "982345")
+    long hitCount,
+    @Schema(description = "Consultas que precisaram ir ao banco", example = "15230")
+    long missCount,
+    @Schema(description = "Proporção de acertos (0 a 1)", example = "0.985")
+    double hitRate,
+    @Schema(description = "Entradas removidas por limite de tamanho ou expiração", example = "120")
+    long evictionCount
+) {}
@@ -0,0 +1,13 @@
+package com.backend.keysbankapi.account.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Schema(name = "BalanceResponse", description = "Saldo corrente de uma conta bancária")
+public record BalanceResponse(
+  @Schema(description = "ID único da conta (UUID)", example = "b837e6e2-1b3c-4267-825f-741fb798f066")
+  UUID accountId,
+  @Schema(description = "Saldo corrente da conta em reais", example = "150.00")
+  BigDecimal balance
+) {}
@@ -0,0 +1,175 @@
+package com.backend.keysbankapi.archive;
+
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento do arquivo morto: os lançamentos de um mês, em um arquivo mapeado em memória.
+ *
+ * <p>Formato (big-endian): {@code MAGIC}, um bloco comprimido (deflate) por conta com os lançamentos
+ * na ordem do extrato (created_at desc, id desc), o índice com uma entrada de {@value #INDEX_ENTRY_BYTES}
+ * bytes por conta, ordenado pelo id da conta como o PostgreSQL ordena uuid, e o rodapé de
+ * {@value #FOOTER_BYTES} bytes. Ler o extrato de uma conta é uma busca binária no índice e a
+ * descompressão de um único bloco; o resto do arquivo nem chega a ser lido do disco.
+ */
+final class Segment {
+
+  static final long MAGIC = 0x4B42534547303031L; // "KBSEG001"
+  static final int INDEX_ENTRY_BYTES = 36;       // msb, lsb, offset, tamanho comprimido, tamanho original, linhas
+  static final int FOOTER_BYTES = 36;            // offset do índice, contas, linhas, ano, mês, MAGIC
+
+  private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+  private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+  private final Path file;
+  private final MemorySegment data;
+  private final YearMonth month;
+  private final long indexOffset;
+  private final int accounts;
+  private final long rowCount;
+
+  private Segment(Path file, MemorySegment data) throws IOException {
+    this.file = file;
+    this.data = data;
+    long size = data.byteSize();
+    if (size < 8 + FOOTER_BYTES || data.get(LONG, 0) != MAGIC || data.get(LONG, size - 8) != MAGIC) {
+      throw new IOException("Segmento inválido: " + file);
+    }
+    long footer = size - FOOTER_BYTES;
+    this.indexOffset = data.get(LONG, footer);
+    this.accounts = data.get(INT, footer + 8);
+    this.rowCount = data.get(LONG, footer + 12);
+    this.month = YearMonth.of(data.get(INT, footer + 20), data.get(INT, footer + 24));
+    if (indexOffset + (long) accounts * INDEX_ENTRY_BYTES != footer) {
+      throw new IOException("Índice do segmento inconsistente: " + file);
+    }
+  }
+
+  /** Mapeia o arquivo somente leitura. O mapeamento é liberado pelo GC quando o segmento deixa de ser usado. */
+  static Segment open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new Segment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto()));
+    }
+  }
+
+  Path file() {
+    return file;
+  }
+
+  YearMonth month() {
+    return month;
+  }
+
+  long rowCount() {
+    return rowCount;
+  }
+
+  int accounts() {
+    return accounts;
+  }
+
+  /** Lançamentos da conta no mês, do mais recente para o mais antigo; vazio se a conta não tem lançamentos no segmento. */
+  List<StatementItemResponse> read(UUID accountId) {
+    long entry = find(accountId);
+    if (entry < 0) {
+      return List.of();
+    }
+    long offset = data.get(LONG, entry + 16);
+    int compressed = data.get(INT, entry + 24);
+    int original = data.get(INT, entry + 28);
+    int rows = data.get(INT, entry + 32);
+
+    byte[] raw = inflate(data.asSlice(offset, compressed), original);
+    List<StatementItemResponse> items = new ArrayList<>(rows);
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+      for (int i = 0; i < rows; i++) {
+        UUID id = new UUID(in.readLong(), in.readLong());
+        String type = readString(in);
+        String category = readString(in);
+        BigDecimal amount = BigDecimal.valueOf(in.readLong(), in.readUnsignedByte());
+        String description = readString(in);
+        Instant createdAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        items.add(new StatementItemResponse(id, type, category, amount, description, createdAt));
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Bloco corrompido em " + file + " para a conta " + accountId, e);
+    }
+    return items;
+  }
+
+  // Busca binária no índice; devolve a posição da entrada ou -1
+  private long find(UUID accountId) {
+    int low = 0;
+    int high = accounts - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long entry = indexOffset + (long) mid * INDEX_ENTRY_BYTES;
+      int cmp = compareUuid(data.get(LONG, entry), data.get(LONG, entry + 8), accountId);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  // Ordem de uuid do PostgreSQL: bytes sem sinal, ou seja, msb e lsb comparados sem sinal
+  static int compareUuid(long msb, long lsb, UUID other) {
+    int byMsb = Long.compareUnsigned(msb, other.getMostSignificantBits());
+    return byMsb != 0 ? byMsb : Long.compareUnsigned(lsb, other.getLeastSignificantBits());
+  }
+
+  private byte[] inflate(MemorySegment block, int length) {
+    byte[] raw = new byte[length];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(block.asByteBuffer());
+      int read = 0;
+      while (read < length && !inflater.finished()) {
+        int n = inflater.inflate(raw, read, length - read);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += n;
+      }
+      if (read != length) {
+        throw new IllegalStateException("Bloco truncado em " + file);
+      }
+      return raw;
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Bloco corrompido em " + file, e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,134 @@
+package com.backend.keysbankapi.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+/**
+ * Grava um {@link Segment}. Os lançamentos precisam chegar agrupados por conta, com as contas na
+ * ordem de uuid do PostgreSQL e, dentro de cada conta, na ordem do extrato
+ * ({@code ORDER BY account_id, created_at DESC, id DESC}). Cada conta vira um bloco comprimido;
+ * o índice e o rodapé são gravados no {@link #close()}, que também faz fsync do arquivo.
+ */
+final class SegmentWriter implements Closeable {
+
+  private record IndexEntry(UUID accountId, long offset, int compressed, int original, int rows) {}
+
+  private final FileOutputStream file;
+  private final DataOutputStream out;
+  private final YearMonth month;
+  private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+  private final byte[] chunk = new byte[64 * 1024];
+  private final List<IndexEntry> index = new ArrayList<>();
+
+  private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+  private final DataOutputStream rows = new DataOutputStream(block);
+  private UUID blockAccount;
+  private int blockRows;
+  private long position;
+  private long rowCount;
+
+  SegmentWriter(Path path, YearMonth month) throws IOException {
+    this.file = new FileOutputStream(path.toFile());
+    this.out = new DataOutputStream(new BufferedOutputStream(file, 256 * 1024));
+    this.month = month;
+    out.writeLong(Segment.MAGIC);
+    position = 8;
+  }
+
+  void add(UUID accountId, UUID id, String type, String category, BigDecimal amount, String description, Instant createdAt) throws IOException {
+    if (!accountId.equals(blockAccount)) {
+      if (blockAccount != null && Segment.compareUuid(
+          blockAccount.getMostSignificantBits(), blockAccount.getLeastSignificantBits(), accountId) >= 0) {
+        throw new IllegalArgumentException("Lançamentos fora da ordem de conta: " + accountId);
+      }
+      flushBlock();
+      blockAccount = accountId;
+    }
+    rows.writeLong(id.getMostSignificantBits());
+    rows.writeLong(id.getLeastSignificantBits());
+    writeString(type);
+    writeString(category);
+    rows.writeLong(amount.unscaledValue().longValueExact());
+    rows.writeByte(amount.scale());
+    writeString(description);
+    rows.writeLong(createdAt.getEpochSecond());
+    rows.writeInt(createdAt.getNano());
+    blockRows++;
+    rowCount++;
+  }
+
+  long rowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flushBlock();
+      long indexOffset = position;
+      for (IndexEntry entry : index) {
+        out.writeLong(entry.accountId().getMostSignificantBits());
+        out.writeLong(entry.accountId().getLeastSignificantBits());
+        out.writeLong(entry.offset());
+        out.writeInt(entry.compressed());
+        out.writeInt(entry.original());
+        out.writeInt(entry.rows());
+      }
+      out.writeLong(indexOffset);
+      out.writeInt(index.size());
+      out.writeLong(rowCount);
+      out.writeInt(month.getYear());
+      out.writeInt(month.getMonthValue());
+      out.writeLong(Segment.MAGIC);
+      out.flush();
+      file.getFD().sync();
+    } finally {
+      deflater.end();
+      out.close();
+    }
+  }
+
+  private void flushBlock() throws IOException {
+    if (blockAccount == null) {
+      return;
+    }
+    rows.flush();
+    byte[] raw = block.toByteArray();
+    deflater.reset();
+    deflater.setInput(raw);
+    deflater.finish();
+    int compressed = 0;
+    while (!deflater.finished()) {
+      int n = deflater.deflate(chunk);
+      out.write(chunk, 0, n);
+      compressed += n;
+    }
+    index.add(new IndexEntry(blockAccount, position, compressed, raw.length, blockRows));
+    position += compressed;
+    block.reset();
+    blockRows = 0;
+  }
+
+  private void writeString(String value) throws IOException {
+    if (value == null) {
+      rows.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    rows.writeInt(bytes.length);
+    rows.write(bytes);
+  }
+}
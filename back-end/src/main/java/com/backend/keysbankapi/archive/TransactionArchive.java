@@ -0,0 +1,215 @@
+package com.backend.keysbankapi.archive;
+
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Arquivo morto do razão: meses fechados que saíram de transactions e vivem em segmentos
+ * comprimidos no disco local (ver {@link TransactionArchiver}). Só enxerga os meses registrados
+ * em archived_months, que é gravado na mesma transação que apaga a partição; um segmento sem
+ * registro é ignorado, então um mês nunca aparece duas vezes (banco e arquivo).
+ *
+ * <p>Os segmentos são mapeados em memória uma vez e compartilhados entre as leituras, que não vão
+ * ao banco. A lista é relida pelo job de arquivamento desta instância e a cada
+ * {@code keysbank.archive.refresh-interval}: um mês arquivado por outra instância (que já apagou a
+ * partição) pode faltar no extrato desta por até esse intervalo.
+ */
+@Component
+public class TransactionArchive {
+
+  private static final Logger log = LoggerFactory.getLogger(TransactionArchive.class);
+
+  /** Ordem do extrato: created_at decrescente e, no empate, id decrescente na ordem de uuid do PostgreSQL. */
+  public static final Comparator<StatementItemResponse> NEWEST_FIRST = (a, b) -> {
+    int byDate = b.createdAt().compareTo(a.createdAt());
+    if (byDate != 0) {
+      return byDate;
+    }
+    UUID idA = a.transactionId();
+    return -Segment.compareUuid(idA.getMostSignificantBits(), idA.getLeastSignificantBits(), b.transactionId());
+  };
+
+  private static final String LIST_MONTHS = "SELECT month, file_name FROM archived_months ORDER BY month";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Path dir;
+  private volatile NavigableMap<YearMonth, Segment> segments;
+
+  public TransactionArchive(JdbcTemplate jdbcTemplate, @Value("${keysbank.archive.dir:/var/lib/keysbank/archive}") String dir) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.dir = Path.of(dir);
+  }
+
+  public boolean hasMonths() {
+    return !segments().isEmpty();
+  }
+
+  public boolean contains(YearMonth month) {
+    return segments().containsKey(month);
+  }
+
+  /** Início do mês seguinte ao mais recente arquivado: todo lançamento arquivado é anterior a este instante. */
+  public Instant newestEnd() {
+    NavigableMap<YearMonth, Segment> current = segments();
+    return current.isEmpty() ? Instant.EPOCH : startOf(current.lastKey().plusMonths(1));
+  }
+
+  /**
+   * Lançamentos arquivados da conta, na ordem do extrato, entre {@code start} e {@code end}
+   * (inclusive), opcionalmente só do tipo informado e, com cursor, só os posteriores à posição
+   * ({@code afterCreatedAt}, {@code afterId}). Para em {@code limit} itens, lendo os meses do mais
+   * recente para o mais antigo.
+   */
+  public List<StatementItemResponse> read(
+      UUID accountId, String type, Instant start, Instant end, Instant afterCreatedAt, UUID afterId, int limit) {
+    List<StatementItemResponse> items = new ArrayList<>();
+    for (Map.Entry<YearMonth, Segment> entry : segments().descendingMap().entrySet()) {
+      Instant monthStart = startOf(entry.getKey());
+      Instant monthEnd = startOf(entry.getKey().plusMonths(1));
+      if (!monthEnd.isAfter(start) || monthStart.isAfter(end)
+          || (afterCreatedAt != null && monthStart.isAfter(afterCreatedAt))) {
+        continue;
+      }
+      for (StatementItemResponse item : entry.getValue().read(accountId)) {
+        if ((type != null && !type.equals(item.type()))
+            || item.createdAt().isBefore(start) || item.createdAt().isAfter(end)
+            || (afterCreatedAt != null && !followsCursor(item, afterCreatedAt, afterId))) {
+          continue;
+        }
+        items.add(item);
+        if (items.size() >= limit) {
+          return items;
+        }
+      }
+    }
+    return items;
+  }
+
+  /**
+   * Como {@link #read}, sem cursor nem limite e lendo um mês por vez: para a exportação, que não
+   * monta o extrato inteiro em memória.
+   */
+  public Iterator<StatementItemResponse> iterate(UUID accountId, String type, Instant start, Instant end) {
+    Iterator<Map.Entry<YearMonth, Segment>> months = segments().descendingMap().entrySet().iterator();
+    return new Iterator<>() {
+      private Iterator<StatementItemResponse> month = Collections.emptyIterator();
+      private StatementItemResponse next;
+
+      @Override
+      public boolean hasNext() {
+        while (next == null) {
+          if (month.hasNext()) {
+            StatementItemResponse item = month.next();
+            if ((type == null || type.equals(item.type()))
+                && !item.createdAt().isBefore(start) && !item.createdAt().isAfter(end)) {
+              next = item;
+            }
+          } else if (months.hasNext()) {
+            Map.Entry<YearMonth, Segment> entry = months.next();
+            if (startOf(entry.getKey().plusMonths(1)).isAfter(start) && !startOf(entry.getKey()).isAfter(end)) {
+              month = entry.getValue().read(accountId).iterator();
+            }
+          } else {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public StatementItemResponse next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        StatementItemResponse item = next;
+        next = null;
+        return item;
+      }
+    };
+  }
+
+  /** Todos os lançamentos arquivados da conta no mês; vazio se o mês não está arquivado. */
+  public List<StatementItemResponse> readMonth(UUID accountId, YearMonth month) {
+    Segment segment = segments().get(month);
+    return segment != null ? segment.read(accountId) : List.of();
+  }
+
+  /** Relê archived_months e mapeia os segmentos novos; os já abertos são reaproveitados. */
+  @Scheduled(fixedDelayString = "${keysbank.archive.refresh-interval:1m}", initialDelayString = "${keysbank.archive.refresh-interval:1m}")
+  public synchronized void refresh() {
+    NavigableMap<YearMonth, Segment> current = segments != null ? segments : Collections.emptyNavigableMap();
+    NavigableMap<YearMonth, Segment> loaded = new TreeMap<>();
+    jdbcTemplate.query(LIST_MONTHS, rs -> {
+      YearMonth month = YearMonth.from(rs.getObject("month", LocalDate.class));
+      Segment segment = current.get(month);
+      if (segment == null) {
+        Path file = dir.resolve(rs.getString("file_name"));
+        try {
+          segment = Segment.open(file);
+        } catch (IOException e) {
+          // O mês não está mais no banco: sem o segmento o extrato desse mês fica incompleto
+          log.error("Arquivo morto: segmento {} de {} indisponível", file, month, e);
+          return;
+        }
+      }
+      loaded.put(month, segment);
+    });
+    segments = Collections.unmodifiableNavigableMap(loaded);
+  }
+
+  /** Publica um mês recém-arquivado nesta instância, sem esperar o próximo refresh. */
+  synchronized void register(YearMonth month, Segment segment) {
+    NavigableMap<YearMonth, Segment> loaded = new TreeMap<>(segments());
+    loaded.put(month, segment);
+    segments = Collections.unmodifiableNavigableMap(loaded);
+  }
+
+  Path dir() {
+    return dir;
+  }
+
+  private NavigableMap<YearMonth, Segment> segments() {
+    NavigableMap<YearMonth, Segment> current = segments;
+    if (current == null) {
+      refresh();
+      current = segments;
+    }
+    return current;
+  }
+
+  // Posterior ao cursor na ordem do extrato: mais antigo ou, na mesma data, de id menor
+  private static boolean followsCursor(StatementItemResponse item, Instant createdAt, UUID id) {
+    int byDate = item.createdAt().compareTo(createdAt);
+    if (byDate != 0) {
+      return byDate < 0;
+    }
+    UUID itemId = item.transactionId();
+    return Segment.compareUuid(itemId.getMostSignificantBits(), itemId.getLeastSignificantBits(), id) < 0;
+  }
+
+  static Instant startOf(YearMonth month) {
+    return month.atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+  }
+}
@@ -0,0 +1,204 @@
+package com.backend.keysbankapi.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Move meses fechados de transactions para o arquivo morto. Um mês é arquivado quando fica mais
+ * antigo que {@code after-months} (0 desliga), esteja a partição anexada ou já desanexada pela
+ * retenção (TransactionPartitionMaintainer).
+ *
+ * <p>Para cada mês: grava o segmento num arquivo temporário (ordenado por conta e na ordem do
+ * extrato), confere a contagem relendo o arquivo e o renomeia. Depois, numa única transação sob
+ * advisory lock, trava a partição, confirma que ela não mudou desde a leitura, registra o mês em
+ * archived_months, apaga a partição e as chaves de idempotência do mês. Se algo falhar o mês
+ * continua no banco e é tentado de novo na próxima execução.
+ *
+ * <p>Os rollups diários e os saldos diários do mês continuam no banco; relatórios e resumos não
+ * dependem dos segmentos. O diretório precisa ser o mesmo (volume compartilhado) em todas as
+ * instâncias da API.
+ */
+@Component
+public class TransactionArchiver {
+
+  private static final Logger log = LoggerFactory.getLogger(TransactionArchiver.class);
+
+  private static final String PREFIX = "transactions_p";
+  private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+  private static final DateTimeFormatter FILE_SUFFIX = DateTimeFormatter.ofPattern("yyyy-MM");
+  private static final int FETCH_SIZE = 5_000;
+
+  private static final String LIST_TABLES = """
+      SELECT c.relname, c.relispartition
+      FROM pg_class c
+      JOIN pg_namespace n ON n.oid = c.relnamespace
+      WHERE n.nspname = current_schema() AND c.relkind = 'r' AND c.relname ~ '^transactions_p[0-9]{4}_[0-9]{2}$'
+      """;
+  private static final String READ_MONTH = """
+      SELECT account_id, id, type, category, amount, description, created_at
+      FROM %s
+      ORDER BY account_id, created_at DESC, id DESC
+      """;
+  private static final String COUNT = "SELECT COUNT(*) FROM %s";
+  private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('transactions_partitions'))";
+  private static final String LOCK_TIMEOUT = "SET LOCAL lock_timeout = '5s'";
+  private static final String LOCK_PARTITION = "LOCK TABLE %s IN ACCESS EXCLUSIVE MODE";
+  private static final String REGISTER = """
+      INSERT INTO archived_months (month, file_name, row_count, account_count)
+      VALUES (?, ?, ?, ?)
+      """;
+  private static final String DETACH = "ALTER TABLE transactions DETACH PARTITION %s";
+  private static final String DROP = "DROP TABLE %s";
+  private static final String DELETE_KEYS = "DELETE FROM transaction_idempotency_keys WHERE created_at >= ? AND created_at < ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcTemplate streamingJdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate readOnlyTemplate;
+  private final TransactionArchive archive;
+  private final int afterMonths;
+
+  public TransactionArchiver(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      TransactionArchive archive,
+      @Value("${keysbank.archive.after-months:18}") int afterMonths
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    // Cursor no servidor: o mês inteiro nunca fica em memória
+    this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    this.streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTemplate.setReadOnly(true);
+    this.archive = archive;
+    this.afterMonths = afterMonths;
+  }
+
+  static String fileName(YearMonth month) {
+    return "transactions-" + month.format(FILE_SUFFIX) + ".seg";
+  }
+
+  @Scheduled(fixedDelayString = "${keysbank.archive.check-interval:1h}")
+  public void archiveClosedMonths() {
+    // Também serve para as outras instâncias enxergarem os meses arquivados por esta
+    archive.refresh();
+    if (afterMonths <= 0) {
+      return;
+    }
+
+    YearMonth oldestKept = YearMonth.now().minusMonths(afterMonths);
+    for (Map.Entry<YearMonth, Boolean> table : tables().entrySet()) {
+      YearMonth month = table.getKey();
+      if (!month.isBefore(oldestKept) || archive.contains(month)) {
+        continue;
+      }
+      try {
+        archiveMonth(month, table.getValue());
+      } catch (IOException | UncheckedIOException | DataAccessException | TransactionException e) {
+        log.warn("Arquivo morto: não foi possível arquivar {}, nova tentativa na próxima execução", month, e);
+        return;
+      }
+    }
+  }
+
+  private void archiveMonth(YearMonth month, boolean attached) throws IOException {
+    String table = PREFIX + month.format(SUFFIX);
+    Path dir = archive.dir();
+    Files.createDirectories(dir);
+    Path target = dir.resolve(fileName(month));
+    Path temp = dir.resolve(fileName(month) + ".tmp");
+
+    long start = System.nanoTime();
+    long written = write(table, month, temp);
+    Segment segment = Segment.open(temp);
+    if (segment.rowCount() != written) {
+      Files.deleteIfExists(temp);
+      throw new IOException("Segmento " + temp + " com " + segment.rowCount() + " linhas, esperado " + written);
+    }
+    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    segment = Segment.open(target);
+    long rows = segment.rowCount();
+    int accounts = segment.accounts();
+
+    Boolean done = transactionTemplate.execute(status -> {
+      if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class))) {
+        return false;
+      }
+      jdbcTemplate.execute(LOCK_TIMEOUT);
+      jdbcTemplate.execute(LOCK_PARTITION.formatted(table));
+      Long current = jdbcTemplate.queryForObject(COUNT.formatted(table), Long.class);
+      if (current == null || current != rows) {
+        // Entrou lançamento no mês depois da leitura (ex.: importação); o segmento é regravado na próxima execução
+        return false;
+      }
+      jdbcTemplate.update(REGISTER, month.atDay(1), target.getFileName().toString(), rows, accounts);
+      if (attached) {
+        jdbcTemplate.execute(DETACH.formatted(table));
+      }
+      jdbcTemplate.execute(DROP.formatted(table));
+      jdbcTemplate.update(DELETE_KEYS,
+          Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+          Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+      return true;
+    });
+
+    if (!Boolean.TRUE.equals(done)) {
+      log.info("Arquivo morto: {} não arquivado agora (partição em uso ou alterada)", month);
+      return;
+    }
+    archive.register(month, segment);
+    log.info("Arquivo morto: {} arquivado em {} ({} lançamentos, {} contas, {} bytes, {} ms)",
+        month, target, rows, accounts, Files.size(target), (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private long write(String table, YearMonth month, Path temp) throws IOException {
+    try (SegmentWriter writer = new SegmentWriter(temp, month)) {
+      readOnlyTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(READ_MONTH.formatted(table), rs -> {
+        try {
+          writer.add(
+              rs.getObject("account_id", UUID.class),
+              rs.getObject("id", UUID.class),
+              rs.getString("type"),
+              rs.getString("category"),
+              rs.getBigDecimal("amount"),
+              rs.getString("description"),
+              rs.getTimestamp("created_at").toInstant()
+          );
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }));
+      return writer.rowCount();
+    }
+  }
+
+  // Partições mensais existentes (anexadas ou não), com o indicador de anexada
+  private Map<YearMonth, Boolean> tables() {
+    Map<YearMonth, Boolean> tables = new TreeMap<>();
+    jdbcTemplate.query(LIST_TABLES, rs -> {
+      tables.put(YearMonth.parse(rs.getString("relname").substring(PREFIX.length()), SUFFIX), rs.getBoolean("relispartition"));
+    });
+    return tables;
+  }
+}
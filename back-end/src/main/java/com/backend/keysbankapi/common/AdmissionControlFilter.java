@@ -0,0 +1,161 @@
+package com.backend.keysbankapi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Controle de admissão da API: no máximo {@code keysbank.admission.max-concurrent} requisições em
+ * andamento. As demais esperam em fila, por ordem de chegada, até {@code max-wait} e depois
+ * recebem 503 com Retry-After.
+ *
+ * <p>Com threads de plataforma o pool do Tomcat já limita a concorrência. Com threads virtuais
+ * (perfil virtual-threads) cada requisição ganha a sua thread, e sem este limite milhares delas
+ * esperariam juntas por uma conexão do Hikari até estourar o connection-timeout. Com o limite no
+ * tamanho do pool, o banco recebe a mesma concorrência nos dois modos e a sobrecarga vira recusa
+ * rápida. {@code max-concurrent: 0} (o padrão) desliga o controle.
+ *
+ * <p>Exportações em streaming seguram a vaga até o fim do processamento assíncrono: o corpo é
+ * escrito fora da thread da requisição, mas com uma conexão do Hikari presa durante todo o envio.
+ */
+@Component
+// Depois do filtro de observação do Spring Boot: recusas também aparecem em http.server.requests
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  private final Semaphore permits;
+  private final long maxWaitNanos;
+  private final Counter rejected;
+
+  public AdmissionControlFilter(
+      @Value("${keysbank.admission.max-concurrent:0}") int maxConcurrent,
+      @Value("${keysbank.admission.max-wait:1s}") Duration maxWait,
+      MeterRegistry registry
+  ) {
+    if (maxConcurrent < 0) {
+      throw new IllegalArgumentException("keysbank.admission.max-concurrent não pode ser negativo");
+    }
+    this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.rejected = Counter.builder("keysbank.admission.rejected")
+        .description("Requisições recusadas com 503 por falta de vaga")
+        .register(registry);
+    if (permits != null) {
+      Gauge.builder("keysbank.admission.active", permits, p -> maxConcurrent - p.availablePermits())
+          .description("Requisições admitidas em andamento")
+          .register(registry);
+      Gauge.builder("keysbank.admission.waiting", permits, Semaphore::getQueueLength)
+          .description("Requisições esperando vaga")
+          .register(registry);
+    }
+  }
+
+  // Preflight de CORS não chega ao banco: é respondido pelo CorsFilter e não deve ocupar vaga
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getRequestURI();
+    return permits == null
+        || HttpMethod.OPTIONS.matches(request.getMethod())
+        || path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    boolean admitted;
+    try {
+      admitted = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      admitted = false;
+    }
+    if (!admitted) {
+      rejected.increment();
+      reject(request, response);
+      return;
+    }
+    boolean async = false;
+    try {
+      chain.doFilter(request, response);
+      if (request.isAsyncStarted()) {
+        // O contêiner só conclui o assíncrono depois que este dispatch retorna: o listener não perde o fim
+        request.getAsyncContext().addListener(new ReleaseOnCompletion());
+        async = true;
+      }
+    } finally {
+      if (!async) {
+        permits.release();
+      }
+    }
+  }
+
+  // Devolve a vaga uma única vez, no primeiro de onComplete, onError ou onTimeout
+  private final class ReleaseOnCompletion implements AsyncListener {
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      // Novo ciclo assíncrono na mesma requisição: continua ouvindo até o fim
+      event.getAsyncContext().addListener(this);
+    }
+
+    private void release() {
+      if (released.compareAndSet(false, true)) {
+        permits.release();
+      }
+    }
+  }
+
+  // Mesmo formato de ApiError; o filtro roda fora do MVC, então não passa pelo GlobalExceptionHandler
+  private static void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.getWriter().write("{\"status\":" + status.value()
+        + ",\"error\":\"" + status.getReasonPhrase()
+        + "\",\"message\":\"Servidor ocupado, tente novamente\""
+        + ",\"path\":\"" + request.getRequestURI().replace("\\", "\\\\").replace("\"", "\\\"")
+        + "\",\"timestamp\":\"" + Instant.now() + "\"}");
+  }
+}
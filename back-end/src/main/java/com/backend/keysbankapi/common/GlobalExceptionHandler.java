@@ -1,11 +1,14 @@
 package com.backend.keysbankapi.common;
 
+import com.backend.keysbankapi.ledger.IdempotencyKeyConflictException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -25,6 +28,21 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(error);
   }
 
+  @ExceptionHandler(IdempotencyKeyConflictException.class)
+  public ResponseEntity<ApiError> handleIdempotencyConflict(
+      IdempotencyKeyConflictException ex,
+      HttpServletRequest request
+  ) {
+    ApiError error = new ApiError(
+        HttpStatus.CONFLICT.value(),
+        HttpStatus.CONFLICT.getReasonPhrase(),
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ApiError> handleValidation(
       MethodArgumentNotValidException ex,
@@ -47,6 +65,26 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(error);
   }
 
+  // Parâmetro de query ausente ou em formato inválido (ex.: month fora de YYYY-MM)
+  @ExceptionHandler({MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class})
+  public ResponseEntity<ApiError> handleBadParameter(
+      Exception ex,
+      HttpServletRequest request
+  ) {
+    String message = ex instanceof MethodArgumentTypeMismatchException mismatch
+        ? mismatch.getName() + ": valor inválido"
+        : ((MissingServletRequestParameterException) ex).getParameterName() + ": obrigatório";
+
+    ApiError error = new ApiError(
+        HttpStatus.BAD_REQUEST.value(),
+        HttpStatus.BAD_REQUEST.getReasonPhrase(),
+        message,
+        request.getRequestURI()
+    );
+
+    return ResponseEntity.badRequest().body(error);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ApiError> handleGeneric(
       Exception ex,
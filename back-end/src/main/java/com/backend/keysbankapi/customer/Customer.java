@@ -1,5 +1,6 @@
 package com.backend.keysbankapi.customer;
 
+import com.backend.keysbankapi.common.UuidV7;
 import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.UUID;
@@ -21,7 +22,7 @@ public class Customer {
 
   @PrePersist
   void prePersist() {
-    if (id == null) id = UUID.randomUUID();
+    if (id == null) id = UuidV7.next();
     if (createdAt == null) createdAt = Instant.now();
   }
 
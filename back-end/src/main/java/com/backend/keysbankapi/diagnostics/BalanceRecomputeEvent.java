@@ -0,0 +1,10 @@
+package com.backend.keysbankapi.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.backend.keysbankapi.BalanceRecompute")
+@Label("Balance Recompute")
+@Description("Atualização do saldo do dia em um lançamento: increment, seed (relê os lançamentos do dia) ou shard")
+final class BalanceRecomputeEvent extends LedgerEvent {}
@@ -0,0 +1,10 @@
+package com.backend.keysbankapi.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.backend.keysbankapi.BatchPosting")
+@Label("Batch Posting")
+@Description("Lote de lançamentos (POST /transaction/batch); variant é o resultado do lote e rows o número de itens")
+final class BatchPostingEvent extends LedgerEvent {}
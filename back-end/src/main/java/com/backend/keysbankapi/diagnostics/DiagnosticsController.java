@@ -0,0 +1,57 @@
+package com.backend.keysbankapi.diagnostics;
+
+import com.backend.keysbankapi.diagnostics.dto.SlowOperationResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/diagnostics")
+@Tag(name = "Admin", description = "Endpoints operacionais")
+public class DiagnosticsController {
+
+  private static final int MAX_LIMIT = 1000;
+
+  private final LedgerFlightRecorder flightRecorder;
+
+  public DiagnosticsController(LedgerFlightRecorder flightRecorder) {
+    this.flightRecorder = flightRecorder;
+  }
+
+  @GetMapping("/slow-operations")
+  @Operation(
+      summary = "Operações lentas recentes do razão",
+      description = "Lançamentos, atualizações do saldo do dia e leituras de extrato acima de keysbank.diagnostics.slow-threshold, " +
+          "entre as últimas keysbank.diagnostics.slow-capacity registradas nesta instância, da mais lenta para a mais rápida"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Operações retornadas com sucesso",
+          content = @Content(
+              mediaType = "application/json",
+              array = @ArraySchema(schema = @Schema(implementation = SlowOperationResponse.class))
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "limit fora do intervalo permitido"
+      )
+  })
+  public List<SlowOperationResponse> slowOperations(
+      @Parameter(description = "Quantidade máxima de operações (1 a 1000)", example = "50")
+      @RequestParam(defaultValue = "50") int limit) {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_LIMIT);
+    }
+    return flightRecorder.slowest(limit);
+  }
+}
@@ -0,0 +1,26 @@
+package com.backend.keysbankapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Campos comuns dos eventos JFR do razão. A duração é a do próprio evento (begin/commit); os
+ * campos só são preenchidos quando o evento vai ser gravado, então sem gravação ativa o custo é
+ * o de um objeto e duas leituras de relógio. Sem stack trace: o evento é emitido em todo
+ * lançamento e extrato, e o stack custaria mais que o resto.
+ */
+@Category({"KeysBank", "Ledger"})
+@StackTrace(false)
+abstract class LedgerEvent extends Event {
+
+  @Label("Account Id")
+  String accountId;
+
+  @Label("Variant")
+  String variant;
+
+  @Label("Rows Touched")
+  long rows;
+}
@@ -0,0 +1,77 @@
+package com.backend.keysbankapi.diagnostics;
+
+import com.backend.keysbankapi.diagnostics.LedgerOperation.Kind;
+import com.backend.keysbankapi.diagnostics.dto.SlowOperationResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Gravador de voo das operações do razão (lançamento avulso e em lote, saldo do dia, extrato e exportação).
+ *
+ * <p>Cada operação emite um evento JFR ({@code com.backend.keysbankapi.*}, categoria KeysBank),
+ * visível em qualquer gravação iniciada com {@code jcmd <pid> JFR.start}, sem reiniciar a API.
+ *
+ * <p>As operações acima de {@code keysbank.diagnostics.slow-threshold} também entram em um buffer
+ * circular das últimas {@code slow-capacity} operações lentas, consultado em
+ * GET /admin/diagnostics/slow-operations. As operações rápidas param na comparação com o limite;
+ * as lentas ocupam uma posição do buffer sem trava, sobrescrevendo a mais antiga.
+ */
+@Component
+public class LedgerFlightRecorder {
+
+  record SlowOperation(Kind kind, UUID accountId, String variant, long rows, long nanos, Instant finishedAt, String thread) {}
+
+  private final long thresholdNanos;
+  private final AtomicReferenceArray<SlowOperation> slow;
+  private final AtomicLong next = new AtomicLong();
+
+  public LedgerFlightRecorder(
+      @Value("${keysbank.diagnostics.slow-capacity:256}") int capacity,
+      @Value("${keysbank.diagnostics.slow-threshold:100ms}") Duration threshold
+  ) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("keysbank.diagnostics.slow-capacity deve ser positivo");
+    }
+    this.thresholdNanos = threshold.toNanos();
+    this.slow = new AtomicReferenceArray<>(capacity);
+  }
+
+  public LedgerOperation start(Kind kind, UUID accountId) {
+    return new LedgerOperation(this, kind, accountId);
+  }
+
+  void finished(LedgerOperation operation, long nanos) {
+    if (nanos < thresholdNanos) {
+      return;
+    }
+    int slot = (int) (next.getAndIncrement() % slow.length());
+    slow.set(slot, new SlowOperation(operation.kind(), operation.accountId(), operation.variant(), operation.rows(),
+        nanos, Instant.now(), Thread.currentThread().getName()));
+  }
+
+  /** As operações lentas ainda no buffer, da mais lenta para a mais rápida. */
+  public List<SlowOperationResponse> slowest(int limit) {
+    List<SlowOperation> operations = new ArrayList<>(slow.length());
+    for (int i = 0; i < slow.length(); i++) {
+      SlowOperation operation = slow.get(i);
+      if (operation != null) {
+        operations.add(operation);
+      }
+    }
+    return operations.stream()
+        .sorted(Comparator.comparingLong(SlowOperation::nanos).reversed())
+        .limit(limit)
+        .map(o -> new SlowOperationResponse(o.kind().label, o.accountId(), o.variant(), o.rows(),
+            o.nanos() / 1_000_000.0, o.finishedAt(), o.thread()))
+        .toList();
+  }
+}
@@ -0,0 +1,90 @@
+package com.backend.keysbankapi.diagnostics;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Uma operação do razão em andamento: abre o evento JFR no início e, em {@link #end()}, grava o
+ * evento (se houver gravação ativa) e entrega a duração ao {@link LedgerFlightRecorder}.
+ * Variante e linhas são preenchidas ao longo da operação. Não é thread-safe: pertence à thread
+ * que executa a operação.
+ */
+public final class LedgerOperation {
+
+  public enum Kind {
+    POSTING("posting", PostingEvent::new),
+    BALANCE_RECOMPUTE("balance-recompute", BalanceRecomputeEvent::new),
+    STATEMENT_QUERY("statement-query", StatementQueryEvent::new),
+    BATCH_POSTING("batch-posting", BatchPostingEvent::new),
+    STATEMENT_EXPORT("statement-export", StatementExportEvent::new);
+
+    final String label;
+    private final Supplier<LedgerEvent> events;
+
+    Kind(String label, Supplier<LedgerEvent> events) {
+      this.label = label;
+      this.events = events;
+    }
+  }
+
+  private final LedgerFlightRecorder recorder;
+  private final Kind kind;
+  private final UUID accountId;
+  private final LedgerEvent event;
+  private final long started;
+  private String variant;
+  private long rows;
+  private boolean ended;
+
+  LedgerOperation(LedgerFlightRecorder recorder, Kind kind, UUID accountId) {
+    this.recorder = recorder;
+    this.kind = kind;
+    this.accountId = accountId;
+    this.event = kind.events.get();
+    this.event.begin();
+    this.started = System.nanoTime();
+  }
+
+  public LedgerOperation variant(String variant) {
+    this.variant = variant;
+    return this;
+  }
+
+  public LedgerOperation addRows(long rows) {
+    this.rows += rows;
+    return this;
+  }
+
+  /** Encerra a operação. Chamadas repetidas são ignoradas. */
+  public void end() {
+    if (ended) {
+      return;
+    }
+    ended = true;
+    long nanos = System.nanoTime() - started;
+    event.end();
+    if (event.shouldCommit()) {
+      event.accountId = accountId != null ? accountId.toString() : null;
+      event.variant = variant;
+      event.rows = rows;
+      event.commit();
+    }
+    recorder.finished(this, nanos);
+  }
+
+  Kind kind() {
+    return kind;
+  }
+
+  UUID accountId() {
+    return accountId;
+  }
+
+  public String variant() {
+    return variant;
+  }
+
+  public long rows() {
+    return rows;
+  }
+}
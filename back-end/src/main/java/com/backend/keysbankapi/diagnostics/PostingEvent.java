@@ -0,0 +1,10 @@
+package com.backend.keysbankapi.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.backend.keysbankapi.Posting")
+@Label("Posting")
+@Description("Lançamento individual (POST /transaction); variant é o caminho do saldo do dia ou o motivo da recusa")
+final class PostingEvent extends LedgerEvent {}
@@ -0,0 +1,10 @@
+package com.backend.keysbankapi.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.backend.keysbankapi.StatementExport")
+@Label("Statement Export")
+@Description("Exportação do extrato em streaming; variant é o formato e rows o número de linhas escritas")
+final class StatementExportEvent extends LedgerEvent {}
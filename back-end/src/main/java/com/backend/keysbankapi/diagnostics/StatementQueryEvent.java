@@ -0,0 +1,10 @@
+package com.backend.keysbankapi.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.backend.keysbankapi.StatementQuery")
+@Label("Statement Query")
+@Description("Leitura de extrato; variant é a consulta escolhida e rows o número de itens devolvidos")
+final class StatementQueryEvent extends LedgerEvent {}
@@ -0,0 +1,24 @@
+package com.backend.keysbankapi.diagnostics.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(name = "SlowOperationResponse", description = "Operação do razão que passou do limite de lentidão")
+public record SlowOperationResponse(
+    @Schema(description = "Tipo da operação: posting, balance-recompute ou statement-query", example = "statement-query")
+    String operation,
+    @Schema(description = "Conta da operação", example = "b837e6e2-1b3c-4267-825f-741fb798f066")
+    UUID accountId,
+    @Schema(description = "Variante escolhida (consulta do extrato, caminho do saldo do dia)", example = "range-with-balances")
+    String variant,
+    @Schema(description = "Linhas lidas ou gravadas", example = "48210")
+    long rows,
+    @Schema(description = "Duração em milissegundos", example = "812.4")
+    double durationMs,
+    @Schema(description = "Fim da operação", example = "2026-01-15T22:45:34.123Z")
+    Instant finishedAt,
+    @Schema(description = "Thread que executou a operação", example = "http-nio-8080-exec-7")
+    String thread
+) {}
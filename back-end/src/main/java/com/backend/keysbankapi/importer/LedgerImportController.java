@@ -0,0 +1,75 @@
+package com.backend.keysbankapi.importer;
+
+import com.backend.keysbankapi.importer.dto.ImportRequest;
+import com.backend.keysbankapi.importer.dto.ImportStatusResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/import")
+@Tag(name = "Import", description = "Importação do histórico do core legado")
+public class LedgerImportController {
+
+  private final LedgerImportService service;
+
+  public LedgerImportController(LedgerImportService service) {
+    this.service = service;
+  }
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  @Operation(
+      summary = "Iniciar importação de histórico",
+      description = "Carrega os arquivos customers*.csv, accounts*.csv e transactions*.csv do diretório informado via COPY do PostgreSQL " +
+          "e recalcula os saldos ao final. Roda em segundo plano; acompanhe por GET /admin/import/status. " +
+          "Arquivos já carregados em execuções anteriores são pulados, então uma importação interrompida pode ser reiniciada. " +
+          "Use apenas em janela de manutenção."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "202",
+          description = "Importação iniciada",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ImportStatusResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Erro: Diretório inválido ou já existe uma importação em andamento"
+      ),
+      @ApiResponse(
+          responseCode = "500",
+          description = "Erro interno do servidor"
+      )
+  })
+  public ImportStatusResponse start(@Valid @RequestBody ImportRequest req) {
+    return service.start(req.directory());
+  }
+
+  @GetMapping("/status")
+  @Operation(
+      summary = "Consultar progresso da importação",
+      description = "Retorna a situação da última importação: arquivo corrente, linhas carregadas e vazão em linhas por segundo"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Situação retornada com sucesso",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ImportStatusResponse.class)
+          )
+      )
+  })
+  public ImportStatusResponse status() {
+    return service.status();
+  }
+}
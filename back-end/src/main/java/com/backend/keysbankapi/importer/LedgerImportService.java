@@ -0,0 +1,327 @@
+package com.backend.keysbankapi.importer;
+
+import com.backend.keysbankapi.importer.dto.ImportStatusResponse;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Importação do histórico do core legado direto pelo protocolo COPY do PostgreSQL.
+ *
+ * <p>Os arquivos CSV (com cabeçalho) são carregados na ordem customers*.csv, accounts*.csv e
+ * transactions*.csv. Cada arquivo é carregado em uma transação própria, junto com o registro em
+ * import_checkpoints: se a importação cair no meio, basta rodar de novo que os arquivos já
+ * concluídos são pulados e o arquivo interrompido é recarregado do início. No final os saldos
+ * diários, os saldos correntes e os rollups de relatórios são recalculados em uma única passada set-based.
+ *
+ * <p>Feita para janelas de manutenção: o recálculo de saldos não coordena com lançamentos em andamento.
+ * Também não roda depois que algum mês foi para o arquivo morto (archived_months), porque o
+ * recálculo a partir de transactions deixaria esses meses de fora.
+ */
+@Service
+public class LedgerImportService {
+
+  private static final Logger log = LoggerFactory.getLogger(LedgerImportService.class);
+  private static final long PROGRESS_EVERY_ROWS = 1_000_000;
+
+  private record TableSpec(String filePrefix, String table, String columns) {}
+
+  // Ordem respeita as chaves estrangeiras
+  private static final List<TableSpec> TABLES = List.of(
+      new TableSpec("customers", "customers", "id, name, email, created_at"),
+      new TableSpec("accounts", "accounts", "id, customer_id, agency, account_number, status, created_at"),
+      new TableSpec("transactions", "transactions", "id, account_id, type, category, amount, description, correlation_id, created_at")
+  );
+
+  // Lançamentos importados mudam extratos e saldos: toda conta ganha uma versão nova do razão (ETag),
+  // já somando as versões das parcelas que serão apagadas para o total não diminuir
+  private static final String BUMP_LEDGER_VERSIONS = """
+      UPDATE accounts a
+      SET ledger_version = a.ledger_version + 1
+          + COALESCE((SELECT SUM(s.ledger_version) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+      """;
+
+  // O recálculo parte do histórico completo, então as parcelas de conta quente (e os rollups) deixam de valer
+  private static final String CLEAR_BALANCE_SHARDS = "TRUNCATE account_balance_shards, account_daily_balance_shards, ledger_daily_rollups";
+
+  private static final String REBUILD_DAILY_BALANCES = """
+      INSERT INTO account_daily_balances (account_id, day, balance, updated_at)
+      SELECT account_id, created_at::date,
+             SUM(CASE WHEN type = 'CREDIT' THEN amount WHEN type = 'DEBIT' THEN -amount ELSE 0 END),
+             MAX(created_at)
+      FROM transactions
+      GROUP BY account_id, created_at::date
+      ON CONFLICT (account_id, day)
+      DO UPDATE SET balance = EXCLUDED.balance, updated_at = EXCLUDED.updated_at
+      """;
+
+  private static final String REBUILD_ACCOUNT_BALANCES = """
+      UPDATE accounts a
+      SET balance = s.total
+      FROM (
+        SELECT account_id, SUM(CASE WHEN type = 'CREDIT' THEN amount WHEN type = 'DEBIT' THEN -amount ELSE 0 END) AS total
+        FROM transactions
+        GROUP BY account_id
+      ) s
+      WHERE s.account_id = a.id AND a.balance <> s.total
+      """;
+
+  // Os lançamentos chegam por COPY, sem passar pelo rollup de relatórios
+  private static final String REBUILD_ROLLUPS = """
+      INSERT INTO ledger_daily_rollups (account_id, day, category, type, shard, total, tx_count)
+      SELECT account_id, created_at::date, category, type, 0, SUM(amount), COUNT(*)
+      FROM transactions
+      GROUP BY account_id, created_at::date, category, type
+      """;
+
+  // transactions é particionada e não tem unicidade em correlation_id: as chaves importadas vão para a tabela própria
+  private static final String REGISTER_IDEMPOTENCY_KEYS = """
+      INSERT INTO transaction_idempotency_keys (correlation_id, transaction_id, created_at)
+      SELECT correlation_id, id, created_at
+      FROM transactions
+      WHERE correlation_id IS NOT NULL
+      ON CONFLICT (correlation_id) DO NOTHING
+      """;
+
+  private final DataSource dataSource;
+  private final Path baseDir;
+
+  private final Object lock = new Object();
+  private ImportJob job;
+
+  public LedgerImportService(DataSource dataSource, @Value("${keysbank.import.base-dir:/var/lib/keysbank/import}") String baseDir) {
+    this.dataSource = dataSource;
+    this.baseDir = Path.of(baseDir).toAbsolutePath().normalize();
+  }
+
+  /** Inicia a importação em segundo plano. Só uma importação roda por vez. */
+  public ImportStatusResponse start(String directory) {
+    Path dir = baseDir.resolve(directory).normalize();
+    if (!dir.startsWith(baseDir) || !Files.isDirectory(dir)) {
+      throw new IllegalArgumentException("Diretório de importação inválido");
+    }
+
+    synchronized (lock) {
+      if (job != null && job.isActive()) {
+        throw new IllegalArgumentException("Já existe uma importação em andamento");
+      }
+      if (hasArchivedMonths()) {
+        throw new IllegalArgumentException("Importação indisponível: há meses no arquivo morto");
+      }
+      job = new ImportJob(directory);
+      ImportJob current = job;
+      Thread.ofPlatform().name("ledger-import").start(() -> run(current, dir));
+      return current.snapshot();
+    }
+  }
+
+  public ImportStatusResponse status() {
+    synchronized (lock) {
+      return job != null ? job.snapshot() : ImportJob.idle();
+    }
+  }
+
+  private void run(ImportJob job, Path dir) {
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+
+      for (TableSpec spec : TABLES) {
+        for (Path file : filesFor(dir, spec)) {
+          loadFile(conn, copy, job, spec, file);
+        }
+      }
+
+      job.state = "REBUILDING_BALANCES";
+      long start = System.nanoTime();
+      try (Statement st = conn.createStatement()) {
+        st.executeUpdate(BUMP_LEDGER_VERSIONS);
+        st.execute(CLEAR_BALANCE_SHARDS);
+        int days = st.executeUpdate(REBUILD_DAILY_BALANCES);
+        int accounts = st.executeUpdate(REBUILD_ACCOUNT_BALANCES);
+        int rollups = st.executeUpdate(REBUILD_ROLLUPS);
+        st.executeUpdate(REGISTER_IDEMPOTENCY_KEYS);
+        conn.commit();
+        log.info("Importação: saldos recalculados ({} contas/dia, {} saldos correntes, {} linhas de rollup) em {} ms",
+            days, accounts, rollups, Duration.ofNanos(System.nanoTime() - start).toMillis());
+      }
+
+      job.finish(null);
+      log.info("Importação de {} concluída: {} arquivos, {} linhas, {} linhas/s",
+          job.directory, job.filesLoaded, job.rowsLoaded, job.rowsPerSecond());
+    } catch (Exception e) {
+      log.error("Importação de {} interrompida em {}", job.directory, job.currentFile, e);
+      job.finish(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+    }
+  }
+
+  private void loadFile(Connection conn, CopyManager copy, ImportJob job, TableSpec spec, Path file) throws SQLException, IOException {
+    String fileName = baseDir.relativize(file).toString();
+    long fileSize = Files.size(file);
+
+    if (isCheckpointed(conn, fileName, fileSize)) {
+      job.filesSkipped++;
+      log.info("Importação: {} já carregado anteriormente, pulando", fileName);
+      return;
+    }
+
+    job.currentFile = fileName;
+    long start = System.nanoTime();
+    long rows;
+    try (Reader reader = new ProgressReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), job, fileName)) {
+      rows = copy.copyIn("COPY " + spec.table() + " (" + spec.columns() + ") FROM STDIN WITH (FORMAT csv, HEADER true)", reader);
+
+      try (PreparedStatement ps = conn.prepareStatement(
+          "INSERT INTO import_checkpoints (file_name, file_size, table_name, rows_loaded) VALUES (?, ?, ?, ?)")) {
+        ps.setString(1, fileName);
+        ps.setLong(2, fileSize);
+        ps.setString(3, spec.table());
+        ps.setLong(4, rows);
+        ps.executeUpdate();
+      }
+      conn.commit();
+    } catch (SQLException | IOException | RuntimeException e) {
+      conn.rollback();
+      throw e;
+    }
+
+    job.fileCompleted(rows);
+    long millis = Math.max(1, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    log.info("Importação: {} carregado, {} linhas em {} ms ({} linhas/s)", fileName, rows, millis, rows * 1000 / millis);
+  }
+
+  private boolean hasArchivedMonths() {
+    try (Connection conn = dataSource.getConnection();
+         Statement st = conn.createStatement();
+         ResultSet rs = st.executeQuery("SELECT EXISTS (SELECT 1 FROM archived_months)")) {
+      return rs.next() && rs.getBoolean(1);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Não foi possível consultar o arquivo morto", e);
+    }
+  }
+
+  private static boolean isCheckpointed(Connection conn, String fileName, long fileSize) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM import_checkpoints WHERE file_name = ? AND file_size = ?")) {
+      ps.setString(1, fileName);
+      ps.setLong(2, fileSize);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next();
+      }
+    }
+  }
+
+  private static List<Path> filesFor(Path dir, TableSpec spec) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files
+          .filter(f -> {
+            String name = f.getFileName().toString();
+            return name.startsWith(spec.filePrefix()) && name.endsWith(".csv");
+          })
+          .sorted()
+          .toList();
+    }
+  }
+
+  /** Estado da importação em andamento, lido pelo endpoint de status. */
+  private static final class ImportJob {
+    final String directory;
+    final Instant startedAt = Instant.now();
+    volatile String state = "RUNNING";
+    volatile String currentFile;
+    volatile int filesLoaded;
+    volatile int filesSkipped;
+    volatile long rowsLoaded;
+    // linhas do arquivo corrente ainda não confirmadas (progresso aproximado por quebras de linha)
+    volatile long rowsInFlight;
+    volatile Instant finishedAt;
+    volatile String error;
+
+    ImportJob(String directory) {
+      this.directory = directory;
+    }
+
+    static ImportStatusResponse idle() {
+      return new ImportStatusResponse("IDLE", null, null, 0, 0, 0, 0, null, null, null);
+    }
+
+    boolean isActive() {
+      return finishedAt == null;
+    }
+
+    void fileCompleted(long rows) {
+      filesLoaded++;
+      rowsLoaded += rows;
+      rowsInFlight = 0;
+      currentFile = null;
+    }
+
+    void finish(String error) {
+      this.error = error;
+      this.state = error == null ? "COMPLETED" : "FAILED";
+      this.finishedAt = Instant.now();
+    }
+
+    long rowsPerSecond() {
+      Instant end = finishedAt != null ? finishedAt : Instant.now();
+      long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+      return (rowsLoaded + rowsInFlight) * 1000 / millis;
+    }
+
+    ImportStatusResponse snapshot() {
+      return new ImportStatusResponse(state, directory, currentFile, filesLoaded, filesSkipped,
+          rowsLoaded + rowsInFlight, rowsPerSecond(), startedAt, finishedAt, error);
+    }
+  }
+
+  /** Conta quebras de linha enquanto o COPY lê o arquivo, para reportar progresso em arquivos grandes. */
+  private static final class ProgressReader extends FilterReader {
+    private final ImportJob job;
+    private final String fileName;
+    private long lines;
+    private long nextReport = PROGRESS_EVERY_ROWS;
+
+    ProgressReader(Reader in, ImportJob job, String fileName) {
+      super(in);
+      this.job = job;
+      this.fileName = fileName;
+    }
+
+    @Override
+    public int read(char[] buf, int off, int len) throws IOException {
+      int n = super.read(buf, off, len);
+      for (int i = off; i < off + n; i++) {
+        if (buf[i] == '\n') {
+          lines++;
+        }
+      }
+      if (n > 0) {
+        job.rowsInFlight = lines;
+        if (lines >= nextReport) {
+          nextReport += PROGRESS_EVERY_ROWS;
+          log.info("Importação: {} em andamento, ~{} linhas lidas ({} linhas/s no total)", fileName, lines, job.rowsPerSecond());
+        }
+      }
+      return n;
+    }
+  }
+}
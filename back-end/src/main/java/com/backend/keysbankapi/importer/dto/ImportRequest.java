@@ -0,0 +1,10 @@
+package com.backend.keysbankapi.importer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(name = "ImportRequest", description = "Pedido de importação do histórico do core legado")
+public record ImportRequest(
+  @Schema(description = "Subdiretório (dentro do diretório base de importação) com os arquivos CSV", example = "legado-2026-01")
+  @NotBlank String directory
+) {}
@@ -0,0 +1,28 @@
+package com.backend.keysbankapi.importer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+
+@Schema(name = "ImportStatusResponse", description = "Progresso da importação de histórico")
+public record ImportStatusResponse(
+    @Schema(description = "Situação da importação", example = "RUNNING", allowableValues = {"IDLE", "RUNNING", "REBUILDING_BALANCES", "COMPLETED", "FAILED"})
+    String state,
+    @Schema(description = "Diretório sendo importado", example = "legado-2026-01")
+    String directory,
+    @Schema(description = "Arquivo em carga no momento", example = "transactions-2019.csv")
+    String currentFile,
+    @Schema(description = "Arquivos carregados nesta execução", example = "3")
+    int filesLoaded,
+    @Schema(description = "Arquivos pulados por já terem sido carregados em execução anterior", example = "2")
+    int filesSkipped,
+    @Schema(description = "Linhas carregadas nesta execução", example = "12500000")
+    long rowsLoaded,
+    @Schema(description = "Vazão média desde o início, em linhas por segundo", example = "185000")
+    long rowsPerSecond,
+    @Schema(description = "Início da execução")
+    Instant startedAt,
+    @Schema(description = "Fim da execução (nulo enquanto roda)")
+    Instant finishedAt,
+    @Schema(description = "Erro que interrompeu a importação (nulo se não houve)")
+    String error
+) {}
@@ -0,0 +1,27 @@
+package com.backend.keysbankapi.ledger;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Lida da view que soma account_daily_balances com as parcelas de contas quentes;
+// a escrita é feita por comandos nativos em DailyBalanceRepository
+@Entity
+@Immutable
+@Table(name = "account_daily_balance_totals")
+public class DailyBalance {
+  @EmbeddedId
+  private DailyBalanceId id;
+
+  @Column(nullable = false, precision = 18, scale = 2)
+  private BigDecimal balance;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  // getters
+  public DailyBalanceId getId() { return id; }
+  public BigDecimal getBalance() { return balance; }
+  public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,39 @@
+package com.backend.keysbankapi.ledger;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class DailyBalanceId implements Serializable {
+  @Column(name = "account_id", nullable = false)
+  private UUID accountId;
+
+  @Column(nullable = false)
+  private LocalDate day;
+
+  protected DailyBalanceId() {}
+
+  public DailyBalanceId(UUID accountId, LocalDate day) {
+    this.accountId = accountId;
+    this.day = day;
+  }
+
+  public UUID getAccountId() { return accountId; }
+  public LocalDate getDay() { return day; }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof DailyBalanceId other)) return false;
+    return Objects.equals(accountId, other.accountId) && Objects.equals(day, other.day);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(accountId, day);
+  }
+}
@@ -0,0 +1,76 @@
+package com.backend.keysbankapi.ledger;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, DailyBalanceId> {
+
+  @Query("SELECT b FROM DailyBalance b WHERE b.id.accountId = :accountId ORDER BY b.id.day DESC")
+  List<DailyBalance> findByAccountIdOrderByDayDesc(@Param("accountId") UUID accountId);
+
+  @Query("SELECT b FROM DailyBalance b WHERE b.id.accountId = :accountId AND b.id.day >= :startDay AND b.id.day <= :endDay ORDER BY b.id.day DESC")
+  List<DailyBalance> findByAccountIdAndDayRangeOrderByDayDesc(@Param("accountId") UUID accountId, @Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+  @Query("SELECT b FROM DailyBalance b WHERE b.id.accountId = :accountId AND (:startDay IS NULL OR b.id.day >= :startDay) AND (:endDay IS NULL OR b.id.day <= :endDay) ORDER BY b.id.day DESC")
+  List<DailyBalance> findPage(@Param("accountId") UUID accountId, @Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay, Limit limit);
+
+  @Query("SELECT b FROM DailyBalance b WHERE b.id.accountId = :accountId AND b.id.day < :cursorDay AND (:startDay IS NULL OR b.id.day >= :startDay) AND (:endDay IS NULL OR b.id.day <= :endDay) ORDER BY b.id.day DESC")
+  List<DailyBalance> findPageAfter(@Param("accountId") UUID accountId, @Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay, @Param("cursorDay") LocalDate cursorDay, Limit limit);
+
+  // Caso comum: o saldo do dia já existe e recebe apenas o valor do novo lançamento
+  @Modifying
+  @Query(value = "UPDATE account_daily_balances SET balance = balance + :delta, updated_at = :updatedAt WHERE account_id = :accountId AND day = :day", nativeQuery = true)
+  int addToBalance(@Param("accountId") UUID accountId, @Param("day") LocalDate day, @Param("delta") BigDecimal delta, @Param("updatedAt") Instant updatedAt);
+
+  // Primeiro lançamento do dia: grava o saldo inicial; se outra transação criou a linha antes, soma o delta
+  @Modifying
+  @Query(value = """
+      INSERT INTO account_daily_balances (account_id, day, balance, updated_at)
+      VALUES (:accountId, :day, :balance, :updatedAt)
+      ON CONFLICT (account_id, day)
+      DO UPDATE SET balance = account_daily_balances.balance + :delta, updated_at = EXCLUDED.updated_at
+      """, nativeQuery = true)
+  int upsertBalance(@Param("accountId") UUID accountId, @Param("day") LocalDate day, @Param("balance") BigDecimal balance, @Param("delta") BigDecimal delta, @Param("updatedAt") Instant updatedAt);
+
+  // Saldo inicial do dia: lançamentos do dia menos o que já está nas parcelas de conta quente.
+  // Um único comando, para as duas somas enxergarem o mesmo snapshot. A contagem sai da mesma
+  // leitura e alimenta a métrica de linhas lidas por lançamento
+  @Query(value = """
+      SELECT COALESCE(d.total, 0)
+               - COALESCE((SELECT SUM(s.balance) FROM account_daily_balance_shards s WHERE s.account_id = :accountId AND s.day = :day), 0) AS balance,
+             d.scanned AS transactions
+      FROM (SELECT SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount WHEN t.type = 'DEBIT' THEN -t.amount ELSE 0 END) AS total,
+                   COUNT(*) AS scanned
+            FROM transactions t WHERE t.account_id = :accountId AND t.created_at >= :startOfDay) d
+      """, nativeQuery = true)
+  DaySeed seedBalance(@Param("accountId") UUID accountId, @Param("day") LocalDate day, @Param("startOfDay") Instant startOfDay);
+
+  // Conta quente: cada lançamento soma em uma das parcelas do dia, sem disputar a linha principal
+  @Modifying
+  @Query(value = """
+      INSERT INTO account_daily_balance_shards (account_id, day, shard, balance, updated_at)
+      VALUES (:accountId, :day, :shard, :delta, :updatedAt)
+      ON CONFLICT (account_id, day, shard)
+      DO UPDATE SET balance = account_daily_balance_shards.balance + EXCLUDED.balance, updated_at = EXCLUDED.updated_at
+      """, nativeQuery = true)
+  int addToShard(@Param("accountId") UUID accountId, @Param("day") LocalDate day, @Param("shard") int shard, @Param("delta") BigDecimal delta, @Param("updatedAt") Instant updatedAt);
+
+  // Rollup de relatórios (conta x dia x categoria x tipo), na mesma transação do lançamento
+  @Modifying
+  @Query(value = """
+      INSERT INTO ledger_daily_rollups (account_id, day, category, type, shard, total, tx_count)
+      VALUES (:accountId, :day, :category, :type, :shard, :amount, 1)
+      ON CONFLICT (account_id, day, category, type, shard)
+      DO UPDATE SET total = ledger_daily_rollups.total + EXCLUDED.total, tx_count = ledger_daily_rollups.tx_count + 1
+      """, nativeQuery = true)
+  int addToRollup(@Param("accountId") UUID accountId, @Param("day") LocalDate day, @Param("category") String category, @Param("type") String type, @Param("shard") int shard, @Param("amount") BigDecimal amount);
+}
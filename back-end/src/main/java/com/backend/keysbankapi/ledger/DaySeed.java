@@ -0,0 +1,9 @@
+package com.backend.keysbankapi.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo inicial do dia de uma conta, calculado no primeiro lançamento do dia, e quantos
+ * lançamentos do dia foram lidos para chegar nele.
+ */
+public record DaySeed(BigDecimal balance, Long transactions) {}
@@ -0,0 +1,179 @@
+package com.backend.keysbankapi.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decide quais contas estão "quentes" a partir da taxa de lançamentos.
+ *
+ * <p>Conta quente tem {@code accounts.balance_shards > 1}: os créditos vão para uma de N parcelas
+ * de saldo (account_balance_shards / account_daily_balance_shards) em vez da linha da conta.
+ * A cada janela, contas acima de {@code promote-per-second} são promovidas e contas quentes abaixo
+ * de {@code demote-per-second} são rebaixadas; as parcelas de contas no modo normal são somadas de
+ * volta nas linhas principais.
+ *
+ * <p>A promoção usa a taxa vista por esta instância, então {@code promote-per-second} vale por
+ * instância. O rebaixamento usa a taxa global, contada em transactions na janela: com várias
+ * instâncias, a taxa local de uma conta promovida por outra pode ser baixa só porque o
+ * balanceador mandou os lançamentos para lá, e rebaixar por ela faria a conta alternar entre os
+ * modos, devolvendo as parcelas a cada troca.
+ */
+@Component
+public class HotAccountTracker {
+
+  private static final Logger log = LoggerFactory.getLogger(HotAccountTracker.class);
+
+  // Devolve as parcelas do saldo corrente para accounts. O DELETE espera créditos em andamento
+  // na parcela e devolve o valor já com eles; um crédito que chegar depois cria a parcela de novo
+  // e continua sendo somado nas leituras até o próximo rebaixamento. As versões do razão das
+  // parcelas vão junto, para a versão da conta não diminuir.
+  // Trava as parcelas (DELETE) antes da linha da conta, a mesma ordem dos débitos, que leem as
+  // parcelas com FOR SHARE: débito e devolução se alternam, sem deadlock e sem que o débito some
+  // o valor devolvido duas vezes (saldo novo da conta + parcelas antigas).
+  static final String FOLD_BALANCE_SHARDS = """
+      WITH folded AS (
+        DELETE FROM account_balance_shards WHERE account_id = ? RETURNING balance, ledger_version
+      )
+      UPDATE accounts SET balance = balance + COALESCE((SELECT SUM(balance) FROM folded), 0),
+                          ledger_version = ledger_version + COALESCE((SELECT SUM(ledger_version) FROM folded), 0)
+      WHERE id = ?
+      """;
+
+  private static final String FOLD_DAILY_SHARDS = """
+      WITH folded AS (
+        DELETE FROM account_daily_balance_shards WHERE account_id = ? RETURNING day, balance, updated_at
+      )
+      INSERT INTO account_daily_balances (account_id, day, balance, updated_at)
+      SELECT CAST(? AS uuid), day, SUM(balance), MAX(updated_at) FROM folded GROUP BY day
+      ON CONFLICT (account_id, day)
+      DO UPDATE SET balance = account_daily_balances.balance + EXCLUDED.balance,
+                    updated_at = GREATEST(account_daily_balances.updated_at, EXCLUDED.updated_at)
+      """;
+
+  // Contas em modo normal que ainda têm parcelas: rebaixadas agora ou créditos que chegaram
+  // depois do rebaixamento, roteados por uma instância que ainda as via como quentes
+  private static final String FIND_RESIDUAL_SHARDS = """
+      SELECT s.account_id FROM account_balance_shards s JOIN accounts a ON a.id = s.account_id WHERE a.balance_shards = 1
+      UNION
+      SELECT d.account_id FROM account_daily_balance_shards d JOIN accounts a ON a.id = d.account_id WHERE a.balance_shards = 1
+      """;
+
+  // Lançamentos da conta na janela, de todas as instâncias; lê só a partição do mês corrente
+  private static final String COUNT_RECENT_WRITES =
+      "SELECT count(*) FROM transactions WHERE account_id = ? AND created_at >= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int shards;
+  private final double promotePerSecond;
+  private final double demotePerSecond;
+
+  private final AtomicReference<ConcurrentHashMap<UUID, LongAdder>> window = new AtomicReference<>(new ConcurrentHashMap<>());
+  private volatile long windowStartedAt = System.nanoTime();
+  private volatile Map<UUID, Integer> hotAccounts = Map.of();
+
+  public HotAccountTracker(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${keysbank.hot-accounts.shards:16}") int shards,
+      @Value("${keysbank.hot-accounts.promote-per-second:50}") double promotePerSecond,
+      @Value("${keysbank.hot-accounts.demote-per-second:10}") double demotePerSecond
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.shards = shards;
+    this.promotePerSecond = promotePerSecond;
+    this.demotePerSecond = demotePerSecond;
+  }
+
+  /** Número de parcelas de saldo da conta; 1 para contas no modo normal. */
+  public int shardsFor(UUID accountId) {
+    return hotAccounts.getOrDefault(accountId, 1);
+  }
+
+  public void recordWrite(UUID accountId) {
+    window.get().computeIfAbsent(accountId, id -> new LongAdder()).increment();
+  }
+
+  @Scheduled(fixedDelayString = "${keysbank.hot-accounts.window:10s}")
+  public void evaluate() {
+    long now = System.nanoTime();
+    ConcurrentHashMap<UUID, LongAdder> counts = window.getAndSet(new ConcurrentHashMap<>());
+    // Janela mínima de 1s para uma rajada curta logo após a subida não promover a conta
+    double seconds = Math.max(1.0, (now - windowStartedAt) / 1e9);
+    windowStartedAt = now;
+
+    // Outras instâncias também promovem e rebaixam: parte sempre do que está no banco
+    Map<UUID, Integer> current = loadHotAccounts();
+
+    Timestamp windowStart = Timestamp.from(Instant.now().minusNanos((long) (seconds * 1e9)));
+    for (UUID accountId : current.keySet().toArray(UUID[]::new)) {
+      double rate = globalWrites(accountId, windowStart) / seconds;
+      if (rate < demotePerSecond) {
+        demote(accountId, rate);
+        current.remove(accountId);
+      }
+    }
+
+    for (Map.Entry<UUID, LongAdder> entry : counts.entrySet()) {
+      double rate = entry.getValue().sum() / seconds;
+      if (rate >= promotePerSecond && !current.containsKey(entry.getKey())) {
+        promote(entry.getKey(), rate);
+        current.put(entry.getKey(), shards);
+      }
+    }
+
+    hotAccounts = Map.copyOf(current);
+
+    // As leituras sempre somam as parcelas, então dobrar fora de hora nunca altera saldo
+    for (UUID accountId : jdbcTemplate.queryForList(FIND_RESIDUAL_SHARDS, UUID.class)) {
+      fold(accountId);
+    }
+  }
+
+  private Map<UUID, Integer> loadHotAccounts() {
+    Map<UUID, Integer> loaded = new HashMap<>();
+    jdbcTemplate.query("SELECT id, balance_shards FROM accounts WHERE balance_shards > 1",
+        rs -> {
+          loaded.put(rs.getObject(1, UUID.class), rs.getInt(2));
+        });
+    return loaded;
+  }
+
+  private long globalWrites(UUID accountId, Timestamp since) {
+    Long count = jdbcTemplate.queryForObject(COUNT_RECENT_WRITES, Long.class, accountId, since);
+    return count != null ? count : 0;
+  }
+
+  private void promote(UUID accountId, double rate) {
+    jdbcTemplate.update("UPDATE accounts SET balance_shards = ? WHERE id = ? AND balance_shards = 1", shards, accountId);
+    log.info("Conta {} promovida a conta quente ({} parcelas, {} lançamentos/s)", accountId, shards, Math.round(rate));
+  }
+
+  private void demote(UUID accountId, double rate) {
+    jdbcTemplate.update("UPDATE accounts SET balance_shards = 1 WHERE id = ?", accountId);
+    log.info("Conta {} voltou ao modo normal ({} lançamentos/s)", accountId, Math.round(rate));
+  }
+
+  private void fold(UUID accountId) {
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.update(FOLD_BALANCE_SHARDS, accountId, accountId);
+      jdbcTemplate.update(FOLD_DAILY_SHARDS, accountId, accountId);
+    });
+  }
+}
@@ -0,0 +1,12 @@
+package com.backend.keysbankapi.ledger;
+
+/**
+ * Idempotency-Key reaproveitada em uma requisição diferente da original (outra conta, tipo ou
+ * valor). Responde 409 em vez de devolver a transação de outra requisição.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+  public IdempotencyKeyConflictException(String message) {
+    super(message);
+  }
+}
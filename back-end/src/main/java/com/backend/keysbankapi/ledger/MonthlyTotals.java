@@ -0,0 +1,9 @@
+package com.backend.keysbankapi.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais de um mês de uma conta, montados direto pela consulta agregada do resumo mensal.
+ * As somas chegam nulas quando não há lançamentos no período.
+ */
+public record MonthlyTotals(BigDecimal creditTotal, BigDecimal debitTotal, Long transactionCount, BigDecimal closingBalance) {}
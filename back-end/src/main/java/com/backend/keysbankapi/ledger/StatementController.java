@@ -1,6 +1,9 @@
 package com.backend.keysbankapi.ledger;
 
+import com.backend.keysbankapi.account.AccountService;
+import com.backend.keysbankapi.ledger.dto.MonthlySummaryResponse;
 import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import com.backend.keysbankapi.ledger.dto.StatementPageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,9 +11,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,16 +31,21 @@ import java.util.UUID;
 public class StatementController {
 
   private final StatementService service;
+  private final StatementExportService exportService;
+  private final AccountService accountService;
 
-  public StatementController(StatementService service) {
+  public StatementController(StatementService service, StatementExportService exportService, AccountService accountService) {
     this.service = service;
+    this.exportService = exportService;
+    this.accountService = accountService;
   }
 
   @GetMapping("/{accountId}/statement")
   @Operation(
       summary = "Recuperar extrato da conta",
       description = "Retorna o extrato (lista de transações) de uma conta com suporte a filtros opcionais por data e tipo de transação. " +
-          "O resultado inclui todas as transações (CREDIT, DEBIT) e o saldo diário (BALANCE)."
+          "O resultado inclui todas as transações (CREDIT, DEBIT) e o saldo diário (BALANCE). A resposta traz a versão do razão " +
+          "da conta como ETag; com If-None-Match ainda atual a resposta é 304 e o extrato nem é consultado."
   )
   @ApiResponses(value = {
       @ApiResponse(
@@ -40,6 +56,10 @@ public class StatementController {
               array = @ArraySchema(schema = @Schema(implementation = StatementItemResponse.class))
           )
       ),
+      @ApiResponse(
+          responseCode = "304",
+          description = "Extrato não mudou desde a ETag enviada em If-None-Match"
+      ),
       @ApiResponse(
           responseCode = "404",
           description = "Conta não encontrada"
@@ -53,15 +73,144 @@ public class StatementController {
           description = "Erro interno do servidor"
       )
   })
-  public List<StatementItemResponse> getStatement(
+  public ResponseEntity<List<StatementItemResponse>> getStatement(
       @PathVariable UUID accountId,
       @RequestParam(required = false) LocalDate startDate,
       @RequestParam(required = false) LocalDate endDate,
-      @RequestParam(required = false) String type) {
-    
-    if (startDate != null || endDate != null || type != null) {
-      return service.getStatementFiltered(accountId, startDate, endDate, type);
+      @RequestParam(required = false) String type,
+      WebRequest request) {
+
+    String etag = accountService.ledgerETag(accountId);
+    if (etag != null && request.checkNotModified(etag)) {
+      return null;
     }
-    return service.getStatement(accountId);
+
+    List<StatementItemResponse> items = startDate != null || endDate != null || type != null
+        ? service.getStatementFiltered(accountId, startDate, endDate, type)
+        : service.getStatement(accountId);
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache())
+        .eTag(etag)
+        .body(items);
+  }
+
+  @GetMapping(value = "/{accountId}/statement", params = "limit")
+  @Operation(
+      summary = "Recuperar extrato paginado por cursor",
+      description = "Versão paginada do extrato, ativada pelo parâmetro limit. Cada página traz até limit itens, do mais recente " +
+          "para o mais antigo, e o nextCursor para buscar a próxima. Sem filtro de tipo a página traz os lançamentos (CREDIT, DEBIT); " +
+          "com type=BALANCE pagina os saldos diários. O custo de cada página é o mesmo da primeira. Aceita If-None-Match como o extrato completo."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Página do extrato recuperada com sucesso",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = StatementPageResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "304",
+          description = "Extrato não mudou desde a ETag enviada em If-None-Match"
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Conta não encontrada, limit fora do intervalo ou cursor inválido"
+      ),
+      @ApiResponse(
+          responseCode = "500",
+          description = "Erro interno do servidor"
+      )
+  })
+  public ResponseEntity<StatementPageResponse> getStatementPage(
+      @PathVariable UUID accountId,
+      @RequestParam int limit,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) LocalDate startDate,
+      @RequestParam(required = false) LocalDate endDate,
+      @RequestParam(required = false) String type,
+      WebRequest request) {
+
+    String etag = accountService.ledgerETag(accountId);
+    if (etag != null && request.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache())
+        .eTag(etag)
+        .body(service.getStatementPage(accountId, startDate, endDate, type, cursor, limit));
+  }
+
+  @GetMapping("/{accountId}/summary")
+  @Operation(
+      summary = "Resumo mensal da conta",
+      description = "Retorna a soma dos créditos e dos débitos, a quantidade de lançamentos e o saldo de fechamento do mês informado. " +
+          "O cálculo é feito por uma única consulta agregada no banco, sem trafegar os lançamentos do mês."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Resumo recuperado com sucesso",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = MonthlySummaryResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Conta não encontrada ou mês inválido (formato YYYY-MM)"
+      ),
+      @ApiResponse(
+          responseCode = "500",
+          description = "Erro interno do servidor"
+      )
+  })
+  public MonthlySummaryResponse getMonthlySummary(
+      @PathVariable UUID accountId,
+      @RequestParam YearMonth month) {
+
+    return service.getMonthlySummary(accountId, month);
+  }
+
+  @GetMapping("/{accountId}/statement/export")
+  @Operation(
+      summary = "Exportar extrato completo em streaming",
+      description = "Exporta o extrato em NDJSON (padrão) ou CSV. As linhas são lidas do banco por cursor e escritas direto na resposta, " +
+          "então o uso de memória não depende do tamanho do extrato. Aceita os mesmos filtros de data e tipo do extrato."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Extrato exportado com sucesso",
+          content = {
+              @Content(mediaType = "application/x-ndjson"),
+              @Content(mediaType = "text/csv")
+          }
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Conta não encontrada ou formato inválido"
+      ),
+      @ApiResponse(
+          responseCode = "500",
+          description = "Erro interno do servidor"
+      )
+  })
+  public ResponseEntity<StreamingResponseBody> exportStatement(
+      @PathVariable UUID accountId,
+      @RequestParam(required = false, defaultValue = "ndjson") String format,
+      @RequestParam(required = false) LocalDate startDate,
+      @RequestParam(required = false) LocalDate endDate,
+      @RequestParam(required = false) String type) {
+
+    StatementExportService.Format exportFormat = StatementExportService.parseFormat(format);
+    StreamingResponseBody body = exportService.export(accountId, startDate, endDate, type, exportFormat);
+
+    boolean csv = exportFormat == StatementExportService.Format.CSV;
+    return ResponseEntity.ok()
+        .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + accountId + (csv ? ".csv" : ".ndjson") + "\"")
+        .body(body);
   }
 }
@@ -0,0 +1,54 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor opaco da paginação do extrato. Guarda a posição do último item da página:
+ * (created_at, id) para lançamentos ou o dia para saldos diários.
+ */
+record StatementCursor(Instant createdAt, UUID id, LocalDate day) {
+
+  private static final String LEDGER = "T";
+  private static final String BALANCE = "B";
+
+  static StatementCursor ofItem(StatementItemResponse item) {
+    return new StatementCursor(item.createdAt(), item.transactionId(), null);
+  }
+
+  static StatementCursor ofBalance(DailyBalance balance) {
+    return new StatementCursor(null, null, balance.getId().getDay());
+  }
+
+  boolean isBalance() {
+    return day != null;
+  }
+
+  String encode() {
+    String raw = isBalance()
+        ? BALANCE + "|" + day
+        : LEDGER + "|" + createdAt.getEpochSecond() + "|" + createdAt.getNano() + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static StatementCursor decode(String cursor) {
+    try {
+      String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+      if (parts.length == 2 && BALANCE.equals(parts[0])) {
+        return new StatementCursor(null, null, LocalDate.parse(parts[1]));
+      }
+      if (parts.length == 4 && LEDGER.equals(parts[0])) {
+        Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        return new StatementCursor(createdAt, UUID.fromString(parts[3]), null);
+      }
+    } catch (RuntimeException e) {
+      // tratado abaixo como cursor inválido
+    }
+    throw new IllegalArgumentException("Cursor inválido");
+  }
+}
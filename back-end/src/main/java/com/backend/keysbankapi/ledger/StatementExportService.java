@@ -0,0 +1,271 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.account.AccountDirectory;
+import com.backend.keysbankapi.archive.TransactionArchive;
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.diagnostics.LedgerOperation;
+import com.backend.keysbankapi.diagnostics.LedgerOperation.Kind;
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Exportação do extrato completo em streaming. As linhas são lidas por cursor JDBC com fetch size
+ * limitado e escritas direto na resposta, sem montar listas em memória. Os lançamentos de meses
+ * no arquivo morto são intercalados na mesma ordem do extrato, um mês por vez.
+ */
+@Service
+public class StatementExportService {
+
+  public enum Format { NDJSON, CSV }
+
+  static final int FETCH_SIZE = 1000;
+
+  private final AccountDirectory accountDirectory;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final TransactionArchive archive;
+  private final LedgerFlightRecorder flightRecorder;
+
+  public StatementExportService(
+      AccountDirectory accountDirectory,
+      DataSource dataSource,
+      PlatformTransactionManager transactionManager,
+      TransactionArchive archive,
+      LedgerFlightRecorder flightRecorder
+  ) {
+    this.accountDirectory = accountDirectory;
+    this.archive = archive;
+    this.flightRecorder = flightRecorder;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    // O driver do PostgreSQL só usa cursor (fetch size) com autocommit desligado, ou seja, dentro de uma transação
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  public static Format parseFormat(String format) {
+    if (format == null || format.equalsIgnoreCase("ndjson")) {
+      return Format.NDJSON;
+    }
+    if (format.equalsIgnoreCase("csv")) {
+      return Format.CSV;
+    }
+    throw new IllegalArgumentException("Formato inválido: use ndjson ou csv");
+  }
+
+  /**
+   * Valida a conta antes de começar a resposta e devolve o corpo que escreve o extrato.
+   * Os filtros seguem as mesmas regras do extrato filtrado.
+   */
+  public StreamingResponseBody export(UUID accountId, LocalDate startDate, LocalDate endDate, String type, Format format) {
+
+    if (!accountDirectory.exists(accountId)) {
+      throw new IllegalArgumentException("Conta não encontrada");
+    }
+
+    StringBuilder sql = new StringBuilder();
+    List<Object> args = new ArrayList<>();
+    boolean hasDateRange = startDate != null && endDate != null;
+    Instant start = hasDateRange ? startDate.atStartOfDay(ZoneId.systemDefault()).toInstant() : StatementService.OPEN_START;
+    Instant end = hasDateRange ? endDate.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant() : StatementService.OPEN_END;
+    boolean withArchived = !"BALANCE".equals(type) && archive.hasMonths();
+
+    if (!"BALANCE".equals(type)) {
+      sql.append("SELECT id, type, category, amount, description, created_at, NULL::date AS day FROM transactions WHERE account_id = ?");
+      args.add(accountId);
+      if (type != null) {
+        sql.append(" AND type = ?");
+        args.add(type);
+      }
+      if (hasDateRange) {
+        sql.append(" AND created_at >= ? AND created_at <= ?");
+        args.add(Timestamp.from(start));
+        args.add(Timestamp.from(end));
+      }
+    }
+
+    // Sem filtro de tipo os saldos diários entram intercalados por data, como no extrato
+    if (type == null || "BALANCE".equals(type)) {
+      if (!sql.isEmpty()) {
+        sql.append(" UNION ALL ");
+      }
+      sql.append("SELECT NULL::uuid, 'BALANCE', 'DAILY_BALANCE', balance, 'Saldo do dia', updated_at AS created_at, day FROM account_daily_balance_totals WHERE account_id = ?");
+      args.add(accountId);
+      if (hasDateRange) {
+        sql.append(" AND day >= ? AND day <= ?");
+        args.add(Date.valueOf(startDate));
+        args.add(Date.valueOf(endDate));
+      }
+    }
+    // Mesmo desempate do extrato paginado (id decrescente); os saldos do dia, sem id, vêm antes no empate
+    sql.append(" ORDER BY created_at DESC, id DESC");
+
+    return out -> {
+      // Aberta na thread que escreve a resposta (não na da requisição); a medição vai até o último flush
+      LedgerOperation operation = flightRecorder.start(Kind.STATEMENT_EXPORT, accountId).variant(format.name().toLowerCase(Locale.ROOT));
+      try {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+          writer.write("transactionId,type,category,amount,description,createdAt\n");
+        }
+        Iterator<StatementItemResponse> archived = withArchived
+            ? archive.iterate(accountId, type, start, end)
+            : Collections.emptyIterator();
+        ArchivedRows pending = new ArchivedRows(archived, operation);
+        RowCallbackHandler rowWriter = rs -> writeRow(writer, accountId, rs, format, pending, operation);
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(), rowWriter, args.toArray()));
+        // Meses arquivados mais antigos que o lançamento mais antigo do banco
+        pending.writeBefore(null, null, writer, format);
+        writer.flush();
+      } finally {
+        operation.end();
+      }
+    };
+  }
+
+  private static void writeRow(Writer writer, UUID accountId, ResultSet rs, Format format, ArchivedRows archived,
+                               LedgerOperation operation) throws SQLException {
+    UUID transactionId = rs.getObject(1, UUID.class);
+    Instant createdAt = rs.getTimestamp(6).toInstant();
+    archived.writeBefore(createdAt, transactionId, writer, format);
+    UUID id = transactionId;
+    Date day = rs.getDate(7);
+    if (id == null && day != null) {
+      id = StatementService.balanceItemId(new DailyBalanceId(accountId, day.toLocalDate()));
+    }
+    write(writer, id, rs.getString(2), rs.getString(3), rs.getBigDecimal(4), rs.getString(5), createdAt, format);
+    operation.addRows(1);
+  }
+
+  // Lançamentos do arquivo morto ainda não escritos, na ordem do extrato
+  private static final class ArchivedRows {
+
+    private final Iterator<StatementItemResponse> items;
+    private final LedgerOperation operation;
+    private StatementItemResponse next;
+
+    ArchivedRows(Iterator<StatementItemResponse> items, LedgerOperation operation) {
+      this.items = items;
+      this.operation = operation;
+      this.next = items.hasNext() ? items.next() : null;
+    }
+
+    // Escreve os arquivados que vêm antes da linha do banco na ordem do extrato (todos, com createdAt nulo)
+    void writeBefore(Instant createdAt, UUID transactionId, Writer writer, Format format) {
+      while (next != null && (createdAt == null || comesBefore(createdAt, transactionId))) {
+        write(writer, next.transactionId(), next.type(), next.category(), next.amount(), next.description(), next.createdAt(), format);
+        operation.addRows(1);
+        next = items.hasNext() ? items.next() : null;
+      }
+    }
+
+    // No mesmo instante desempata pelo id, como o ORDER BY; um saldo do dia (sem id) vem antes dos arquivados
+    private boolean comesBefore(Instant createdAt, UUID transactionId) {
+      int byDate = next.createdAt().compareTo(createdAt);
+      if (byDate != 0 || transactionId == null) {
+        return byDate > 0;
+      }
+      StatementItemResponse row = new StatementItemResponse(transactionId, null, null, null, null, createdAt);
+      return TransactionArchive.NEWEST_FIRST.compare(next, row) < 0;
+    }
+  }
+
+  private static void write(Writer writer, UUID id, String type, String category, BigDecimal amount, String description,
+                            Instant created, Format format) {
+    String createdAt = created.toString();
+    try {
+      if (format == Format.CSV) {
+        writer.write(String.valueOf(id));
+        writer.write(',');
+        writer.write(csv(type));
+        writer.write(',');
+        writer.write(csv(category));
+        writer.write(',');
+        writer.write(amount.toPlainString());
+        writer.write(',');
+        writer.write(csv(description));
+        writer.write(',');
+        writer.write(createdAt);
+        writer.write('\n');
+      } else {
+        writer.write("{\"transactionId\":\"");
+        writer.write(String.valueOf(id));
+        writer.write("\",\"type\":");
+        writer.write(json(type));
+        writer.write(",\"category\":");
+        writer.write(json(category));
+        writer.write(",\"amount\":");
+        writer.write(amount.toPlainString());
+        writer.write(",\"description\":");
+        writer.write(json(description));
+        writer.write(",\"createdAt\":\"");
+        writer.write(createdAt);
+        writer.write("\"}\n");
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+
+  static String json(String value) {
+    if (value == null) {
+      return "null";
+    }
+    StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+        }
+      }
+    }
+    return sb.append('"').toString();
+  }
+}
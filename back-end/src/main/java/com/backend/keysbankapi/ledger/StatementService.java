@@ -1,91 +1,329 @@
 package com.backend.keysbankapi.ledger;
 
-import com.backend.keysbankapi.account.AccountRepository;
+import com.backend.keysbankapi.account.AccountDirectory;
+import com.backend.keysbankapi.archive.TransactionArchive;
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.diagnostics.LedgerOperation;
+import com.backend.keysbankapi.diagnostics.LedgerOperation.Kind;
+import com.backend.keysbankapi.ledger.dto.MonthlySummaryResponse;
 import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import com.backend.keysbankapi.ledger.dto.StatementPageResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Leituras do extrato. Roda em transação somente leitura: o Hibernate não faz flush nem guarda
+ * snapshots para dirty checking, e os lançamentos já chegam projetados em {@link StatementItemResponse}.
+ *
+ * <p>Meses arquivados ({@link TransactionArchive}) não estão mais em transactions: os lançamentos
+ * deles vêm dos segmentos e são intercalados com os do banco na ordem do extrato.
+ *
+ * <p>Cada consulta de extrato vira uma operação no {@link LedgerFlightRecorder}, com a variante de
+ * consulta escolhida e o número de itens devolvidos.
+ */
 @Service
+@Transactional(readOnly = true)
 public class StatementService {
 
+  static final int MAX_PAGE_SIZE = 500;
+  // Período aberto para extratos sem filtro de data (ver TransactionRepository.findStatementItems)
+  static final Instant OPEN_START = Instant.EPOCH;
+  static final Instant OPEN_END = Instant.parse("9999-12-31T00:00:00Z");
+
   private final TransactionRepository transactionRepository;
-  private final AccountRepository accountRepository;
+  private final DailyBalanceRepository dailyBalanceRepository;
+  private final AccountDirectory accountDirectory;
+  private final TransactionArchive archive;
+  private final LedgerFlightRecorder flightRecorder;
 
   public StatementService(
       TransactionRepository transactionRepository,
-      AccountRepository accountRepository
+      DailyBalanceRepository dailyBalanceRepository,
+      AccountDirectory accountDirectory,
+      TransactionArchive archive,
+      LedgerFlightRecorder flightRecorder
   ) {
     this.transactionRepository = transactionRepository;
-    this.accountRepository = accountRepository;
+    this.dailyBalanceRepository = dailyBalanceRepository;
+    this.accountDirectory = accountDirectory;
+    this.archive = archive;
+    this.flightRecorder = flightRecorder;
   }
 
   public List<StatementItemResponse> getStatement(UUID accountId) {
+    LedgerOperation operation = flightRecorder.start(Kind.STATEMENT_QUERY, accountId).variant("full");
+    try {
+      List<StatementItemResponse> items = statement(accountId);
+      operation.addRows(items.size());
+      return items;
+    } finally {
+      operation.end();
+    }
+  }
+
+  public List<StatementItemResponse> getStatementFiltered(UUID accountId, LocalDate startDate, LocalDate endDate, String type) {
+    LedgerOperation operation = flightRecorder.start(Kind.STATEMENT_QUERY, accountId);
+    try {
+      List<StatementItemResponse> items = statementFiltered(accountId, startDate, endDate, type, operation);
+      operation.addRows(items.size());
+      return items;
+    } finally {
+      operation.end();
+    }
+  }
+
+  /**
+   * Extrato paginado por cursor. Sem filtro de tipo a página traz os lançamentos (CREDIT/DEBIT);
+   * com type=BALANCE pagina os saldos diários. O custo de cada página não depende da posição.
+   */
+  public StatementPageResponse getStatementPage(UUID accountId, LocalDate startDate, LocalDate endDate, String type, String cursor, int limit) {
+    LedgerOperation operation = flightRecorder.start(Kind.STATEMENT_QUERY, accountId);
+    try {
+      StatementPageResponse page = statementPage(accountId, startDate, endDate, type, cursor, limit, operation);
+      operation.addRows(page.items().size());
+      return page;
+    } finally {
+      operation.end();
+    }
+  }
 
-    if (!accountRepository.existsById(accountId)) {
+  private List<StatementItemResponse> statement(UUID accountId) {
+
+    if (!accountDirectory.exists(accountId)) {
       throw new IllegalArgumentException("Conta não encontrada");
     }
 
-    return transactionRepository
-        .findByAccountIdOrderByCreatedAtDesc(accountId)
-        .stream()
-        .map(tx -> new StatementItemResponse(
-            tx.getId(),
-            tx.getType(),
-            tx.getCategory(),
-            tx.getAmount(),
-            tx.getDescription(),
-            tx.getCreatedAt()
-        ))
-        .toList();
+    return merge(
+        withArchived(accountId, null, OPEN_START, OPEN_END,
+            transactionRepository.findStatementItems(accountId, null, OPEN_START, OPEN_END)),
+        toBalanceItems(dailyBalanceRepository.findByAccountIdOrderByDayDesc(accountId))
+    );
   }
 
-  public List<StatementItemResponse> getStatementFiltered(UUID accountId, LocalDate startDate, LocalDate endDate, String type) {
+  private List<StatementItemResponse> statementFiltered(UUID accountId, LocalDate startDate, LocalDate endDate, String type,
+                                                        LedgerOperation operation) {
 
-    if (!accountRepository.existsById(accountId)) {
+    if (!accountDirectory.exists(accountId)) {
       throw new IllegalArgumentException("Conta não encontrada");
     }
 
+    boolean hasDateRange = startDate != null && endDate != null;
+
+    // Saldos diários vêm da tabela própria
+    if ("BALANCE".equals(type)) {
+      operation.variant(hasDateRange ? "balance-range" : "balance-all");
+      List<DailyBalance> balances = hasDateRange
+          ? dailyBalanceRepository.findByAccountIdAndDayRangeOrderByDayDesc(accountId, startDate, endDate)
+          : dailyBalanceRepository.findByAccountIdOrderByDayDesc(accountId);
+      return toBalanceItems(balances);
+    }
+
     // Converter LocalDate para Instant
-    Instant startInstant = null;
-    Instant endInstant = null;
+    Instant startInstant = OPEN_START;
+    Instant endInstant = OPEN_END;
 
-    if (startDate != null && endDate != null) {
+    if (hasDateRange) {
       startInstant = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
       endInstant = endDate.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant();
     }
 
-    List<Transaction> transactions;
+    List<StatementItemResponse> transactions = withArchived(accountId, type, startInstant, endInstant,
+        transactionRepository.findStatementItems(accountId, type, startInstant, endInstant));
+
+    if (type != null) {
+      operation.variant(hasDateRange ? "type-range" : "type-all");
+      return transactions;
+    }
+    operation.variant(hasDateRange ? "range-with-balances" : "all-with-balances");
+
+    // Sem filtro de tipo o extrato continua trazendo os saldos diários junto com as transações
+    List<DailyBalance> balances = hasDateRange
+        ? dailyBalanceRepository.findByAccountIdAndDayRangeOrderByDayDesc(accountId, startDate, endDate)
+        : dailyBalanceRepository.findByAccountIdOrderByDayDesc(accountId);
+    return merge(transactions, toBalanceItems(balances));
+  }
+
+  private StatementPageResponse statementPage(UUID accountId, LocalDate startDate, LocalDate endDate, String type, String cursor, int limit,
+                                              LedgerOperation operation) {
+
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_PAGE_SIZE);
+    }
+
+    if (!accountDirectory.exists(accountId)) {
+      throw new IllegalArgumentException("Conta não encontrada");
+    }
+
+    boolean hasDateRange = startDate != null && endDate != null;
+    StatementCursor after = cursor != null ? StatementCursor.decode(cursor) : null;
+    // Busca um item a mais para saber se existe próxima página
+    Limit fetch = Limit.of(limit + 1);
+
+    if ("BALANCE".equals(type)) {
+      operation.variant("page-balance");
+      if (after != null && !after.isBalance()) {
+        throw new IllegalArgumentException("Cursor inválido");
+      }
+      LocalDate startDay = hasDateRange ? startDate : null;
+      LocalDate endDay = hasDateRange ? endDate : null;
+      List<DailyBalance> balances = after == null
+          ? dailyBalanceRepository.findPage(accountId, startDay, endDay, fetch)
+          : dailyBalanceRepository.findPageAfter(accountId, startDay, endDay, after.day(), fetch);
+
+      List<DailyBalance> page = balances.size() > limit ? balances.subList(0, limit) : balances;
+      String nextCursor = balances.size() > limit ? StatementCursor.ofBalance(page.get(limit - 1)).encode() : null;
+      return new StatementPageResponse(toBalanceItems(page), nextCursor);
+    }
+
+    if (after != null && after.isBalance()) {
+      throw new IllegalArgumentException("Cursor inválido");
+    }
+    Instant startInstant = hasDateRange ? startDate.atStartOfDay(ZoneId.systemDefault()).toInstant() : OPEN_START;
+    Instant endInstant = hasDateRange ? endDate.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant() : OPEN_END;
+    List<StatementItemResponse> transactions = after == null
+        ? transactionRepository.findStatementPage(accountId, type, startInstant, endInstant, fetch)
+        : transactionRepository.findStatementPageAfter(accountId, type, startInstant, endInstant, after.createdAt(), after.id(), fetch);
+
+    operation.variant("page");
+    if (archive.hasMonths() && !pageBeforeArchive(transactions, limit)) {
+      operation.variant("page-archive");
+      List<StatementItemResponse> archived = archive.read(accountId, type, startInstant, endInstant,
+          after != null ? after.createdAt() : null, after != null ? after.id() : null, limit + 1);
+      transactions = mergeArchived(transactions, archived);
+      if (transactions.size() > limit + 1) {
+        transactions = transactions.subList(0, limit + 1);
+      }
+    }
+
+    List<StatementItemResponse> page = transactions.size() > limit ? transactions.subList(0, limit) : transactions;
+    String nextCursor = transactions.size() > limit ? StatementCursor.ofItem(page.get(limit - 1)).encode() : null;
+    return new StatementPageResponse(page, nextCursor);
+  }
+
+  /**
+   * Resumo do mês calculado no banco: totais de crédito e débito, quantidade de lançamentos e saldo
+   * ao final do mês, sem trazer os lançamentos para a aplicação.
+   */
+  public MonthlySummaryResponse getMonthlySummary(UUID accountId, YearMonth month) {
+
+    if (!accountDirectory.exists(accountId)) {
+      throw new IllegalArgumentException("Conta não encontrada");
+    }
+
+    ZoneId zone = ZoneId.systemDefault();
+    Instant start = month.atDay(1).atStartOfDay(zone).toInstant();
+    Instant end = month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant();
+    MonthlyTotals totals = transactionRepository.summarizeMonth(accountId, start, end, month.atEndOfMonth());
+    BigDecimal credit = orZero(totals.creditTotal());
+    BigDecimal debit = orZero(totals.debitTotal());
+    long count = totals.transactionCount() != null ? totals.transactionCount() : 0L;
 
-    // Aplicar filtros
-    if (startInstant != null && type != null) {
-      // Ambos filtros
-      transactions = transactionRepository.findByAccountIdAndTypeAndDateRangeOrderByCreatedAtDesc(accountId, type, startInstant, endInstant);
-    } else if (startInstant != null) {
-      // Apenas filtro de data
-      transactions = transactionRepository.findByAccountIdAndDateRangeOrderByCreatedAtDesc(accountId, startInstant, endInstant);
-    } else if (type != null) {
-      // Apenas filtro de tipo
-      transactions = transactionRepository.findByAccountIdAndTypeOrderByCreatedAtDesc(accountId, type);
-    } else {
-      // Sem filtros
-      transactions = transactionRepository.findByAccountIdOrderByCreatedAtDesc(accountId);
+    // Mês arquivado: os lançamentos estão no segmento; o saldo de fechamento não depende deles (saldo corrente e saldos diários)
+    if (archive.contains(month)) {
+      for (StatementItemResponse item : archive.readMonth(accountId, month)) {
+        if ("CREDIT".equals(item.type())) {
+          credit = credit.add(item.amount());
+        } else if ("DEBIT".equals(item.type())) {
+          debit = debit.add(item.amount());
+        }
+        count++;
+      }
     }
 
-    return transactions
+    return new MonthlySummaryResponse(
+        accountId,
+        month.toString(),
+        credit,
+        debit,
+        count,
+        orZero(totals.closingBalance())
+    );
+  }
+
+  private static BigDecimal orZero(BigDecimal value) {
+    return value != null ? value : BigDecimal.ZERO;
+  }
+
+  private static List<StatementItemResponse> toBalanceItems(List<DailyBalance> balances) {
+    return balances
         .stream()
-        .map(tx -> new StatementItemResponse(
-            tx.getId(),
-            tx.getType(),
-            tx.getCategory(),
-            tx.getAmount(),
-            tx.getDescription(),
-            tx.getCreatedAt()
+        .map(b -> new StatementItemResponse(
+            balanceItemId(b.getId()),
+            "BALANCE",
+            "DAILY_BALANCE",
+            b.getBalance(),
+            "Saldo do dia",
+            b.getUpdatedAt()
         ))
         .toList();
   }
-}
\ No newline at end of file
+
+  // Id estável para o item de saldo, derivado de conta + dia
+  static UUID balanceItemId(DailyBalanceId id) {
+    return UUID.nameUUIDFromBytes((id.getAccountId() + ":" + id.getDay()).getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Página do banco cheia e mais nova que o mês arquivado mais recente: o arquivo não tem o que acrescentar
+  private boolean pageBeforeArchive(List<StatementItemResponse> transactions, int limit) {
+    return transactions.size() > limit && !transactions.get(limit).createdAt().isBefore(archive.newestEnd());
+  }
+
+  private List<StatementItemResponse> withArchived(
+      UUID accountId, String type, Instant start, Instant end, List<StatementItemResponse> transactions) {
+    if (!archive.hasMonths()) {
+      return transactions;
+    }
+    return mergeArchived(transactions, archive.read(accountId, type, start, end, null, null, Integer.MAX_VALUE));
+  }
+
+  // Intercala lançamentos do banco e do arquivo, ambos já na ordem do extrato
+  private static List<StatementItemResponse> mergeArchived(List<StatementItemResponse> transactions, List<StatementItemResponse> archived) {
+    if (archived.isEmpty()) {
+      return transactions;
+    }
+    List<StatementItemResponse> merged = new ArrayList<>(transactions.size() + archived.size());
+    int i = 0;
+    int j = 0;
+    while (i < transactions.size() && j < archived.size()) {
+      if (TransactionArchive.NEWEST_FIRST.compare(transactions.get(i), archived.get(j)) <= 0) {
+        merged.add(transactions.get(i++));
+      } else {
+        merged.add(archived.get(j++));
+      }
+    }
+    merged.addAll(transactions.subList(i, transactions.size()));
+    merged.addAll(archived.subList(j, archived.size()));
+    return merged;
+  }
+
+  // Intercala duas listas já ordenadas por data decrescente
+  private static List<StatementItemResponse> merge(List<StatementItemResponse> transactions, List<StatementItemResponse> balances) {
+    if (balances.isEmpty()) {
+      return transactions;
+    }
+    List<StatementItemResponse> merged = new ArrayList<>(transactions.size() + balances.size());
+    int i = 0;
+    int j = 0;
+    while (i < transactions.size() && j < balances.size()) {
+      if (balances.get(j).createdAt().isBefore(transactions.get(i).createdAt())) {
+        merged.add(transactions.get(i++));
+      } else {
+        merged.add(balances.get(j++));
+      }
+    }
+    merged.addAll(transactions.subList(i, transactions.size()));
+    merged.addAll(balances.subList(j, balances.size()));
+    return merged;
+  }
+}
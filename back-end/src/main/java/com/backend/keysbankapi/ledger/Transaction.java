@@ -1,5 +1,6 @@
 package com.backend.keysbankapi.ledger;
 
+import com.backend.keysbankapi.common.UuidV7;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -33,7 +34,7 @@ public class Transaction {
 
   @PrePersist
   void prePersist() {
-    if (id == null) id = UUID.randomUUID();
+    if (id == null) id = UuidV7.next();
     if (createdAt == null) createdAt = Instant.now();
   }
 
@@ -52,4 +53,5 @@ public class Transaction {
   public UUID getCorrelationId() { return correlationId; }
   public void setCorrelationId(UUID correlationId) { this.correlationId = correlationId; }
   public Instant getCreatedAt() { return createdAt; }
+  public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
@@ -0,0 +1,304 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.account.AccountDirectory;
+import com.backend.keysbankapi.common.UuidV7;
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.diagnostics.LedgerOperation;
+import com.backend.keysbankapi.diagnostics.LedgerOperation.Kind;
+import com.backend.keysbankapi.ledger.dto.BatchItemResult;
+import com.backend.keysbankapi.ledger.dto.BatchTransactionResponse;
+import com.backend.keysbankapi.ledger.dto.TransactionCreatedRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Ingestão de lotes de transações. Valida as contas com uma única consulta, insere os lançamentos
+ * com batch JDBC e atualiza saldo corrente, saldo diário e rollup de relatórios uma vez por conta/dia do lote.
+ *
+ * Com Idempotency-Key, cada item ganha a chave derivada da chave do lote e da sua posição: no retry,
+ * os itens já lançados devolvem o lançamento original e só os que faltaram (recusados antes) entram.
+ */
+@Service
+public class TransactionBatchService {
+
+  private static final String INSERT_TRANSACTION =
+      "INSERT INTO transactions (id, account_id, type, category, amount, description, correlation_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String INSERT_IDEMPOTENCY_KEY =
+      "INSERT INTO transaction_idempotency_keys (correlation_id, transaction_id, created_at) VALUES (?, ?, ?)";
+  // Um líquido negativo só é aplicado se o saldo (com as parcelas de conta quente) não ficar negativo;
+  // um líquido de crédito entra sempre, mesmo em conta já negativa, como o CREDIT avulso. As parcelas
+  // são travadas antes da conta, como no lançamento avulso (TransactionRepositoryImpl.POST)
+  private static final String UPDATE_ACCOUNT_BALANCE = """
+      UPDATE accounts SET balance = balance + ?, ledger_version = ledger_version + 1
+      WHERE id = ?
+        AND (NOT CAST(? AS boolean)
+             OR balance + COALESCE((SELECT SUM(p.balance) FROM (
+                  SELECT s.balance FROM account_balance_shards s WHERE s.account_id = accounts.id FOR SHARE
+                ) p), 0) + ? >= 0)
+      """;
+  private static final String UPDATE_DAILY_BALANCE =
+      "UPDATE account_daily_balances SET balance = balance + ?, updated_at = ? WHERE account_id = ? AND day = ?";
+  private static final String UPSERT_ROLLUP = """
+      INSERT INTO ledger_daily_rollups (account_id, day, category, type, shard, total, tx_count)
+      VALUES (?, ?, ?, ?, 0, ?, ?)
+      ON CONFLICT (account_id, day, category, type, shard)
+      DO UPDATE SET total = ledger_daily_rollups.total + EXCLUDED.total, tx_count = ledger_daily_rollups.tx_count + EXCLUDED.tx_count
+      """;
+
+  private final AccountDirectory accountDirectory;
+  private final DailyBalanceRepository dailyBalanceRepository;
+  private final TransactionRepository transactionRepository;
+  private final Validator validator;
+  private final JdbcTemplate jdbcTemplate;
+  private final LedgerFlightRecorder flightRecorder;
+  private final TransactionTemplate transactionTemplate;
+
+  public TransactionBatchService(
+      AccountDirectory accountDirectory,
+      DailyBalanceRepository dailyBalanceRepository,
+      TransactionRepository transactionRepository,
+      Validator validator,
+      JdbcTemplate jdbcTemplate,
+      LedgerFlightRecorder flightRecorder,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.accountDirectory = accountDirectory;
+    this.dailyBalanceRepository = dailyBalanceRepository;
+    this.transactionRepository = transactionRepository;
+    this.validator = validator;
+    this.jdbcTemplate = jdbcTemplate;
+    this.flightRecorder = flightRecorder;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  private record DayKey(UUID accountId, LocalDate day) implements Comparable<DayKey> {
+    @Override
+    public int compareTo(DayKey other) {
+      int byAccount = accountId.compareTo(other.accountId);
+      return byAccount != 0 ? byAccount : day.compareTo(other.day);
+    }
+  }
+
+  private record RollupKey(UUID accountId, LocalDate day, String category, String type) implements Comparable<RollupKey> {
+    @Override
+    public int compareTo(RollupKey other) {
+      int byDay = new DayKey(accountId, day).compareTo(new DayKey(other.accountId, other.day));
+      if (byDay != 0) {
+        return byDay;
+      }
+      int byCategory = category.compareTo(other.category);
+      return byCategory != 0 ? byCategory : type.compareTo(other.type);
+    }
+  }
+
+  private record RollupDelta(BigDecimal total, long count) {
+    RollupDelta plus(RollupDelta other) {
+      return new RollupDelta(total.add(other.total), count + other.count);
+    }
+  }
+
+  public BatchTransactionResponse createBatch(List<TransactionCreatedRequest> items, UUID idempotencyKey) {
+    // Evento JFR e buffer de operações lentas, como no lançamento avulso; a medição inclui o commit
+    LedgerOperation operation = flightRecorder.start(Kind.BATCH_POSTING, null).addRows(items.size());
+    try {
+      return transactionTemplate.execute(status -> post(items, idempotencyKey, operation));
+    } finally {
+      operation.end();
+    }
+  }
+
+  private BatchTransactionResponse post(List<TransactionCreatedRequest> items, UUID idempotencyKey, LedgerOperation operation) {
+
+    BatchItemResult[] results = new BatchItemResult[items.size()];
+
+    // Validação individual: um item inválido não derruba o lote
+    Set<UUID> requestedAccounts = new HashSet<>();
+    for (int i = 0; i < items.size(); i++) {
+      TransactionCreatedRequest item = items.get(i);
+      if (item == null) {
+        results[i] = BatchItemResult.rejected(i, "Item vazio");
+        continue;
+      }
+      Set<ConstraintViolation<TransactionCreatedRequest>> violations = validator.validate(item);
+      if (!violations.isEmpty()) {
+        ConstraintViolation<TransactionCreatedRequest> first = violations.iterator().next();
+        results[i] = BatchItemResult.rejected(i, first.getPropertyPath() + ": " + first.getMessage());
+        continue;
+      }
+      requestedAccounts.add(item.accountId());
+    }
+
+    // Contas do lote pelo cadastro em memória; as que não estão em cache vão ao banco em uma única consulta
+    Set<UUID> existingAccounts = requestedAccounts.isEmpty()
+        ? Set.of()
+        : accountDirectory.findExisting(requestedAccounts);
+
+    for (int i = 0; i < items.size(); i++) {
+      if (results[i] == null && !existingAccounts.contains(items.get(i).accountId())) {
+        results[i] = BatchItemResult.rejected(i, "Conta não encontrada");
+      }
+    }
+
+    UUID[] itemKeys = new UUID[items.size()];
+    if (idempotencyKey != null) {
+      replayPosted(items, idempotencyKey, itemKeys, results);
+    }
+
+    // Ordenados por conta para que lotes concorrentes travem as linhas de accounts sempre na mesma ordem
+    Map<UUID, BigDecimal> accountDeltas = new TreeMap<>();
+    for (int i = 0; i < items.size(); i++) {
+      if (results[i] != null) {
+        continue;
+      }
+      TransactionCreatedRequest item = items.get(i);
+      accountDeltas.merge(item.accountId(), TransactionService.signedAmount(item.type(), item.amount()), BigDecimal::add);
+    }
+
+    // Débito condicional por conta: se o líquido do lote deixaria a conta negativa, todos os itens dela são recusados
+    Set<UUID> underfunded = new HashSet<>();
+    if (!accountDeltas.isEmpty()) {
+      List<UUID> accounts = new ArrayList<>(accountDeltas.keySet());
+      int[] updated = jdbcTemplate.batchUpdate(UPDATE_ACCOUNT_BALANCE, accounts.stream()
+          .map(id -> new Object[] { accountDeltas.get(id), id, accountDeltas.get(id).signum() < 0, accountDeltas.get(id) })
+          .toList());
+      for (int i = 0; i < accounts.size(); i++) {
+        if (updated[i] == 0) {
+          underfunded.add(accounts.get(i));
+        }
+      }
+    }
+
+    List<Object[]> inserts = new ArrayList<>();
+    List<Object[]> keys = new ArrayList<>();
+    Map<DayKey, BigDecimal> dayDeltas = new TreeMap<>();
+    Map<RollupKey, RollupDelta> rollupDeltas = new TreeMap<>();
+
+    for (int i = 0; i < items.size(); i++) {
+      if (results[i] != null) {
+        continue;
+      }
+      TransactionCreatedRequest item = items.get(i);
+      if (underfunded.contains(item.accountId())) {
+        results[i] = BatchItemResult.rejected(i, "Saldo insuficiente");
+        continue;
+      }
+
+      UUID id = UuidV7.next();
+      Instant createdAt = Instant.now();
+      inserts.add(new Object[] {
+          id, item.accountId(), item.type(), item.category(), item.amount(), item.description(), itemKeys[i], Timestamp.from(createdAt)
+      });
+      if (itemKeys[i] != null) {
+        keys.add(new Object[] { itemKeys[i], id, Timestamp.from(createdAt) });
+      }
+      results[i] = BatchItemResult.created(i, id, createdAt);
+
+      BigDecimal delta = TransactionService.signedAmount(item.type(), item.amount());
+      LocalDate day = createdAt.atZone(ZoneId.systemDefault()).toLocalDate();
+      dayDeltas.merge(new DayKey(item.accountId(), day), delta, BigDecimal::add);
+      rollupDeltas.merge(new RollupKey(item.accountId(), day, item.category(), item.type()),
+          new RollupDelta(item.amount(), 1), RollupDelta::plus);
+    }
+
+    if (!inserts.isEmpty()) {
+      if (!keys.isEmpty()) {
+        claimKeys(keys, operation);
+      }
+      jdbcTemplate.batchUpdate(INSERT_TRANSACTION, inserts);
+      updateDailyBalances(dayDeltas);
+      updateRollups(rollupDeltas);
+    }
+
+    int created = (int) Arrays.stream(results).filter(r -> "CREATED".equals(r.status())).count();
+    operation.variant(created == results.length ? "created" : created == 0 ? "rejected" : "partial");
+    return new BatchTransactionResponse(created, results.length - created, Arrays.asList(results));
+  }
+
+  // Chave de cada item: derivada da chave do lote e da posição, estável entre retries do mesmo lote
+  static UUID itemKey(UUID idempotencyKey, int index) {
+    return UUID.nameUUIDFromBytes((idempotencyKey + ":" + index).getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Itens já lançados por uma tentativa anterior do lote: uma consulta pelas chaves, e o original
+  // precisa ter a mesma conta, tipo e valor (senão a chave foi reaproveitada em outro lote, 409)
+  private void replayPosted(List<TransactionCreatedRequest> items, UUID idempotencyKey, UUID[] itemKeys, BatchItemResult[] results) {
+    Map<UUID, Integer> pending = new HashMap<>();
+    for (int i = 0; i < items.size(); i++) {
+      if (results[i] == null) {
+        itemKeys[i] = itemKey(idempotencyKey, i);
+        pending.put(itemKeys[i], i);
+      }
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+    for (Transaction original : transactionRepository.findByCorrelationIdIn(pending.keySet())) {
+      int i = pending.get(original.getCorrelationId());
+      TransactionCreatedRequest item = items.get(i);
+      TransactionService.replay(original, item.accountId(), item.type(), item.amount());
+      results[i] = BatchItemResult.created(i, original.getId(), original.getCreatedAt());
+    }
+  }
+
+  // As chaves entram antes dos lançamentos: um retry simultâneo do mesmo lote bate na chave primária,
+  // a transação inteira volta e o cliente recebe 409 em vez de ver os itens lançados duas vezes
+  private void claimKeys(List<Object[]> keys, LedgerOperation operation) {
+    try {
+      jdbcTemplate.batchUpdate(INSERT_IDEMPOTENCY_KEY, keys);
+    } catch (DuplicateKeyException e) {
+      operation.variant("conflict");
+      throw new IdempotencyKeyConflictException("Lote com esta Idempotency-Key já está em processamento");
+    }
+  }
+
+  private void updateDailyBalances(Map<DayKey, BigDecimal> dayDeltas) {
+    Timestamp now = Timestamp.from(Instant.now());
+    List<DayKey> keys = new ArrayList<>(dayDeltas.keySet());
+    int[] updated = jdbcTemplate.batchUpdate(UPDATE_DAILY_BALANCE, keys.stream()
+        .map(k -> new Object[] { dayDeltas.get(k), now, k.accountId(), Date.valueOf(k.day()) })
+        .toList());
+
+    // Primeiro lançamento do dia para a conta: semeia com a soma das transações do dia (já incluindo as do lote)
+    for (int i = 0; i < keys.size(); i++) {
+      if (updated[i] > 0) {
+        continue;
+      }
+      DayKey key = keys.get(i);
+      Instant startOfDay = key.day().atStartOfDay(ZoneId.systemDefault()).toInstant();
+      BigDecimal balance = dailyBalanceRepository.seedBalance(key.accountId(), key.day(), startOfDay).balance();
+      dailyBalanceRepository.upsertBalance(key.accountId(), key.day(), balance != null ? balance : BigDecimal.ZERO, dayDeltas.get(key), now.toInstant());
+    }
+  }
+
+  // Uma linha de rollup por conta/dia/categoria/tipo do lote, em ordem fixa para lotes concorrentes não se travarem
+  private void updateRollups(Map<RollupKey, RollupDelta> rollupDeltas) {
+    jdbcTemplate.batchUpdate(UPSERT_ROLLUP, rollupDeltas.entrySet().stream()
+        .map(e -> new Object[] {
+            e.getKey().accountId(), Date.valueOf(e.getKey().day()), e.getKey().category(), e.getKey().type(),
+            e.getValue().total(), e.getValue().count()
+        })
+        .toList());
+  }
+}
@@ -1,8 +1,11 @@
 package com.backend.keysbankapi.ledger;
 
+import com.backend.keysbankapi.ledger.dto.BatchTransactionRequest;
+import com.backend.keysbankapi.ledger.dto.BatchTransactionResponse;
 import com.backend.keysbankapi.ledger.dto.TransactionCreatedRequest;
 import com.backend.keysbankapi.ledger.dto.TransactionCreatedResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,15 +15,19 @@ import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/transaction")
 @Tag(name = "Transactions", description = "Endpoints para criar e gerenciar transações bancárias")
 public class TransactionController {
 
   private final TransactionService service;
+  private final TransactionBatchService batchService;
 
-  public TransactionController(TransactionService service) {
+  public TransactionController(TransactionService service, TransactionBatchService batchService) {
     this.service = service;
+    this.batchService = batchService;
   }
 
   @PostMapping
@@ -28,7 +35,8 @@ public class TransactionController {
   @Operation(
       summary = "Criar uma nova transação",
       description = "Cria uma nova transação (depósito ou saque) em uma conta. Após criar a transação, o saldo diário é automaticamente recalculado. " +
-          "Os tipos suportados são CREDIT (crédito/depósito) e DEBIT (débito/saque)."
+          "Os tipos suportados são CREDIT (crédito/depósito) e DEBIT (débito/saque). " +
+          "Envie o cabeçalho Idempotency-Key para que retries não lancem a mesma transação duas vezes."
   )
   @ApiResponses(value = {
       @ApiResponse(
@@ -43,13 +51,57 @@ public class TransactionController {
           responseCode = "400",
           description = "Erro na validação: conta não encontrada, dados inválidos ou saldo insuficiente"
       ),
+      @ApiResponse(
+          responseCode = "409",
+          description = "Idempotency-Key já usada em uma transação com outra conta, tipo ou valor"
+      ),
       @ApiResponse(
           responseCode = "500",
           description = "Erro interno do servidor"
       )
   })
-  public TransactionCreatedResponse create(@Valid @RequestBody TransactionCreatedRequest req) {
-    Transaction a = service.createTransaction(req.accountId(), req.type(), req.category(), req.amount(), req.description());
+  public TransactionCreatedResponse create(
+      @Valid @RequestBody TransactionCreatedRequest req,
+      @Parameter(description = "Chave de idempotência (UUID). Um retry com a mesma chave devolve a transação original em vez de lançar de novo")
+      @RequestHeader(value = "Idempotency-Key", required = false) UUID idempotencyKey) {
+    Transaction a = service.createTransaction(req.accountId(), req.type(), req.category(), req.amount(), req.description(), idempotencyKey);
     return new TransactionCreatedResponse(a.getId(), a.getType(), a.getCategory(), a.getAmount(), a.getDescription(), a.getCreatedAt());
  }
-}
\ No newline at end of file
+
+  @PostMapping("/batch")
+  @Operation(
+      summary = "Criar transações em lote",
+      description = "Recebe até 5000 transações em uma única requisição. As contas são validadas com uma única consulta, os lançamentos " +
+          "são inseridos com batch JDBC e o saldo de cada conta/dia afetado é atualizado uma vez por lote. " +
+          "Cada item é validado individualmente e o resultado informa sucesso ou falha por item. " +
+          "Com o cabeçalho Idempotency-Key, o retry do mesmo lote devolve os itens já lançados em vez de lançá-los de novo."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Lote processado; ver o resultado de cada item",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = BatchTransactionResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Lote vazio ou com mais de 5000 itens"
+      ),
+      @ApiResponse(
+          responseCode = "409",
+          description = "Idempotency-Key já usada em um lote com outros itens, ou o mesmo lote ainda em processamento"
+      ),
+      @ApiResponse(
+          responseCode = "500",
+          description = "Erro interno do servidor"
+      )
+  })
+  public BatchTransactionResponse createBatch(
+      @Valid @RequestBody BatchTransactionRequest req,
+      @Parameter(description = "Chave de idempotência do lote (UUID). Um retry com a mesma chave devolve os itens já lançados em vez de lançar de novo")
+      @RequestHeader(value = "Idempotency-Key", required = false) UUID idempotencyKey) {
+    return batchService.createBatch(req.items(), idempotencyKey);
+  }
+}
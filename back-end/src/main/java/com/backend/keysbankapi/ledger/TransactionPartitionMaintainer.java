@@ -0,0 +1,183 @@
+package com.backend.keysbankapi.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Mantém as partições mensais de transactions (V9): cria {@code months-ahead} meses à frente, para
+ * nenhum lançamento cair na partição default, e desanexa os meses mais antigos que
+ * {@code retention-months} (0 desliga). A partição desanexada continua no banco como tabela
+ * comum (transactions_pYYYY_MM), fora das consultas do razão; as chaves de idempotência até o fim
+ * dela são apagadas.
+ *
+ * <p>Se o mês já tem lançamentos na partição default (o job ficou parado e eles caíram na rede de
+ * segurança), o PostgreSQL recusa o CREATE ... PARTITION OF. Nesse caso a default é desanexada, a
+ * partição é criada, os lançamentos do mês são movidos para ela e a default volta, tudo na mesma
+ * transação: enquanto isso os lançamentos esperam a trava de transactions.
+ *
+ * <p>Cada operação roda em transação própria, com lock_timeout curto para não enfileirar o tráfego
+ * atrás do DDL, e sob advisory lock para só uma instância mexer nas partições por vez. O que falhar
+ * é tentado de novo na próxima execução.
+ */
+@Component
+public class TransactionPartitionMaintainer {
+
+  private static final Logger log = LoggerFactory.getLogger(TransactionPartitionMaintainer.class);
+
+  static final String PREFIX = "transactions_p";
+  private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+  private static final String LIST_PARTITIONS = """
+      SELECT c.relname
+      FROM pg_inherits i
+      JOIN pg_class c ON c.oid = i.inhrelid
+      WHERE i.inhparent = 'transactions'::regclass
+      """;
+  private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('transactions_partitions'))";
+  private static final String LOCK_TIMEOUT = "SET LOCAL lock_timeout = '5s'";
+  private static final String CREATE = "CREATE TABLE IF NOT EXISTS %s PARTITION OF transactions FOR VALUES FROM ('%s') TO ('%s')";
+  private static final String DETACH = "ALTER TABLE transactions DETACH PARTITION %s";
+  private static final String DEFAULT_HAS_MONTH = "SELECT EXISTS (SELECT 1 FROM transactions_default WHERE created_at >= ? AND created_at < ?)";
+  private static final String DETACH_DEFAULT = "ALTER TABLE transactions DETACH PARTITION transactions_default";
+  private static final String MOVE_FROM_DEFAULT = "INSERT INTO %s SELECT * FROM transactions_default WHERE created_at >= ? AND created_at < ?";
+  private static final String DELETE_FROM_DEFAULT = "DELETE FROM transactions_default WHERE created_at >= ? AND created_at < ?";
+  private static final String ATTACH_DEFAULT = "ALTER TABLE transactions ATTACH PARTITION transactions_default DEFAULT";
+  private static final String DELETE_KEYS = "DELETE FROM transaction_idempotency_keys WHERE created_at < ?";
+
+  record Plan(List<YearMonth> create, List<YearMonth> detach) {}
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int monthsAhead;
+  private final int retentionMonths;
+
+  public TransactionPartitionMaintainer(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${keysbank.partitions.months-ahead:3}") int monthsAhead,
+      @Value("${keysbank.partitions.retention-months:36}") int retentionMonths
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.monthsAhead = monthsAhead;
+    this.retentionMonths = retentionMonths;
+  }
+
+  /** Meses a criar (do atual até months-ahead) e a desanexar (mais antigos que a retenção, do mais antigo ao mais novo). */
+  static Plan plan(YearMonth current, Set<YearMonth> existing, int monthsAhead, int retentionMonths) {
+    List<YearMonth> create = new ArrayList<>();
+    for (int i = 0; i <= monthsAhead; i++) {
+      YearMonth month = current.plusMonths(i);
+      if (!existing.contains(month)) {
+        create.add(month);
+      }
+    }
+
+    List<YearMonth> detach = new ArrayList<>();
+    if (retentionMonths > 0) {
+      YearMonth oldestKept = current.minusMonths(retentionMonths);
+      for (YearMonth month : new TreeSet<>(existing)) {
+        if (month.isBefore(oldestKept)) {
+          detach.add(month);
+        }
+      }
+    }
+    return new Plan(create, detach);
+  }
+
+  static String partitionName(YearMonth month) {
+    return PREFIX + month.format(SUFFIX);
+  }
+
+  @Scheduled(fixedDelayString = "${keysbank.partitions.check-interval:6h}")
+  public void maintain() {
+    Plan plan = plan(YearMonth.now(), partitions(), monthsAhead, retentionMonths);
+
+    for (YearMonth month : plan.create()) {
+      create(month);
+    }
+
+    for (YearMonth month : plan.detach()) {
+      String name = partitionName(month);
+      boolean detached = runLocked("desanexar " + name, jdbc -> {
+        jdbc.execute(DETACH.formatted(name));
+        jdbc.update(DELETE_KEYS, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+      });
+      if (!detached) {
+        // As chaves de idempotência são apagadas por data: não avança sobre um mês que continua anexado
+        break;
+      }
+      log.info("Partição {} desanexada (retenção de {} meses)", name, retentionMonths);
+    }
+  }
+
+  /** Cria a partição do mês, trazendo da partição default os lançamentos do mês que estiverem lá. */
+  boolean create(YearMonth month) {
+    String name = partitionName(month);
+    Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+    int[] moved = {0};
+    boolean created = runLocked("criar " + name, jdbc -> {
+      String create = CREATE.formatted(name, month.atDay(1), month.plusMonths(1).atDay(1));
+      if (!Boolean.TRUE.equals(jdbc.queryForObject(DEFAULT_HAS_MONTH, Boolean.class, start, end))) {
+        jdbc.execute(create);
+        return;
+      }
+      jdbc.execute(DETACH_DEFAULT);
+      jdbc.execute(create);
+      moved[0] = jdbc.update(MOVE_FROM_DEFAULT.formatted(name), start, end);
+      jdbc.update(DELETE_FROM_DEFAULT, start, end);
+      jdbc.execute(ATTACH_DEFAULT);
+    });
+    if (created && moved[0] > 0) {
+      log.warn("Partição {} criada com {} lançamentos movidos da partição default", name, moved[0]);
+    } else if (created) {
+      log.info("Partição {} criada", name);
+    }
+    return created;
+  }
+
+  private Set<YearMonth> partitions() {
+    Set<YearMonth> months = new TreeSet<>();
+    for (String name : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+      if (name.startsWith(PREFIX)) {
+        months.add(YearMonth.parse(name.substring(PREFIX.length()), SUFFIX));
+      }
+    }
+    return months;
+  }
+
+  private boolean runLocked(String operation, Consumer<JdbcTemplate> ddl) {
+    try {
+      Boolean done = transactionTemplate.execute(status -> {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class))) {
+          return false;
+        }
+        jdbcTemplate.execute(LOCK_TIMEOUT);
+        ddl.accept(jdbcTemplate);
+        return true;
+      });
+      return Boolean.TRUE.equals(done);
+    } catch (DataAccessException | TransactionException e) {
+      log.warn("Partições: não foi possível {} agora, nova tentativa na próxima execução", operation, e);
+      return false;
+    }
+  }
+}
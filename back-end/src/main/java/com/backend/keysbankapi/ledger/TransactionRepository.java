@@ -1,30 +1,50 @@
 package com.backend.keysbankapi.ledger;
 
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>, TransactionRepositoryCustom {
+
+  // Pela tabela de chaves: o (id, created_at) guardado lá leva a uma única partição de transactions
+  @Query(value = """
+      SELECT t.* FROM transaction_idempotency_keys k
+      JOIN transactions t ON t.id = k.transaction_id AND t.created_at = k.created_at
+      WHERE k.correlation_id = :correlationId
+      """, nativeQuery = true)
+  Optional<Transaction> findByCorrelationId(@Param("correlationId") UUID correlationId);
+
+  @Query(value = """
+      SELECT t.* FROM transaction_idempotency_keys k
+      JOIN transactions t ON t.id = k.transaction_id AND t.created_at = k.created_at
+      WHERE k.correlation_id IN (:correlationIds)
+      """, nativeQuery = true)
+  List<Transaction> findByCorrelationIdIn(@Param("correlationIds") Collection<UUID> correlationIds);
 
   List<Transaction> findByAccountIdOrderByCreatedAtDesc(UUID accountId);
 
   @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId ORDER BY t.createdAt DESC")
   List<Transaction> findByAccountIdOrderByCreatedAtDesc(@Param("accountId") UUID accountId, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 
-  @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.type = :type ORDER BY t.createdAt DESC")
-  List<Transaction> findByAccountIdAndTypeOrderByCreatedAtDesc(@Param("accountId") UUID accountId, @Param("type") String type);
-
-  @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.createdAt >= :startDate AND t.createdAt <= :endDate ORDER BY t.createdAt DESC")
-  List<Transaction> findByAccountIdAndDateRangeOrderByCreatedAtDesc(@Param("accountId") UUID accountId, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+  // Leituras do extrato: projetam direto no DTO, sem montar entidades gerenciadas no contexto de persistência.
+  // O período é sempre informado (aberto quando o cliente não filtra): com limites sem "IS NULL OR" o
+  // PostgreSQL poda as partições mensais também em planos genéricos de prepared statement
+  @Query("SELECT new com.backend.keysbankapi.ledger.dto.StatementItemResponse(t.id, t.type, t.category, t.amount, t.description, t.createdAt) FROM Transaction t WHERE t.accountId = :accountId AND (:type IS NULL OR t.type = :type) AND t.createdAt >= :startDate AND t.createdAt <= :endDate ORDER BY t.createdAt DESC, t.id DESC")
+  List<StatementItemResponse> findStatementItems(@Param("accountId") UUID accountId, @Param("type") String type, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 
-  @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.type = :type AND t.createdAt >= :startDate AND t.createdAt <= :endDate ORDER BY t.createdAt DESC")
-  List<Transaction> findByAccountIdAndTypeAndDateRangeOrderByCreatedAtDesc(@Param("accountId") UUID accountId, @Param("type") String type, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+  // Paginação por cursor (keyset) em (created_at, id): percorre idx_transactions_account_created_at a partir da posição do cursor
+  @Query("SELECT new com.backend.keysbankapi.ledger.dto.StatementItemResponse(t.id, t.type, t.category, t.amount, t.description, t.createdAt) FROM Transaction t WHERE t.accountId = :accountId AND (:type IS NULL OR t.type = :type) AND t.createdAt >= :startDate AND t.createdAt <= :endDate ORDER BY t.createdAt DESC, t.id DESC")
+  List<StatementItemResponse> findStatementPage(@Param("accountId") UUID accountId, @Param("type") String type, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate, Limit limit);
 
-  @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.type = 'BALANCE' AND t.createdAt >= :startDate AND t.createdAt < :endDate ORDER BY t.createdAt DESC")
-  List<Transaction> findBalancesByAccountIdAndDate(@Param("accountId") UUID accountId, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+  @Query("SELECT new com.backend.keysbankapi.ledger.dto.StatementItemResponse(t.id, t.type, t.category, t.amount, t.description, t.createdAt) FROM Transaction t WHERE t.accountId = :accountId AND t.createdAt <= :cursorCreatedAt AND (t.createdAt < :cursorCreatedAt OR t.id < :cursorId) AND (:type IS NULL OR t.type = :type) AND t.createdAt >= :startDate AND t.createdAt <= :endDate ORDER BY t.createdAt DESC, t.id DESC")
+  List<StatementItemResponse> findStatementPageAfter(@Param("accountId") UUID accountId, @Param("type") String type, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate, @Param("cursorCreatedAt") Instant cursorCreatedAt, @Param("cursorId") UUID cursorId, Limit limit);
 
-}
\ No newline at end of file
+}
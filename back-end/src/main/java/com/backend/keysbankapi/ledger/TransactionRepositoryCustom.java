@@ -0,0 +1,35 @@
+package com.backend.keysbankapi.ledger;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface TransactionRepositoryCustom {
+
+  /** Resultado de {@link #post(Transaction)} e {@link #postToShard(Transaction, int)}. */
+  enum PostingOutcome {
+    POSTED,
+    DUPLICATE,
+    INSUFFICIENT_FUNDS,
+    ACCOUNT_NOT_FOUND
+  }
+
+  /**
+   * Atualiza o saldo corrente da conta e insere o lançamento em um único comando. O UPDATE em
+   * accounts vem primeiro e trava a linha da conta até o commit, então lançamentos da mesma conta
+   * ficam em fila enquanto contas diferentes seguem em paralelo. DEBIT só é lançado se houver saldo.
+   */
+  PostingOutcome post(Transaction transaction);
+
+  /**
+   * Crédito em conta quente: soma o valor na parcela de saldo {@code shard} em vez da linha de
+   * accounts, para que créditos concorrentes na mesma conta não fiquem em fila. Só aceita CREDIT.
+   */
+  PostingOutcome postToShard(Transaction transaction, int shard);
+
+  /**
+   * Resumo do mês em um único comando: créditos, débitos e contagem pelo intervalo [startDate, endDate)
+   * e o saldo ao final de {@code lastDay}.
+   */
+  MonthlyTotals summarizeMonth(UUID accountId, Instant startDate, Instant endDate, LocalDate lastDay);
+}
@@ -0,0 +1,223 @@
+package com.backend.keysbankapi.ledger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+  // Lançamento em uma ida ao banco. O UPDATE condicional trava a linha da conta; um lançamento
+  // concorrente na mesma conta espera o commit e reavalia "balance >= valor" sobre o saldo novo.
+  // Só há INSERT se o UPDATE aconteceu e, com chave de idempotência, se a chave foi registrada agora
+  // em transaction_idempotency_keys. As demais colunas explicam por que nada foi lançado.
+  // As parcelas de conta quente entram no teste de saldo travadas (FOR SHARE) antes da linha da conta,
+  // na mesma ordem da devolução das parcelas (HotAccountTracker): se ela estiver em andamento, o
+  // débito espera o commit e vê as parcelas já apagadas junto com o saldo novo da conta, em vez de
+  // contar o mesmo valor duas vezes. Parcelas criadas depois do início do comando ficam de fora, o
+  // que só subestima o disponível. A versão do razão (ETag) sobe na mesma linha travada.
+  private static final String POST = """
+      WITH existing AS (
+        SELECT 1 FROM transaction_idempotency_keys WHERE correlation_id = CAST(? AS uuid)
+      ),
+      locked AS (
+        UPDATE accounts SET balance = balance + CAST(? AS numeric), ledger_version = ledger_version + 1
+        WHERE id = ?
+          AND NOT EXISTS (SELECT 1 FROM existing)
+          AND (NOT CAST(? AS boolean)
+               OR balance + COALESCE((SELECT SUM(p.balance) FROM (
+                    SELECT s.balance FROM account_balance_shards s WHERE s.account_id = accounts.id FOR SHARE
+                  ) p), 0) >= CAST(? AS numeric))
+        RETURNING id
+      ),
+      claimed AS (
+        INSERT INTO transaction_idempotency_keys (correlation_id, transaction_id, created_at)
+        SELECT CAST(? AS uuid), CAST(? AS uuid), CAST(? AS timestamp)
+        FROM locked
+        WHERE CAST(? AS uuid) IS NOT NULL
+        ON CONFLICT (correlation_id) DO NOTHING
+        RETURNING correlation_id
+      ),
+      inserted AS (
+        INSERT INTO transactions (id, account_id, type, category, amount, description, correlation_id, created_at)
+        SELECT CAST(? AS uuid), l.id, ?, ?, CAST(? AS numeric), ?, CAST(? AS uuid), CAST(? AS timestamp)
+        FROM locked l
+        WHERE CAST(? AS uuid) IS NULL OR EXISTS (SELECT 1 FROM claimed)
+        RETURNING id
+      )
+      SELECT (SELECT count(*) FROM inserted) AS inserted,
+             (SELECT count(*) FROM locked) AS updated,
+             EXISTS (SELECT 1 FROM existing) AS duplicate,
+             EXISTS (SELECT 1 FROM accounts WHERE id = ?) AS account_exists
+      """;
+
+  // Crédito em conta quente: soma em uma das parcelas em vez da linha de accounts, que não é travada;
+  // a versão do razão também sobe na parcela
+  private static final String POST_TO_SHARD = """
+      WITH existing AS (
+        SELECT 1 FROM transaction_idempotency_keys WHERE correlation_id = CAST(? AS uuid)
+      ),
+      locked AS (
+        INSERT INTO account_balance_shards (account_id, shard, balance, ledger_version)
+        SELECT a.id, CAST(? AS smallint), CAST(? AS numeric), 1
+        FROM accounts a
+        WHERE a.id = ? AND NOT EXISTS (SELECT 1 FROM existing)
+        ON CONFLICT (account_id, shard) DO UPDATE SET balance = account_balance_shards.balance + EXCLUDED.balance,
+                                                      ledger_version = account_balance_shards.ledger_version + 1
+        RETURNING account_id AS id
+      ),
+      claimed AS (
+        INSERT INTO transaction_idempotency_keys (correlation_id, transaction_id, created_at)
+        SELECT CAST(? AS uuid), CAST(? AS uuid), CAST(? AS timestamp)
+        FROM locked
+        WHERE CAST(? AS uuid) IS NOT NULL
+        ON CONFLICT (correlation_id) DO NOTHING
+        RETURNING correlation_id
+      ),
+      inserted AS (
+        INSERT INTO transactions (id, account_id, type, category, amount, description, correlation_id, created_at)
+        SELECT CAST(? AS uuid), l.id, ?, ?, CAST(? AS numeric), ?, CAST(? AS uuid), CAST(? AS timestamp)
+        FROM locked l
+        WHERE CAST(? AS uuid) IS NULL OR EXISTS (SELECT 1 FROM claimed)
+        RETURNING id
+      )
+      SELECT (SELECT count(*) FROM inserted) AS inserted,
+             (SELECT count(*) FROM locked) AS updated,
+             EXISTS (SELECT 1 FROM existing) AS duplicate,
+             EXISTS (SELECT 1 FROM accounts WHERE id = ?) AS account_exists
+      """;
+
+  private static final String REVERT_BALANCE = "UPDATE accounts SET balance = balance - ? WHERE id = ?";
+  private static final String REVERT_SHARD = "UPDATE account_balance_shards SET balance = balance - ? WHERE account_id = ? AND shard = ?";
+
+  // Totais do mês pelo intervalo em idx_transactions_account_created_at. As linhas de saldo diário guardam
+  // o líquido de cada dia (mais as parcelas do dia em conta quente), então o saldo ao fim do último dia é o
+  // saldo corrente, com as parcelas, menos o líquido dos dias seguintes: para o mês corrente não há dias a
+  // descontar, e um mês antigo lê só os saldos diários posteriores, não o histórico inteiro
+  private static final String SUMMARIZE_MONTH = """
+      SELECT m.credit_total, m.debit_total, m.transaction_count,
+             a.balance
+               + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+               - COALESCE((SELECT SUM(b.balance) FROM account_daily_balances b WHERE b.account_id = a.id AND b.day > ?), 0)
+               - COALESCE((SELECT SUM(d.balance) FROM account_daily_balance_shards d WHERE d.account_id = a.id AND d.day > ?), 0)
+               AS closing_balance
+      FROM (
+        SELECT SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount END) AS credit_total,
+               SUM(CASE WHEN t.type = 'DEBIT' THEN t.amount END) AS debit_total,
+               COUNT(*) AS transaction_count
+        FROM transactions t
+        WHERE t.account_id = ? AND t.created_at >= ? AND t.created_at < ?
+      ) m
+      LEFT JOIN accounts a ON a.id = ?
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  TransactionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  private record PostingRow(boolean inserted, boolean updated, boolean duplicate, boolean accountExists) {}
+
+  @Override
+  public PostingOutcome post(Transaction tx) {
+    BigDecimal delta = TransactionService.signedAmount(tx.getType(), tx.getAmount());
+    boolean requireFunds = "DEBIT".equals(tx.getType());
+
+    PostingRow row = jdbcTemplate.queryForObject(POST, this::mapRow,
+        tx.getCorrelationId(),
+        delta,
+        tx.getAccountId(),
+        requireFunds,
+        tx.getAmount(),
+        tx.getCorrelationId(),
+        tx.getId(),
+        Timestamp.from(tx.getCreatedAt()),
+        tx.getCorrelationId(),
+        tx.getId(),
+        tx.getType(),
+        tx.getCategory(),
+        tx.getAmount(),
+        tx.getDescription(),
+        tx.getCorrelationId(),
+        Timestamp.from(tx.getCreatedAt()),
+        tx.getCorrelationId(),
+        tx.getAccountId());
+
+    if (row.updated() && !row.inserted() && !row.duplicate()) {
+      // A mesma chave foi gravada por outra requisição entre a leitura e o INSERT: desfaz o saldo
+      jdbcTemplate.update(REVERT_BALANCE, delta, tx.getAccountId());
+    }
+    return outcome(row);
+  }
+
+  @Override
+  public PostingOutcome postToShard(Transaction tx, int shard) {
+    if (!"CREDIT".equals(tx.getType())) {
+      throw new IllegalArgumentException("Somente créditos podem ser lançados em parcelas de saldo");
+    }
+
+    PostingRow row = jdbcTemplate.queryForObject(POST_TO_SHARD, this::mapRow,
+        tx.getCorrelationId(),
+        shard,
+        tx.getAmount(),
+        tx.getAccountId(),
+        tx.getCorrelationId(),
+        tx.getId(),
+        Timestamp.from(tx.getCreatedAt()),
+        tx.getCorrelationId(),
+        tx.getId(),
+        tx.getType(),
+        tx.getCategory(),
+        tx.getAmount(),
+        tx.getDescription(),
+        tx.getCorrelationId(),
+        Timestamp.from(tx.getCreatedAt()),
+        tx.getCorrelationId(),
+        tx.getAccountId());
+
+    if (row.updated() && !row.inserted() && !row.duplicate()) {
+      jdbcTemplate.update(REVERT_SHARD, tx.getAmount(), tx.getAccountId(), shard);
+    }
+    return outcome(row);
+  }
+
+  @Override
+  public MonthlyTotals summarizeMonth(UUID accountId, Instant startDate, Instant endDate, LocalDate lastDay) {
+    return jdbcTemplate.queryForObject(SUMMARIZE_MONTH, (rs, rowNum) -> new MonthlyTotals(
+            rs.getBigDecimal("credit_total"),
+            rs.getBigDecimal("debit_total"),
+            rs.getLong("transaction_count"),
+            rs.getBigDecimal("closing_balance")),
+        Date.valueOf(lastDay),
+        Date.valueOf(lastDay),
+        accountId,
+        Timestamp.from(startDate),
+        Timestamp.from(endDate),
+        accountId);
+  }
+
+  private PostingRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+    return new PostingRow(
+        rs.getLong("inserted") == 1,
+        rs.getLong("updated") == 1,
+        rs.getBoolean("duplicate"),
+        rs.getBoolean("account_exists"));
+  }
+
+  private static PostingOutcome outcome(PostingRow row) {
+    if (row.inserted()) {
+      return PostingOutcome.POSTED;
+    }
+    if (row.duplicate() || row.updated()) {
+      return PostingOutcome.DUPLICATE;
+    }
+    return row.accountExists() ? PostingOutcome.INSUFFICIENT_FUNDS : PostingOutcome.ACCOUNT_NOT_FOUND;
+  }
+}
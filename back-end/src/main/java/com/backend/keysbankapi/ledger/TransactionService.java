@@ -1,34 +1,80 @@
 package com.backend.keysbankapi.ledger;
 
-import com.backend.keysbankapi.account.AccountRepository;
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.diagnostics.LedgerOperation;
+import com.backend.keysbankapi.diagnostics.LedgerOperation.Kind;
+import com.backend.keysbankapi.ledger.TransactionRepositoryCustom.PostingOutcome;
+import com.backend.keysbankapi.metrics.LedgerMetrics;
+import com.backend.keysbankapi.metrics.LedgerMetrics.DayBalancePath;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class TransactionService {
 
   private final TransactionRepository transactionRepository;
-  private final AccountRepository accountRepository;
+  private final DailyBalanceRepository dailyBalanceRepository;
+  private final HotAccountTracker hotAccounts;
+  private final LedgerMetrics metrics;
+  private final LedgerFlightRecorder flightRecorder;
+  private final TransactionTemplate transactionTemplate;
+  // Chaves de idempotência recentes: retries comuns (timeout do cliente) são respondidos da memória
+  private final Cache<UUID, Transaction> recentPostings = Caffeine.newBuilder()
+      .maximumSize(100_000)
+      .expireAfterWrite(Duration.ofHours(24))
+      .build();
 
   public TransactionService(
       TransactionRepository transactionRepository,
-      AccountRepository accountRepository
+      DailyBalanceRepository dailyBalanceRepository,
+      HotAccountTracker hotAccounts,
+      LedgerMetrics metrics,
+      LedgerFlightRecorder flightRecorder,
+      PlatformTransactionManager transactionManager
   ) {
     this.transactionRepository = transactionRepository;
-    this.accountRepository = accountRepository;
+    this.dailyBalanceRepository = dailyBalanceRepository;
+    this.hotAccounts = hotAccounts;
+    this.metrics = metrics;
+    this.flightRecorder = flightRecorder;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
-  public Transaction createTransaction(UUID accountId, String type, String category, BigDecimal amount, String description) {
-
-    if (!accountRepository.existsById(accountId)) {
-      throw new IllegalArgumentException("Conta não encontrada");
+  public Transaction createTransaction(UUID accountId, String type, String category, BigDecimal amount, String description, UUID idempotencyKey) {
+    // Evento JFR e buffer de operações lentas; a medição inclui o commit
+    LedgerOperation operation = flightRecorder.start(Kind.POSTING, accountId);
+    try {
+      // Retry recente da mesma requisição: responde da memória, sem abrir transação nem pegar conexão
+      if (idempotencyKey != null) {
+        Transaction recent = recentPostings.getIfPresent(idempotencyKey);
+        if (recent != null) {
+          operation.variant("cached");
+          return replay(recent, accountId, type, amount);
+        }
+      }
+      return transactionTemplate.execute(status ->
+          post(accountId, type, category, amount, description, idempotencyKey, operation));
+    } finally {
+      operation.end();
     }
+  }
+
+  private Transaction post(UUID accountId, String type, String category, BigDecimal amount, String description, UUID idempotencyKey,
+                           LedgerOperation operation) {
 
     // Cria transação
     Transaction transacao = new Transaction();
@@ -37,57 +83,131 @@ public class TransactionService {
     transacao.setCategory(category);
     transacao.setAmount(amount);
     transacao.setDescription(description);
-    Transaction savedTransaction = transactionRepository.save(transacao);
+    transacao.setCorrelationId(idempotencyKey);
+    // id e created_at são gerados aqui, já que o INSERT não passa pelo ciclo de vida do JPA
+    transacao.prePersist();
+
+    // Conta quente: créditos vão para uma das parcelas de saldo, escolhida pelo id do lançamento
+    hotAccounts.recordWrite(accountId);
+    int shards = hotAccounts.shardsFor(accountId);
+    int shard = shards > 1 && "CREDIT".equals(type) ? Math.floorMod(transacao.getId().hashCode(), shards) : -1;
+
+    // Saldo corrente e lançamento em um único comando. No modo normal a linha da conta fica travada
+    // até o commit, então os lançamentos de uma mesma conta (e o saldo do dia abaixo) são serializados pelo banco
+    PostingOutcome outcome = shard >= 0
+        ? transactionRepository.postToShard(transacao, shard)
+        : transactionRepository.post(transacao);
+    if (outcome != PostingOutcome.POSTED) {
+      operation.variant(outcome.name().toLowerCase(Locale.ROOT));
+    }
+    switch (outcome) {
+      case POSTED -> { }
+      case DUPLICATE -> { return replay(original(idempotencyKey), accountId, type, amount); }
+      case INSUFFICIENT_FUNDS -> throw new IllegalArgumentException("Saldo insuficiente");
+      case ACCOUNT_NOT_FOUND -> throw new IllegalArgumentException("Conta não encontrada");
+    }
+
+    // Linha da conta (ou parcela), o lançamento e a chave de idempotência
+    operation.addRows(idempotencyKey != null ? 3 : 2);
 
     // Calcula e atualiza o balance do dia
-    updateDayBalance(accountId, savedTransaction.getCreatedAt());
+    LocalDate day = transacao.getCreatedAt().atZone(ZoneId.systemDefault()).toLocalDate();
+    LedgerOperation recompute = flightRecorder.start(Kind.BALANCE_RECOMPUTE, accountId);
+    try {
+      if (shard >= 0) {
+        long started = System.nanoTime();
+        dailyBalanceRepository.addToShard(accountId, day, shard, transacao.getAmount(), Instant.now());
+        metrics.dayBalanceUpdated(DayBalancePath.SHARD, System.nanoTime() - started, 1);
+        recompute.variant("shard").addRows(1);
+      } else {
+        updateDayBalance(accountId, day, transacao, recompute);
+      }
+    } finally {
+      recompute.end();
+    }
+    operation.variant(recompute.variant()).addRows(recompute.rows());
 
-    return savedTransaction;
+    // Rollup dos relatórios; a conta quente usa a mesma parcela do saldo
+    dailyBalanceRepository.addToRollup(accountId, day, category, type, Math.max(shard, 0), amount);
+    operation.addRows(1);
+
+    if (idempotencyKey != null) {
+      rememberAfterCommit(idempotencyKey, transacao);
+    }
+    return transacao;
   }
 
-  private void updateDayBalance(UUID accountId, Instant transactionDate) {
-    // Obter o início e fim do dia
-    LocalDate today = transactionDate.atZone(ZoneId.systemDefault()).toLocalDate();
-    Instant startOfDay = today.atStartOfDay(ZoneId.systemDefault()).toInstant();
-    Instant endOfDay = today.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant();
-
-    // Buscar todas as transações da conta até o final do dia (incluindo a recém criada)
-    List<Transaction> allTransactions = transactionRepository
-        .findByAccountIdOrderByCreatedAtDesc(accountId);
-
-    // Calcular o saldo total até esse dia
-    BigDecimal balance = BigDecimal.ZERO;
-    for (Transaction tx : allTransactions) {
-      // Parar quando ultrapassar o dia (transações são ordenadas por data desc)
-      if (tx.getCreatedAt().isBefore(startOfDay)) {
-        break;
-      }
-      // Pular transações de balance
-      if ("BALANCE".equals(tx.getType())) {
-        continue;
-      }
-      // Adicionar ou subtrair baseado no tipo
-      if ("CREDIT".equals(tx.getType())) {
-        balance = balance.add(tx.getAmount());
-      } else if ("DEBIT".equals(tx.getType())) {
-        balance = balance.subtract(tx.getAmount());
-      }
+  private Transaction original(UUID idempotencyKey) {
+    Optional<Transaction> original = transactionRepository.findByCorrelationId(idempotencyKey);
+    // A chave existe (o INSERT bateu nela), mas o lançamento não: inconsistência, não erro do cliente
+    if (original.isEmpty()) {
+      throw new IllegalStateException("Idempotency-Key " + idempotencyKey + " registrada sem o lançamento original");
     }
+    recentPostings.put(idempotencyKey, original.get());
+    return original.get();
+  }
+
+  // A chave só vale para a mesma requisição: conta, tipo e valor do lançamento guardado são a impressão
+  // digital. Um cliente que reaproveita a chave em outro lançamento recebe 409, não a transação de outro
+  static Transaction replay(Transaction original, UUID accountId, String type, BigDecimal amount) {
+    if (!original.getAccountId().equals(accountId)
+        || !original.getType().equals(type)
+        || original.getAmount().compareTo(amount) != 0) {
+      throw new IdempotencyKeyConflictException("Idempotency-Key já usada em outra transação");
+    }
+    return original;
+  }
+
+  // Só guarda a chave depois do commit, para um rollback não deixar uma resposta fantasma no cache
+  private void rememberAfterCommit(UUID idempotencyKey, Transaction posted) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      recentPostings.put(idempotencyKey, posted);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        recentPostings.put(idempotencyKey, posted);
+      }
+    });
+  }
 
-    // Deletar balance anterior do mesmo dia (se existir)
-    List<Transaction> existingBalances = transactionRepository
-        .findBalancesByAccountIdAndDate(accountId, startOfDay, endOfDay);
-    for (Transaction balance_tx : existingBalances) {
-      transactionRepository.delete(balance_tx);
+  private void updateDayBalance(UUID accountId, LocalDate today, Transaction posted, LedgerOperation recompute) {
+    long started = System.nanoTime();
+    BigDecimal delta = signedAmount(posted);
+    Instant now = Instant.now();
+
+    // Caso comum: o saldo do dia já existe e é atualizado com o valor da nova transação,
+    // sem reler o histórico da conta
+    if (dailyBalanceRepository.addToBalance(accountId, today, delta, now) > 0) {
+      metrics.dayBalanceUpdated(DayBalancePath.INCREMENT, System.nanoTime() - started, 1);
+      recompute.variant("increment").addRows(1);
+      return;
     }
 
-    // Criar nova transação de balance
-    Transaction balanceTransaction = new Transaction();
-    balanceTransaction.setAccountId(accountId);
-    balanceTransaction.setType("BALANCE");
-    balanceTransaction.setCategory("DAILY_BALANCE");
-    balanceTransaction.setAmount(balance);
-    balanceTransaction.setDescription("Saldo do dia");
-    transactionRepository.save(balanceTransaction);
+    // Primeira transação do dia: soma apenas as transações do próprio dia (incluindo a recém criada),
+    // descontando o que já está nas parcelas de conta quente
+    Instant startOfDay = today.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    DaySeed seed = dailyBalanceRepository.seedBalance(accountId, today, startOfDay);
+    BigDecimal balance = seed.balance();
+    dailyBalanceRepository.upsertBalance(accountId, today, balance != null ? balance : BigDecimal.ZERO, delta, now);
+    long scanned = seed.transactions() != null ? seed.transactions() : 0;
+    metrics.dayBalanceUpdated(DayBalancePath.SEED, System.nanoTime() - started, scanned);
+    // Os lançamentos do dia relidos e a linha do saldo gravada
+    recompute.variant("seed").addRows(scanned + 1);
+  }
+
+  private static BigDecimal signedAmount(Transaction tx) {
+    return signedAmount(tx.getType(), tx.getAmount());
+  }
+
+  static BigDecimal signedAmount(String type, BigDecimal amount) {
+    if ("CREDIT".equals(type)) {
+      return amount;
+    }
+    if ("DEBIT".equals(type)) {
+      return amount.negate();
+    }
+    return BigDecimal.ZERO;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.backend.keysbankapi.ledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(name = "BatchItemResult", description = "Resultado de um item do lote de transações")
+public record BatchItemResult(
+    @Schema(description = "Posição do item no lote (a partir de 0)", example = "0")
+    int index,
+    @Schema(description = "Situação do item", example = "CREATED", allowableValues = {"CREATED", "REJECTED"})
+    String status,
+    @Schema(description = "ID da transação criada (nulo se rejeitada)", example = "550e8400-e29b-41d4-a716-446655440000")
+    UUID id,
+    @Schema(description = "Data e hora da criação da transação (ISO 8601)", example = "2026-01-15T22:45:34.000Z")
+    Instant createdAt,
+    @Schema(description = "Motivo da rejeição (nulo se criada)", example = "Conta não encontrada")
+    String error
+) {
+  public static BatchItemResult created(int index, UUID id, Instant createdAt) {
+    return new BatchItemResult(index, "CREATED", id, createdAt, null);
+  }
+
+  public static BatchItemResult rejected(int index, String error) {
+    return new BatchItemResult(index, "REJECTED", null, null, error);
+  }
+}
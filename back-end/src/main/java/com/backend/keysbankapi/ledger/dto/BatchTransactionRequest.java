@@ -0,0 +1,12 @@
+package com.backend.keysbankapi.ledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Schema(name = "BatchTransactionRequest", description = "Lote de transações para ingestão em uma única requisição")
+public record BatchTransactionRequest(
+  @Schema(description = "Transações do lote (até 5000). Cada item é validado individualmente")
+  @NotEmpty @Size(max = 5000) List<TransactionCreatedRequest> items
+) {}
@@ -0,0 +1,14 @@
+package com.backend.keysbankapi.ledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(name = "BatchTransactionResponse", description = "Resultado da ingestão de um lote de transações")
+public record BatchTransactionResponse(
+    @Schema(description = "Quantidade de transações criadas", example = "998")
+    int created,
+    @Schema(description = "Quantidade de transações rejeitadas", example = "2")
+    int rejected,
+    @Schema(description = "Resultado de cada item, na ordem do lote")
+    List<BatchItemResult> results
+) {}
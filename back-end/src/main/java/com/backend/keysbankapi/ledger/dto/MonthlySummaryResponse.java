@@ -0,0 +1,21 @@
+package com.backend.keysbankapi.ledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Schema(name = "MonthlySummaryResponse", description = "Resumo mensal de créditos e débitos de uma conta")
+public record MonthlySummaryResponse(
+    @Schema(description = "ID único da conta (UUID)", example = "b837e6e2-1b3c-4267-825f-741fb798f066")
+    UUID accountId,
+    @Schema(description = "Mês do resumo (YYYY-MM)", example = "2026-01")
+    String month,
+    @Schema(description = "Soma dos créditos do mês em reais", example = "1500.00")
+    BigDecimal creditTotal,
+    @Schema(description = "Soma dos débitos do mês em reais", example = "320.50")
+    BigDecimal debitTotal,
+    @Schema(description = "Quantidade de lançamentos (CREDIT e DEBIT) no mês", example = "42")
+    long transactionCount,
+    @Schema(description = "Saldo ao final do mês (ou saldo atual, para o mês corrente) em reais", example = "1179.50")
+    BigDecimal closingBalance
+) {}
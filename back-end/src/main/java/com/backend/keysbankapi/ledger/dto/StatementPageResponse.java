@@ -0,0 +1,12 @@
+package com.backend.keysbankapi.ledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(name = "StatementPageResponse", description = "Página do extrato paginado por cursor")
+public record StatementPageResponse(
+    @Schema(description = "Itens da página, do mais recente para o mais antigo")
+    List<StatementItemResponse> items,
+    @Schema(description = "Cursor opaco para buscar a próxima página; nulo quando não há mais itens", example = "VHwxNzY4NTE3MTM0fDB8NTUwZTg0MDAtZTI5Yi00MWQ0LWE3MTYtNDQ2NjU1NDQwMDAw")
+    String nextCursor
+) {}
@@ -0,0 +1,65 @@
+package com.backend.keysbankapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas do caminho do lançamento. Os medidores são registrados uma vez no construtor; cada
+ * lançamento só soma em contadores já existentes, sem alocar nem consultar o registro.
+ *
+ * <ul>
+ *   <li>{@code keysbank.posting.day.balance} (timer, tag {@code path}): tempo gasto no saldo do dia.
+ *       {@code increment} é o caso comum (a linha do dia existe e recebe o delta), {@code seed} o
+ *       primeiro lançamento do dia da conta, que relê os lançamentos do dia, e {@code shard} o
+ *       crédito de conta quente, que soma em uma parcela</li>
+ *   <li>{@code keysbank.posting.rows.scanned} (distribuição): linhas lidas para atualizar o saldo
+ *       do dia em cada lançamento. Fica em 1 enquanto o saldo é incremental; valores altos indicam
+ *       contas com muitos lançamentos no dia caindo no caminho {@code seed}</li>
+ * </ul>
+ */
+@Component
+public class LedgerMetrics {
+
+  public enum DayBalancePath { INCREMENT, SEED, SHARD }
+
+  private final Timer increment;
+  private final Timer seed;
+  private final Timer shard;
+  private final DistributionSummary rowsScanned;
+
+  public LedgerMetrics(MeterRegistry registry) {
+    this.increment = dayBalanceTimer(registry, "increment");
+    this.seed = dayBalanceTimer(registry, "seed");
+    this.shard = dayBalanceTimer(registry, "shard");
+    this.rowsScanned = DistributionSummary.builder("keysbank.posting.rows.scanned")
+        .description("Linhas lidas para atualizar o saldo do dia em um lançamento")
+        .baseUnit("rows")
+        .publishPercentileHistogram()
+        .minimumExpectedValue(1.0)
+        .maximumExpectedValue(100_000.0)
+        .register(registry);
+  }
+
+  private static Timer dayBalanceTimer(MeterRegistry registry, String path) {
+    return Timer.builder("keysbank.posting.day.balance")
+        .description("Tempo gasto atualizando o saldo do dia em um lançamento")
+        .tag("path", path)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  /** Registra o tempo do saldo do dia (em nanossegundos) e as linhas lidas para calculá-lo. */
+  public void dayBalanceUpdated(DayBalancePath path, long nanos, long rowsScanned) {
+    Timer timer = switch (path) {
+      case INCREMENT -> increment;
+      case SEED -> seed;
+      case SHARD -> shard;
+    };
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+    this.rowsScanned.record(rowsScanned);
+  }
+}
@@ -0,0 +1,35 @@
+package com.backend.keysbankapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Métricas próprias da aplicação, exportadas junto com as do Spring Boot (http.server.requests
+ * por endpoint, hikaricp.*, jvm.*) no endpoint Prometheus da porta de gestão.
+ */
+@Configuration
+public class MetricsConfig {
+
+  // static: o post-processor precisa existir antes do DataSource ser criado
+  @Bean
+  public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+          return new StatementCountingDataSource(dataSource);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public SqlStatementCountFilter sqlStatementCountFilter(MeterRegistry registry) {
+    return new SqlStatementCountFilter(registry);
+  }
+}
@@ -0,0 +1,63 @@
+package com.backend.keysbankapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publica {@code keysbank.http.sql.statements}: comandos SQL por requisição, com as tags
+ * {@code method} e {@code uri} (o padrão do endpoint, como em {@code http.server.requests}).
+ * Uma mudança que faça um endpoint consultar o banco em laço aparece aqui antes de aparecer na
+ * latência.
+ *
+ * <p>A contagem é da thread da requisição ({@link SqlStatementCounter}): o que roda em outra thread
+ * não entra. Na exportação do extrato (StreamingResponseBody), o corpo é escrito depois, por uma
+ * thread do executor assíncrono do MVC, então a métrica do endpoint só conta a validação da conta;
+ * o tamanho da exportação aparece no evento {@code statement-export} do gravador de voo.
+ */
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+  private record Endpoint(String method, String uri) {}
+
+  private final MeterRegistry registry;
+  // Um resumo por endpoint, criado na primeira requisição: o builder e o registro não rodam a cada requisição
+  private final ConcurrentHashMap<Endpoint, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+  public SqlStatementCountFilter(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    SqlStatementCounter.start();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      int statements = SqlStatementCounter.stop();
+      // Sem padrão (404, recursos estáticos) a URI bruta não vira tag, para não explodir a cardinalidade
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      Endpoint endpoint = new Endpoint(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN");
+      summaries.computeIfAbsent(endpoint, this::summary).record(statements);
+    }
+  }
+
+  private DistributionSummary summary(Endpoint endpoint) {
+    return DistributionSummary.builder("keysbank.http.sql.statements")
+        .description("Comandos SQL executados por requisição")
+        .baseUnit("statements")
+        .tag("method", endpoint.method())
+        .tag("uri", endpoint.uri())
+        .publishPercentileHistogram()
+        .maximumExpectedValue(1_000.0)
+        .register(registry);
+  }
+}
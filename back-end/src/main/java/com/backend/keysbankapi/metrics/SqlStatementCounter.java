@@ -0,0 +1,33 @@
+package com.backend.keysbankapi.metrics;
+
+/**
+ * Contador de comandos SQL da requisição em andamento, por thread. O {@link SqlStatementCountFilter}
+ * abre a contagem no início da requisição e a fecha no fim; o {@link StatementCountingDataSource}
+ * soma um a cada comando preparado na conexão. Fora de uma requisição (jobs agendados, importação
+ * em segundo plano) nada é contado. A contagem não passa para outras threads: comandos de tarefas
+ * assíncronas ou do corpo de um StreamingResponseBody, disparados pela requisição, também ficam de fora.
+ */
+public final class SqlStatementCounter {
+
+  private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+  private SqlStatementCounter() {}
+
+  static void start() {
+    CURRENT.set(new int[1]);
+  }
+
+  /** Encerra a contagem da thread e devolve o total (0 se não havia contagem aberta). */
+  static int stop() {
+    int[] count = CURRENT.get();
+    CURRENT.remove();
+    return count != null ? count[0] : 0;
+  }
+
+  static void increment() {
+    int[] count = CURRENT.get();
+    if (count != null) {
+      count[0]++;
+    }
+  }
+}
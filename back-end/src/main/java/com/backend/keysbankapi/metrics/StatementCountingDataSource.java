@@ -0,0 +1,56 @@
+package com.backend.keysbankapi.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Envolve o DataSource da aplicação para contar os comandos SQL de cada requisição
+ * ({@link SqlStatementCounter}). Conta a criação de cada comando na conexão (prepareStatement,
+ * prepareCall, createStatement), o que vale para JPA e JdbcTemplate. Um batch JDBC conta como um
+ * comando, que é o que ele custa em idas ao banco.
+ *
+ * O pool continua acessível por {@code unwrap}: as métricas do Hikari (tempo de espera por conexão,
+ * conexões pendentes) são registradas normalmente.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+  private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+  public StatementCountingDataSource(DataSource target) {
+    super(target);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return counting(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return counting(super.getConnection(username, password));
+  }
+
+  private static Connection counting(Connection target) {
+    return (Connection) Proxy.newProxyInstance(
+        StatementCountingDataSource.class.getClassLoader(),
+        new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          if (STATEMENT_METHODS.contains(method.getName())) {
+            SqlStatementCounter.increment();
+          } else if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+            return target;
+          }
+          try {
+            return method.invoke(target, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+}
@@ -0,0 +1,85 @@
+package com.backend.keysbankapi.report;
+
+import com.backend.keysbankapi.report.dto.DailyRollupResponse;
+import com.backend.keysbankapi.report.dto.MonthlyRollupResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/reports")
+@Tag(name = "Reports", description = "Relatórios de lançamentos por dia, mês e categoria")
+public class LedgerReportController {
+
+  private final LedgerReportService service;
+
+  public LedgerReportController(LedgerReportService service) {
+    this.service = service;
+  }
+
+  @GetMapping("/daily")
+  @Operation(
+      summary = "Relatório diário por categoria",
+      description = "Soma e quantidade de lançamentos por dia, categoria e tipo, de todas as contas ou de uma conta. " +
+          "Lido apenas dos rollups diários, sem varrer os lançamentos. Período de até 366 dias."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Relatório gerado com sucesso",
+          content = @Content(
+              mediaType = "application/json",
+              array = @ArraySchema(schema = @Schema(implementation = DailyRollupResponse.class))
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Período inválido ou conta não encontrada"
+      )
+  })
+  public List<DailyRollupResponse> daily(
+      @RequestParam LocalDate startDate,
+      @RequestParam LocalDate endDate,
+      @RequestParam(required = false) UUID accountId) {
+
+    return service.daily(startDate, endDate, accountId);
+  }
+
+  @GetMapping("/monthly")
+  @Operation(
+      summary = "Relatório mensal por categoria",
+      description = "Soma e quantidade de lançamentos por mês, categoria e tipo, derivados dos rollups diários. " +
+          "Meses no formato YYYY-MM, período de até 60 meses."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Relatório gerado com sucesso",
+          content = @Content(
+              mediaType = "application/json",
+              array = @ArraySchema(schema = @Schema(implementation = MonthlyRollupResponse.class))
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Período inválido ou conta não encontrada"
+      )
+  })
+  public List<MonthlyRollupResponse> monthly(
+      @RequestParam YearMonth startMonth,
+      @RequestParam YearMonth endMonth,
+      @RequestParam(required = false) UUID accountId) {
+
+    return service.monthly(startMonth, endMonth, accountId);
+  }
+}
@@ -0,0 +1,97 @@
+package com.backend.keysbankapi.report;
+
+import com.backend.keysbankapi.account.AccountDirectory;
+import com.backend.keysbankapi.report.dto.DailyRollupResponse;
+import com.backend.keysbankapi.report.dto.MonthlyRollupResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Relatórios por dia e por mês, lidos apenas de ledger_daily_rollups. O rollup mensal é derivado
+ * do diário na consulta: o período vira um intervalo de dias, que usa os índices da tabela.
+ */
+@Service
+public class LedgerReportService {
+
+  static final int MAX_DAYS = 366;
+  static final int MAX_MONTHS = 60;
+
+  private static final String DAILY = """
+      SELECT day, category, type, SUM(total) AS total, SUM(tx_count) AS tx_count
+      FROM ledger_daily_rollups
+      WHERE day >= ? AND day <= ?%s
+      GROUP BY day, category, type
+      ORDER BY day DESC, category, type
+      """;
+
+  private static final String MONTHLY = """
+      SELECT to_char(day, 'YYYY-MM') AS month, category, type, SUM(total) AS total, SUM(tx_count) AS tx_count
+      FROM ledger_daily_rollups
+      WHERE day >= ? AND day <= ?%s
+      GROUP BY to_char(day, 'YYYY-MM'), category, type
+      ORDER BY month DESC, category, type
+      """;
+
+  private static final String BY_ACCOUNT = " AND account_id = ?";
+
+  private final AccountDirectory accountDirectory;
+  private final JdbcTemplate jdbcTemplate;
+
+  public LedgerReportService(AccountDirectory accountDirectory, JdbcTemplate jdbcTemplate) {
+    this.accountDirectory = accountDirectory;
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public List<DailyRollupResponse> daily(LocalDate startDate, LocalDate endDate, UUID accountId) {
+    if (startDate.isAfter(endDate) || ChronoUnit.DAYS.between(startDate, endDate) >= MAX_DAYS) {
+      throw new IllegalArgumentException("Período inválido: até " + MAX_DAYS + " dias, com startDate <= endDate");
+    }
+    checkAccount(accountId);
+
+    return jdbcTemplate.query(DAILY.formatted(accountId != null ? BY_ACCOUNT : ""),
+        (rs, i) -> new DailyRollupResponse(
+            rs.getDate("day").toLocalDate(),
+            rs.getString("category"),
+            rs.getString("type"),
+            rs.getBigDecimal("total"),
+            rs.getLong("tx_count")
+        ),
+        args(startDate, endDate, accountId));
+  }
+
+  public List<MonthlyRollupResponse> monthly(YearMonth startMonth, YearMonth endMonth, UUID accountId) {
+    if (startMonth.isAfter(endMonth) || ChronoUnit.MONTHS.between(startMonth, endMonth) >= MAX_MONTHS) {
+      throw new IllegalArgumentException("Período inválido: até " + MAX_MONTHS + " meses, com startMonth <= endMonth");
+    }
+    checkAccount(accountId);
+
+    return jdbcTemplate.query(MONTHLY.formatted(accountId != null ? BY_ACCOUNT : ""),
+        (rs, i) -> new MonthlyRollupResponse(
+            rs.getString("month"),
+            rs.getString("category"),
+            rs.getString("type"),
+            rs.getBigDecimal("total"),
+            rs.getLong("tx_count")
+        ),
+        args(startMonth.atDay(1), endMonth.atEndOfMonth(), accountId));
+  }
+
+  private void checkAccount(UUID accountId) {
+    if (accountId != null && !accountDirectory.exists(accountId)) {
+      throw new IllegalArgumentException("Conta não encontrada");
+    }
+  }
+
+  private static Object[] args(LocalDate startDay, LocalDate endDay, UUID accountId) {
+    return accountId != null
+        ? new Object[] { Date.valueOf(startDay), Date.valueOf(endDay), accountId }
+        : new Object[] { Date.valueOf(startDay), Date.valueOf(endDay) };
+  }
+}
@@ -0,0 +1,51 @@
+package com.backend.keysbankapi.report;
+
+import com.backend.keysbankapi.report.dto.RollupRebuildResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/admin/rollups")
+@Tag(name = "Admin", description = "Endpoints operacionais")
+public class RollupRebuildController {
+
+  private final RollupRebuildService service;
+
+  public RollupRebuildController(RollupRebuildService service) {
+    this.service = service;
+  }
+
+  @PostMapping("/rebuild")
+  @Operation(
+      summary = "Reconstruir rollups a partir dos lançamentos",
+      description = "Compara os rollups diários com a agregação dos lançamentos, informa quantas combinações divergiam e regrava o período. " +
+          "Sem datas reconstrói o histórico completo. Lançamentos ficam bloqueados enquanto roda: use em janela de manutenção ou com períodos curtos."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Rollups reconstruídos",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = RollupRebuildResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Período inválido"
+      )
+  })
+  public RollupRebuildResponse rebuild(
+      @RequestParam(required = false) LocalDate startDate,
+      @RequestParam(required = false) LocalDate endDate) {
+
+    return service.rebuild(startDate, endDate);
+  }
+}
@@ -0,0 +1,113 @@
+package com.backend.keysbankapi.report;
+
+import com.backend.keysbankapi.report.dto.RollupRebuildResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Reconstrói ledger_daily_rollups a partir de transactions, para verificação. Conta quantas
+ * combinações conta/dia/categoria/tipo divergiam e regrava o período a partir dos lançamentos.
+ *
+ * <p>Meses do arquivo morto (archived_months) não têm mais lançamentos em transactions: os rollups
+ * deles ficam de fora da comparação e da regravação.
+ *
+ * <p>A tabela de rollup fica travada contra escrita durante a reconstrução: lançamentos em
+ * andamento terminam antes dela começar, e os novos esperam o fim. Assim o resultado bate com os
+ * lançamentos confirmados, mas os lançamentos ficam parados pelo tempo da reconstrução.
+ */
+@Service
+public class RollupRebuildService {
+
+  private static final Logger log = LoggerFactory.getLogger(RollupRebuildService.class);
+
+  private static final String LOCK = "LOCK TABLE ledger_daily_rollups IN SHARE ROW EXCLUSIVE MODE";
+
+  private static final String RAW = """
+      SELECT account_id, created_at::date AS day, category, type, SUM(amount) AS total, COUNT(*) AS tx_count
+      FROM transactions
+      %s
+      GROUP BY account_id, created_at::date, category, type
+      """;
+
+  private static final String COUNT_MISMATCHES = """
+      WITH raw AS (%s),
+      stored AS (
+        SELECT account_id, day, category, type, SUM(total) AS total, SUM(tx_count) AS tx_count
+        FROM ledger_daily_rollups
+        %s
+        GROUP BY account_id, day, category, type
+      )
+      SELECT COUNT(*)
+      FROM raw FULL JOIN stored USING (account_id, day, category, type)
+      WHERE raw.total IS DISTINCT FROM stored.total OR raw.tx_count IS DISTINCT FROM stored.tx_count
+      """;
+
+  private static final String DELETE = "DELETE FROM ledger_daily_rollups %s";
+
+  private static final String INSERT = """
+      INSERT INTO ledger_daily_rollups (account_id, day, category, type, shard, total, tx_count)
+      SELECT account_id, day, category, type, 0, total, tx_count FROM (%s) raw
+      """;
+
+  private static final String TRANSACTIONS_IN_RANGE = "WHERE created_at >= ? AND created_at < ?";
+  private static final String ROLLUPS_LIVE = """
+      WHERE NOT EXISTS (
+        SELECT 1 FROM archived_months a
+        WHERE ledger_daily_rollups.day >= a.month AND ledger_daily_rollups.day < a.month + INTERVAL '1 month'
+      )""";
+  private static final String ROLLUPS_IN_RANGE = ROLLUPS_LIVE + " AND day >= ? AND day <= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transaction;
+
+  public RollupRebuildService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transaction = new TransactionTemplate(transactionManager);
+  }
+
+  /** Reconstrói o período informado, ou o histórico completo quando as duas datas são nulas. */
+  public RollupRebuildResponse rebuild(LocalDate startDate, LocalDate endDate) {
+    boolean ranged = startDate != null || endDate != null;
+    if (ranged && (startDate == null || endDate == null || startDate.isAfter(endDate))) {
+      throw new IllegalArgumentException("Informe startDate e endDate (startDate <= endDate) ou nenhum dos dois");
+    }
+
+    String raw = RAW.formatted(ranged ? TRANSACTIONS_IN_RANGE : "");
+    String rollups = ranged ? ROLLUPS_IN_RANGE : ROLLUPS_LIVE;
+    Object[] rawArgs = ranged
+        ? new Object[] { Timestamp.valueOf(startDate.atStartOfDay()), Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()) }
+        : new Object[0];
+    Object[] rollupArgs = ranged
+        ? new Object[] { Date.valueOf(startDate), Date.valueOf(endDate) }
+        : new Object[0];
+
+    long start = System.nanoTime();
+    return transaction.execute(status -> {
+      jdbcTemplate.execute(LOCK);
+      Long mismatches = jdbcTemplate.queryForObject(COUNT_MISMATCHES.formatted(raw, rollups), Long.class, concat(rawArgs, rollupArgs));
+      jdbcTemplate.update(DELETE.formatted(rollups), rollupArgs);
+      int written = jdbcTemplate.update(INSERT.formatted(raw), rawArgs);
+
+      long durationMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+      log.info("Rollups reconstruídos ({} a {}): {} divergências, {} linhas em {} ms",
+          startDate, endDate, mismatches, written, durationMs);
+      return new RollupRebuildResponse(startDate, endDate, mismatches != null ? mismatches : 0, written, durationMs);
+    });
+  }
+
+  private static Object[] concat(Object[] first, Object[] second) {
+    Object[] all = new Object[first.length + second.length];
+    System.arraycopy(first, 0, all, 0, first.length);
+    System.arraycopy(second, 0, all, first.length, second.length);
+    return all;
+  }
+}
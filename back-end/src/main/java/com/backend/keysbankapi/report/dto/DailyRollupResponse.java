@@ -0,0 +1,19 @@
+package com.backend.keysbankapi.report.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(name = "DailyRollupResponse", description = "Totais de um dia por categoria e tipo de lançamento")
+public record DailyRollupResponse(
+    @Schema(description = "Dia dos lançamentos", example = "2026-01-15")
+    LocalDate day,
+    @Schema(description = "Categoria dos lançamentos", example = "PAGAMENTO_CONTA")
+    String category,
+    @Schema(description = "Tipo dos lançamentos (CREDIT ou DEBIT)", example = "DEBIT")
+    String type,
+    @Schema(description = "Soma dos valores em reais", example = "845.90")
+    BigDecimal total,
+    @Schema(description = "Quantidade de lançamentos", example = "12")
+    long count
+) {}
@@ -0,0 +1,18 @@
+package com.backend.keysbankapi.report.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+
+@Schema(name = "MonthlyRollupResponse", description = "Totais de um mês por categoria e tipo de lançamento")
+public record MonthlyRollupResponse(
+    @Schema(description = "Mês dos lançamentos (YYYY-MM)", example = "2026-01")
+    String month,
+    @Schema(description = "Categoria dos lançamentos", example = "PAGAMENTO_CONTA")
+    String category,
+    @Schema(description = "Tipo dos lançamentos (CREDIT ou DEBIT)", example = "DEBIT")
+    String type,
+    @Schema(description = "Soma dos valores em reais", example = "12450.30")
+    BigDecimal total,
+    @Schema(description = "Quantidade de lançamentos", example = "318")
+    long count
+) {}
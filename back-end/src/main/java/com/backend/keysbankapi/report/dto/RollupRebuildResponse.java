@@ -0,0 +1,18 @@
+package com.backend.keysbankapi.report.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+
+@Schema(name = "RollupRebuildResponse", description = "Resultado da reconstrução dos rollups a partir dos lançamentos")
+public record RollupRebuildResponse(
+    @Schema(description = "Primeiro dia reconstruído (nulo quando foi o histórico completo)", example = "2026-01-01")
+    LocalDate startDate,
+    @Schema(description = "Último dia reconstruído (nulo quando foi o histórico completo)", example = "2026-01-31")
+    LocalDate endDate,
+    @Schema(description = "Combinações conta/dia/categoria/tipo em que o rollup divergia dos lançamentos", example = "0")
+    long mismatches,
+    @Schema(description = "Linhas de rollup gravadas", example = "48210")
+    long rowsWritten,
+    @Schema(description = "Duração da reconstrução em milissegundos", example = "1840")
+    long durationMs
+) {}
@@ -0,0 +1,10 @@
+-- Meses de transactions movidos para o arquivo morto (segmentos em keysbank.archive.dir).
+-- A linha é gravada na mesma transação que apaga a partição do mês: o extrato lê o mês do
+-- segmento se, e somente se, ele estiver registrado aqui.
+CREATE TABLE archived_months (
+  month DATE PRIMARY KEY,
+  file_name TEXT NOT NULL,
+  row_count BIGINT NOT NULL,
+  account_count INTEGER NOT NULL,
+  archived_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,6 @@
+-- Versão do razão por conta, para ETag de extrato e saldo. Cresce a cada lançamento: no modo normal
+-- na linha da conta (já travada pelo lançamento), em conta quente na parcela usada pelo crédito.
+-- Versão da conta = accounts.ledger_version + soma das parcelas; o rebaixamento soma as versões das
+-- parcelas na conta junto com os saldos, então o total nunca diminui.
+ALTER TABLE accounts ADD COLUMN ledger_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE account_balance_shards ADD COLUMN ledger_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+CREATE TABLE account_daily_balances (
+  account_id UUID NOT NULL REFERENCES accounts(id),
+  day DATE NOT NULL,
+  balance NUMERIC(18,2) NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+  PRIMARY KEY (account_id, day)
+);
+
+-- Backfill: o último BALANCE gravado de cada conta/dia
+INSERT INTO account_daily_balances (account_id, day, balance, updated_at)
+SELECT DISTINCT ON (account_id, created_at::date)
+  account_id, created_at::date, amount, created_at
+FROM transactions
+WHERE type = 'BALANCE'
+ORDER BY account_id, created_at::date, created_at DESC;
+
+-- Os saldos diários não ficam mais misturados com os lançamentos
+DELETE FROM transactions WHERE type = 'BALANCE';
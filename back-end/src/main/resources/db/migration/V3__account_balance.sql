@@ -0,0 +1,12 @@
+ALTER TABLE accounts ADD COLUMN balance NUMERIC(18,2) NOT NULL DEFAULT 0;
+
+-- Backfill: saldo corrente = créditos - débitos de todo o histórico
+UPDATE accounts a
+SET balance = s.total
+FROM (
+  SELECT account_id,
+         SUM(CASE WHEN type = 'CREDIT' THEN amount WHEN type = 'DEBIT' THEN -amount ELSE 0 END) AS total
+  FROM transactions
+  GROUP BY account_id
+) s
+WHERE s.account_id = a.id;
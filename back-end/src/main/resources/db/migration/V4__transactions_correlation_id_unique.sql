@@ -0,0 +1,3 @@
+-- Chave de idempotência dos lançamentos (NULLs não conflitam entre si)
+ALTER TABLE transactions
+  ADD CONSTRAINT uq_transactions_correlation_id UNIQUE (correlation_id);
@@ -0,0 +1,9 @@
+-- Arquivos já carregados pela importação de histórico (gravado na mesma transação do COPY)
+CREATE TABLE import_checkpoints (
+  file_name TEXT NOT NULL,
+  file_size BIGINT NOT NULL,
+  table_name TEXT NOT NULL,
+  rows_loaded BIGINT NOT NULL,
+  completed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+  PRIMARY KEY (file_name, file_size)
+);
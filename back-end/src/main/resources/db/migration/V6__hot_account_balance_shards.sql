@@ -0,0 +1,31 @@
+-- Contas "quentes" (arrecadação, lojistas): os créditos são espalhados em N sub-linhas de saldo
+-- para não disputarem a mesma linha. balance_shards = 1 é o modo normal.
+ALTER TABLE accounts ADD COLUMN balance_shards SMALLINT NOT NULL DEFAULT 1;
+
+-- Parcelas do saldo corrente: saldo real = accounts.balance + soma das parcelas
+CREATE TABLE account_balance_shards (
+  account_id UUID NOT NULL REFERENCES accounts(id),
+  shard SMALLINT NOT NULL,
+  balance NUMERIC(18,2) NOT NULL,
+  PRIMARY KEY (account_id, shard)
+);
+
+-- Parcelas do saldo diário: saldo do dia = account_daily_balances + soma das parcelas do dia
+CREATE TABLE account_daily_balance_shards (
+  account_id UUID NOT NULL REFERENCES accounts(id),
+  day DATE NOT NULL,
+  shard SMALLINT NOT NULL,
+  balance NUMERIC(18,2) NOT NULL,
+  updated_at TIMESTAMP NOT NULL,
+  PRIMARY KEY (account_id, day, shard)
+);
+
+-- Leitura do saldo diário já somando as parcelas (mapeada pela entidade DailyBalance)
+CREATE VIEW account_daily_balance_totals AS
+SELECT account_id, day, SUM(balance) AS balance, MAX(updated_at) AS updated_at
+FROM (
+  SELECT account_id, day, balance, updated_at FROM account_daily_balances
+  UNION ALL
+  SELECT account_id, day, balance, updated_at FROM account_daily_balance_shards
+) parts
+GROUP BY account_id, day;
@@ -0,0 +1,2 @@
+-- Login busca por agência + número; só account_number tinha índice (UNIQUE)
+CREATE INDEX idx_accounts_agency_account_number ON accounts (agency, account_number);
@@ -0,0 +1,22 @@
+-- Rollup diário do razão para relatórios: conta x dia x categoria x tipo -> soma e quantidade.
+-- Atualizado na mesma transação de cada lançamento. Contas quentes espalham os créditos pelas
+-- parcelas (shard), como no saldo; no modo normal shard = 0. Os relatórios somam as parcelas.
+CREATE TABLE ledger_daily_rollups (
+  account_id UUID NOT NULL,
+  day DATE NOT NULL,
+  category TEXT NOT NULL,
+  type TEXT NOT NULL,
+  shard SMALLINT NOT NULL DEFAULT 0,
+  total NUMERIC(18,2) NOT NULL,
+  tx_count BIGINT NOT NULL,
+  PRIMARY KEY (account_id, day, category, type, shard)
+);
+
+-- Relatórios de todas as contas filtram só pelo período
+CREATE INDEX idx_ledger_daily_rollups_day ON ledger_daily_rollups (day);
+
+-- Backfill a partir do histórico existente
+INSERT INTO ledger_daily_rollups (account_id, day, category, type, shard, total, tx_count)
+SELECT account_id, created_at::date, category, type, 0, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY account_id, created_at::date, category, type;
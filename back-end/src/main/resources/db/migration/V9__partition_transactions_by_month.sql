@@ -0,0 +1,66 @@
+-- transactions passa a ser particionada por mês em created_at. Consultas com intervalo de datas
+-- só leem as partições do intervalo, e meses antigos podem ser desanexados sem DELETE.
+-- Em tabela particionada toda chave única precisa conter created_at: a PK vira (id, created_at)
+-- e a chave de idempotência (correlation_id) vai para uma tabela própria.
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER INDEX transactions_pkey RENAME TO transactions_unpartitioned_pkey;
+ALTER INDEX idx_transactions_account_created_at RENAME TO idx_transactions_unpartitioned_account_created_at;
+ALTER TABLE transactions_unpartitioned DROP CONSTRAINT uq_transactions_correlation_id;
+
+CREATE TABLE transactions (
+  id UUID NOT NULL,
+  account_id UUID NOT NULL REFERENCES accounts(id),
+  type TEXT NOT NULL,           -- CREDIT / DEBIT
+  category TEXT NOT NULL,
+  amount NUMERIC(18,2) NOT NULL,
+  description TEXT,
+  correlation_id UUID,
+  created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+  PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Partições mensais do primeiro mês com lançamentos até 3 meses à frente. Daqui em diante o
+-- TransactionPartitionMaintainer cria os meses seguintes e desanexa os antigos.
+DO $$
+DECLARE
+  month DATE;
+  last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+  SELECT COALESCE(date_trunc('month', MIN(created_at)), date_trunc('month', now()))::date
+  INTO month
+  FROM transactions_unpartitioned;
+
+  WHILE month <= last_month LOOP
+    EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                   'transactions_p' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::date);
+    month := (month + INTERVAL '1 month')::date;
+  END LOOP;
+END $$;
+
+-- Rede de segurança para datas sem partição (ex.: histórico antigo vindo da importação)
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+INSERT INTO transactions (id, account_id, type, category, amount, description, correlation_id, created_at)
+SELECT id, account_id, type, category, amount, description, correlation_id, created_at
+FROM transactions_unpartitioned;
+
+-- Criado na tabela pai, vale para todas as partições (atuais e futuras)
+CREATE INDEX idx_transactions_account_created_at ON transactions (account_id, created_at DESC);
+
+-- Chave de idempotência dos lançamentos: única em todo o histórico, aponta para (id, created_at)
+-- para a busca do lançamento original ler uma única partição
+CREATE TABLE transaction_idempotency_keys (
+  correlation_id UUID PRIMARY KEY,
+  transaction_id UUID NOT NULL,
+  created_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO transaction_idempotency_keys (correlation_id, transaction_id, created_at)
+SELECT correlation_id, id, created_at
+FROM transactions_unpartitioned
+WHERE correlation_id IS NOT NULL;
+
+DROP TABLE transactions_unpartitioned;
+
+ANALYZE transactions;
@@ -0,0 +1,34 @@
+package com.backend.keysbankapi;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Base dos testes contra um PostgreSQL de verdade (Testcontainers, precisa de Docker). Um único
+ * contêiner serve a suíte inteira; o Flyway aplica as migrations na subida do contexto.
+ *
+ * Os jobs agendados ficam praticamente parados (janela de conta quente longa, arquivo morto
+ * desligado) para não mexerem nos dados dos testes.
+ */
+@SpringBootTest(properties = {
+    "keysbank.hot-accounts.window=1h",
+    "keysbank.archive.after-months=0",
+    "management.server.port=-1"
+})
+public abstract class PostgresIntegrationTest {
+
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
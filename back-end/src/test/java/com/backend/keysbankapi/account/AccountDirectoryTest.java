@@ -0,0 +1,116 @@
+package com.backend.keysbankapi.account;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountDirectory Tests")
+class AccountDirectoryTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountDirectory directory;
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        directory = new AccountDirectory(accountRepository, 1_000, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        accountId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should hit the database only once for a known account")
+    void testKnownAccountIsCached() {
+        // Arrange
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account(accountId)));
+
+        // Act
+        boolean first = directory.exists(accountId);
+        boolean second = directory.exists(accountId);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertEquals("ATIVA", directory.find(accountId).orElseThrow().status());
+        verify(accountRepository, times(1)).findById(accountId);
+        assertEquals(1, directory.stats().missCount());
+        assertEquals(2, directory.stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Should negatively cache unknown ids")
+    void testUnknownAccountIsCached() {
+        // Arrange
+        when(accountRepository.findById(accountId)).thenReturn(Optional.empty());
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertFalse(directory.exists(accountId));
+        }
+
+        // Assert
+        verify(accountRepository, times(1)).findById(accountId);
+    }
+
+    @Test
+    @DisplayName("Should reload an account after invalidation")
+    void testInvalidateReloads() {
+        // Arrange
+        when(accountRepository.findById(accountId))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(account(accountId)));
+
+        // Act
+        boolean before = directory.exists(accountId);
+        directory.invalidate(accountId);
+        boolean after = directory.exists(accountId);
+
+        // Assert
+        assertFalse(before);
+        assertTrue(after);
+        verify(accountRepository, times(2)).findById(accountId);
+    }
+
+    @Test
+    @DisplayName("Should load missing accounts of a batch with a single query")
+    void testFindExistingLoadsInBulk() {
+        // Arrange
+        UUID other = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(accountRepository.findAllById(any())).thenReturn(List.of(account(accountId), account(other)));
+
+        // Act
+        Set<UUID> existing = directory.findExisting(List.of(accountId, other, unknown));
+        Set<UUID> again = directory.findExisting(List.of(accountId, other, unknown));
+
+        // Assert
+        assertEquals(Set.of(accountId, other), existing);
+        assertEquals(existing, again);
+        verify(accountRepository, times(1)).findAllById(any());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    private static Account account(UUID id) {
+        Account account = new Account();
+        account.setCustomerId(UUID.randomUUID());
+        account.prePersist();
+        ReflectionTestUtils.setField(account, "id", id);
+        return account;
+    }
+}
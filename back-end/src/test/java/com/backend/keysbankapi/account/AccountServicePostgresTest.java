@@ -0,0 +1,72 @@
+package com.backend.keysbankapi.account;
+
+import com.backend.keysbankapi.PostgresIntegrationTest;
+import com.backend.keysbankapi.account.dto.CreateAccountRequest;
+import com.backend.keysbankapi.common.UuidV7;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountService (PostgreSQL)")
+class AccountServicePostgresTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountService accountService;
+
+    private UUID customerId;
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        customerId = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Abertura', ?)",
+            customerId, "opening-" + customerId + "@test.local");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (accountId != null) {
+            jdbcTemplate.update("DELETE FROM ledger_daily_rollups WHERE account_id = ?", accountId);
+            jdbcTemplate.update("DELETE FROM account_daily_balances WHERE account_id = ?", accountId);
+            jdbcTemplate.update("DELETE FROM transactions WHERE account_id = ?", accountId);
+            jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", accountId);
+        }
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", customerId);
+    }
+
+    @Test
+    @DisplayName("Should write the opening bonus to the rollups and the daily balance with the account")
+    void testOpeningBonusInRollupsAndDailyBalance() {
+        // Act
+        accountId = accountService.create(new CreateAccountRequest(customerId)).getId();
+
+        // Assert: o rollup bate com os lançamentos, como a reconstrução (RollupRebuildService) os agruparia
+        List<Map<String, Object>> raw = jdbcTemplate.queryForList("""
+            SELECT created_at::date AS day, category, type, SUM(amount) AS total, COUNT(*)::bigint AS tx_count
+            FROM transactions WHERE account_id = ? GROUP BY 1, 2, 3 ORDER BY 1, 2, 3
+            """, accountId);
+        List<Map<String, Object>> stored = jdbcTemplate.queryForList("""
+            SELECT day, category, type, SUM(total) AS total, SUM(tx_count)::bigint AS tx_count
+            FROM ledger_daily_rollups WHERE account_id = ? GROUP BY 1, 2, 3 ORDER BY 1, 2, 3
+            """, accountId);
+        assertEquals(1, raw.size());
+        assertEquals(raw, stored);
+
+        BigDecimal dayBalance = jdbcTemplate.queryForObject(
+            "SELECT SUM(balance) FROM account_daily_balances WHERE account_id = ?", BigDecimal.class, accountId);
+        assertEquals(0, new BigDecimal("100.00").compareTo(dayBalance));
+    }
+}
@@ -1,7 +1,10 @@
 package com.backend.keysbankapi.account;
 
+import com.backend.keysbankapi.account.dto.BalanceResponse;
 import com.backend.keysbankapi.account.dto.CreateAccountRequest;
+import com.backend.keysbankapi.account.dto.LoginResponse;
 import com.backend.keysbankapi.customer.CustomerRepository;
+import com.backend.keysbankapi.ledger.DailyBalanceRepository;
 import com.backend.keysbankapi.ledger.Transaction;
 import com.backend.keysbankapi.ledger.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,12 +14,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +40,12 @@ class AccountServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private AccountDirectory accountDirectory;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -68,6 +82,10 @@ class AccountServiceTest {
         verify(customerRepository, times(1)).existsById(customerId);
         verify(accountRepository, times(1)).existsByCustomerId(customerId);
         verify(accountRepository, atLeastOnce()).save(any(Account.class));
+        verify(accountDirectory, times(1)).invalidate(result.getId());
+        BigDecimal bonus = new BigDecimal("100.00");
+        verify(dailyBalanceRepository).upsertBalance(eq(result.getId()), any(), eq(bonus), eq(bonus), any());
+        verify(dailyBalanceRepository).addToRollup(eq(result.getId()), any(), eq("BONUS_ABERTURA"), eq("CREDIT"), eq(0), eq(bonus));
     }
 
     @Test
@@ -149,4 +167,126 @@ class AccountServiceTest {
         assertTrue(result.isPresent());
         assertEquals(customerId, result.get().getCustomerId());
     }
+
+    @Test
+    @DisplayName("Should answer repeated logins with a single joined query")
+    void testLoginServedFromCache() {
+        // Arrange
+        LoginResponse login = new LoginResponse(accountId, "0001", "343316", "João Silva");
+        when(accountRepository.findLogin("0001", "343316")).thenReturn(Optional.of(login));
+
+        // Act
+        LoginResponse first = accountService.validateAndGetAccount("0001", "343316");
+        LoginResponse second = accountService.validateAndGetAccount("0001", "343316");
+
+        // Assert
+        assertEquals(accountId, first.getAccountId());
+        assertEquals("João Silva", first.getCustomerName());
+        assertSame(first, second);
+        verify(accountRepository, times(1)).findLogin("0001", "343316");
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Should absorb repeated failed logins in memory")
+    void testFailedLoginCached() {
+        // Arrange
+        when(accountRepository.findLogin("0001", "000000")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertThrows(NoSuchElementException.class,
+                () -> accountService.validateAndGetAccount("0001", "000000"));
+        }
+        verify(accountRepository, times(1)).findLogin("0001", "000000");
+    }
+
+    @Test
+    @DisplayName("Should forget a cached failed login only after the new account commits")
+    void testLoginCacheEvictedAfterCommit() {
+        // Arrange: o login da conta nova foi tentado antes dela existir
+        Account created = new Account();
+        created.setCustomerId(customerId);
+        created.prePersist();
+        LoginResponse login = new LoginResponse(created.getId(), created.getAgency(), created.getAccountNumber(), "João Silva");
+        when(customerRepository.existsById(customerId)).thenReturn(true);
+        when(accountRepository.existsByCustomerId(customerId)).thenReturn(false);
+        when(accountRepository.save(any(Account.class))).thenReturn(created);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(new Transaction());
+        when(accountRepository.findLogin(created.getAgency(), created.getAccountNumber()))
+            .thenReturn(Optional.empty(), Optional.of(login));
+        assertThrows(NoSuchElementException.class,
+            () -> accountService.validateAndGetAccount(created.getAgency(), created.getAccountNumber()));
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            accountService.create(validRequest);
+            // Antes do commit a conta ainda não é visível: o cache continua valendo
+            assertThrows(NoSuchElementException.class,
+                () -> accountService.validateAndGetAccount(created.getAgency(), created.getAccountNumber()));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        LoginResponse result = accountService.validateAndGetAccount(created.getAgency(), created.getAccountNumber());
+
+        // Assert
+        assertEquals(login, result);
+        verify(accountRepository, times(2)).findLogin(created.getAgency(), created.getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("Should return running balance with a single lookup")
+    void testGetBalance() {
+        // Arrange
+        when(accountRepository.findBalanceById(accountId)).thenReturn(Optional.of(new BigDecimal("150.00")));
+
+        // Act
+        BalanceResponse result = accountService.getBalance(accountId);
+
+        // Assert
+        assertEquals(accountId, result.accountId());
+        assertEquals(new BigDecimal("150.00"), result.balance());
+        verify(accountRepository, times(1)).findBalanceById(accountId);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when requesting balance of unknown account")
+    void testGetBalanceAccountNotFound() {
+        // Arrange
+        when(accountRepository.findBalanceById(accountId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> accountService.getBalance(accountId)
+        );
+        assertEquals("Conta não encontrada", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should build a weak ETag from the ledger version")
+    void testLedgerETag() {
+        // Arrange
+        when(accountRepository.findLedgerVersion(accountId)).thenReturn(Optional.of(42L));
+
+        // Act
+        String etag = accountService.ledgerETag(accountId);
+
+        // Assert
+        assertEquals("W/\"42\"", etag);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should return no ETag for an unknown account")
+    void testLedgerETagUnknownAccount() {
+        // Arrange
+        when(accountRepository.findLedgerVersion(accountId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertNull(accountService.ledgerETag(accountId));
+    }
 }
@@ -0,0 +1,89 @@
+package com.backend.keysbankapi.archive;
+
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Segment Tests")
+class SegmentTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+
+    // Na ordem de uuid do PostgreSQL o bit mais alto vem por último, ao contrário de UUID.compareTo
+    private static final UUID LOW_ACCOUNT = UUID.fromString("00000000-0000-7000-8000-000000000001");
+    private static final UUID HIGH_ACCOUNT = UUID.fromString("f0000000-0000-7000-8000-000000000001");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should read back each account's rows in statement order")
+    void testRoundTrip() throws Exception {
+        // Arrange
+        Path file = dir.resolve("transactions-2024-03.seg");
+        Instant t = Instant.parse("2024-03-20T10:15:30.123456Z");
+        UUID credit = UUID.randomUUID();
+        UUID debit = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        try (SegmentWriter writer = new SegmentWriter(file, MONTH)) {
+            writer.add(LOW_ACCOUNT, credit, "CREDIT", "DEPOSITO", new BigDecimal("150.25"), "Depósito", t);
+            writer.add(LOW_ACCOUNT, debit, "DEBIT", "PIX", new BigDecimal("0.99"), null, t.minusSeconds(3600));
+            writer.add(HIGH_ACCOUNT, other, "CREDIT", "SALARIO", new BigDecimal("5000.00"), "Salário de março", t.minusSeconds(86400));
+        }
+
+        // Act
+        Segment segment = Segment.open(file);
+        List<StatementItemResponse> low = segment.read(LOW_ACCOUNT);
+        List<StatementItemResponse> high = segment.read(HIGH_ACCOUNT);
+
+        // Assert
+        assertEquals(MONTH, segment.month());
+        assertEquals(3, segment.rowCount());
+        assertEquals(2, segment.accounts());
+        assertEquals(List.of(
+            new StatementItemResponse(credit, "CREDIT", "DEPOSITO", new BigDecimal("150.25"), "Depósito", t),
+            new StatementItemResponse(debit, "DEBIT", "PIX", new BigDecimal("0.99"), null, t.minusSeconds(3600))
+        ), low);
+        assertEquals(1, high.size());
+        assertEquals("Salário de março", high.get(0).description());
+        assertTrue(segment.read(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject accounts out of the database uuid order")
+    void testRejectsUnsortedAccounts() throws Exception {
+        // Arrange
+        Path file = dir.resolve("unsorted.seg");
+        Instant t = Instant.parse("2024-03-01T00:00:00Z");
+
+        // Act & Assert
+        try (SegmentWriter writer = new SegmentWriter(file, MONTH)) {
+            writer.add(HIGH_ACCOUNT, UUID.randomUUID(), "CREDIT", "DEPOSITO", BigDecimal.ONE, null, t);
+            assertThrows(IllegalArgumentException.class,
+                () -> writer.add(LOW_ACCOUNT, UUID.randomUUID(), "CREDIT", "DEPOSITO", BigDecimal.ONE, null, t));
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse files that are not complete segments")
+    void testRejectsTruncatedFile() throws Exception {
+        // Arrange
+        Path file = dir.resolve("truncated.seg");
+        Files.write(file, new byte[] { 0x4B, 0x42, 0x53, 0x45, 0x47 });
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> Segment.open(file));
+    }
+}
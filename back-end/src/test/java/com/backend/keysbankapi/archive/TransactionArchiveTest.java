@@ -0,0 +1,133 @@
+package com.backend.keysbankapi.archive;
+
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionArchive Tests")
+class TransactionArchiveTest {
+
+    private static final Instant OPEN_START = Instant.EPOCH;
+    private static final Instant OPEN_END = Instant.parse("9999-12-31T00:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path dir;
+
+    private TransactionArchive archive;
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        archive = new TransactionArchive(jdbcTemplate, dir.toString());
+        accountId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should read archived months newest first and stop at the limit")
+    void testReadsNewestMonthFirst() throws Exception {
+        // Arrange
+        List<StatementItemResponse> january = archiveMonth(YearMonth.of(2024, 1), 2);
+        List<StatementItemResponse> february = archiveMonth(YearMonth.of(2024, 2), 2);
+
+        // Act
+        List<StatementItemResponse> items = archive.read(accountId, null, OPEN_START, OPEN_END, null, null, 3);
+
+        // Assert
+        assertEquals(List.of(february.get(0), february.get(1), january.get(0)), items);
+        assertTrue(archive.contains(YearMonth.of(2024, 1)));
+        assertEquals(YearMonth.of(2024, 3).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant(), archive.newestEnd());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor position and apply the type filter")
+    void testReadsAfterCursorWithType() throws Exception {
+        // Arrange
+        List<StatementItemResponse> january = archiveMonth(YearMonth.of(2024, 1), 2);
+        List<StatementItemResponse> february = archiveMonth(YearMonth.of(2024, 2), 2);
+        StatementItemResponse cursor = february.get(0);
+
+        // Act
+        List<StatementItemResponse> items = archive.read(accountId, "DEBIT", OPEN_START, OPEN_END, cursor.createdAt(), cursor.transactionId(), 10);
+
+        // Assert
+        assertEquals(List.of(february.get(1), january.get(1)), items);
+    }
+
+    @Test
+    @DisplayName("Should serve reads from memory and pick up months archived elsewhere on refresh")
+    void testRefreshPicksUpMonthsArchivedElsewhere() throws Exception {
+        // Arrange: esta instância já leu a lista vazia; outra arquiva janeiro depois disso
+        YearMonth month = YearMonth.of(2024, 1);
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject("month", LocalDate.class)).thenReturn(month.atDay(1));
+        when(row.getString("file_name")).thenReturn(TransactionArchiver.fileName(month));
+        doNothing().doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT month, file_name"), any(RowCallbackHandler.class));
+        assertFalse(archive.hasMonths());
+        List<StatementItemResponse> january = writeMonth(month, 2);
+
+        // Act
+        boolean beforeRefresh = archive.contains(month);
+        archive.refresh();
+        boolean afterRefresh = archive.contains(month);
+        List<StatementItemResponse> items = archive.read(accountId, null, OPEN_START, OPEN_END, null, null, 10);
+
+        // Assert: as leituras não vão ao banco; só a primeira carga e o refresh leem a lista
+        assertFalse(beforeRefresh);
+        assertTrue(afterRefresh);
+        assertEquals(january, items);
+        verify(jdbcTemplate, times(2)).query(startsWith("SELECT month, file_name"), any(RowCallbackHandler.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    // Grava um mês com lançamentos alternando crédito e débito, do mais recente para o mais antigo
+    private List<StatementItemResponse> archiveMonth(YearMonth month, int size) throws Exception {
+        List<StatementItemResponse> items = writeMonth(month, size);
+        archive.register(month, Segment.open(dir.resolve(TransactionArchiver.fileName(month))));
+        return items;
+    }
+
+    private List<StatementItemResponse> writeMonth(YearMonth month, int size) throws Exception {
+        Path file = dir.resolve(TransactionArchiver.fileName(month));
+        Instant newest = month.atDay(20).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        List<StatementItemResponse> items = new ArrayList<>();
+        try (SegmentWriter writer = new SegmentWriter(file, month)) {
+            for (int i = 0; i < size; i++) {
+                StatementItemResponse item = new StatementItemResponse(
+                    UUID.randomUUID(), i % 2 == 0 ? "CREDIT" : "DEBIT", "DEPOSITO", new BigDecimal("10.00"), null, newest.minusSeconds(i * 60L));
+                writer.add(accountId, item.transactionId(), item.type(), item.category(), item.amount(), item.description(), item.createdAt());
+                items.add(item);
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,147 @@
+package com.backend.keysbankapi.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionControlFilter Tests")
+class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should reject with 503 when every slot is taken and the wait expires")
+    void testRejectsWhenFull() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ZERO, registry);
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+        AtomicInteger handled = new AtomicInteger();
+
+        // Act: a segunda requisição chega enquanto a primeira ainda ocupa a única vaga
+        filter.doFilter(new MockHttpServletRequest("GET", "/accounts/1/balance"), new MockHttpServletResponse(),
+            (req, res) -> {
+                handled.incrementAndGet();
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/accounts/2/balance"), inner,
+                        (innerReq, innerRes) -> handled.incrementAndGet());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+        // Assert
+        assertEquals(1, handled.get());
+        assertEquals(503, inner.getStatus());
+        assertEquals("1", inner.getHeader("Retry-After"));
+        assertTrue(inner.getContentAsString().contains("\"path\":\"/accounts/2/balance\""));
+        assertEquals(1.0, registry.get("keysbank.admission.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should release the slot when the request finishes")
+    void testReleasesSlot() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ZERO, registry);
+        AtomicInteger handled = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("POST", "/transaction"), response,
+                (req, res) -> handled.incrementAndGet());
+            assertEquals(200, response.getStatus());
+        }
+
+        // Assert
+        assertEquals(3, handled.get());
+        assertEquals(0.0, registry.get("keysbank.admission.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should hold the slot of a streaming response until async processing completes")
+    void testHoldsSlotUntilAsyncCompletes() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ZERO, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/1/statement/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse blocked = new MockHttpServletResponse();
+
+        // Act: a exportação começa o assíncrono e a thread da requisição volta antes do corpo terminar
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        filter.doFilter(new MockHttpServletRequest("GET", "/accounts/2/balance"), blocked, (req, res) -> { });
+        double activeWhileStreaming = registry.get("keysbank.admission.active").gauge().value();
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        asyncContext.complete();
+
+        // Assert
+        assertEquals(1.0, activeWhileStreaming);
+        assertEquals(503, blocked.getStatus());
+        assertEquals(0.0, registry.get("keysbank.admission.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should not spend a slot on CORS preflight requests")
+    void testSkipsPreflight() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ZERO, registry);
+        MockHttpServletResponse preflight = new MockHttpServletResponse();
+        AtomicInteger handled = new AtomicInteger();
+
+        // Act: o preflight chega com a única vaga ocupada
+        filter.doFilter(new MockHttpServletRequest("GET", "/accounts/1/balance"), new MockHttpServletResponse(),
+            (req, res) -> {
+                handled.incrementAndGet();
+                try {
+                    filter.doFilter(new MockHttpServletRequest("OPTIONS", "/accounts/2/balance"), preflight,
+                        (innerReq, innerRes) -> handled.incrementAndGet());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+        // Assert
+        assertEquals(2, handled.get());
+        assertEquals(200, preflight.getStatus());
+        assertEquals(0.0, registry.get("keysbank.admission.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should let every request through when the limit is disabled")
+    void testDisabled() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = new AdmissionControlFilter(0, Duration.ZERO, registry);
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+        AtomicInteger handled = new AtomicInteger();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/accounts/1/balance"), new MockHttpServletResponse(),
+            (req, res) -> {
+                handled.incrementAndGet();
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/accounts/2/balance"), inner,
+                        (innerReq, innerRes) -> handled.incrementAndGet());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+        // Assert
+        assertEquals(2, handled.get());
+        assertEquals(200, inner.getStatus());
+        assertEquals(0, registry.find("keysbank.admission.waiting").gauges().size());
+    }
+}
@@ -0,0 +1,66 @@
+package com.backend.keysbankapi.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UuidV7 Tests")
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Should set version 7 and RFC 4122 variant")
+    void testVersionAndVariant() {
+        UUID id = UuidV7.next();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    @DisplayName("Should embed the current time in milliseconds")
+    void testTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        long millis = UuidV7.timestampMillis(id);
+        assertTrue(millis >= before, "timestamp antes do esperado");
+        // pode adiantar alguns ms se a sequência estourou
+        assertTrue(millis <= after + 5, "timestamp depois do esperado");
+    }
+
+    @Test
+    @DisplayName("Should be strictly increasing within a node")
+    void testMonotonic() {
+        UUID previous = UuidV7.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID current = UuidV7.next();
+            // compara como o PostgreSQL compara uuid: bytes sem sinal, do mais significativo ao menos
+            assertTrue(Long.compareUnsigned(current.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                "id " + current + " não é maior que " + previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    @DisplayName("Should not repeat ids across threads")
+    void testUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 8).parallel().forEach(t -> {
+            for (int i = 0; i < 20_000; i++) {
+                ids.add(UuidV7.next());
+            }
+        });
+        assertEquals(160_000, ids.size());
+
+        List<UUID> sample = List.of(UuidV7.next(), UuidV7.next(), UuidV7.next());
+        assertEquals(3, new HashSet<>(sample).size());
+    }
+}
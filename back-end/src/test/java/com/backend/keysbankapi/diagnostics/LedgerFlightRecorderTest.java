@@ -0,0 +1,93 @@
+package com.backend.keysbankapi.diagnostics;
+
+import com.backend.keysbankapi.diagnostics.LedgerOperation.Kind;
+import com.backend.keysbankapi.diagnostics.dto.SlowOperationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LedgerFlightRecorder Tests")
+class LedgerFlightRecorderTest {
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should keep only operations above the slow threshold")
+    void testKeepsOnlySlowOperations() {
+        // Arrange
+        LedgerFlightRecorder recorder = new LedgerFlightRecorder(8, Duration.ofMillis(100));
+        LedgerOperation fast = recorder.start(Kind.POSTING, accountId).variant("increment").addRows(4);
+        LedgerOperation slow = recorder.start(Kind.STATEMENT_QUERY, accountId).variant("all-with-balances").addRows(120);
+
+        // Act
+        recorder.finished(fast, Duration.ofMillis(5).toNanos());
+        recorder.finished(slow, Duration.ofMillis(250).toNanos());
+        List<SlowOperationResponse> result = recorder.slowest(10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("statement-query", result.get(0).operation());
+        assertEquals(accountId, result.get(0).accountId());
+        assertEquals("all-with-balances", result.get(0).variant());
+        assertEquals(120, result.get(0).rows());
+        assertEquals(250.0, result.get(0).durationMs());
+    }
+
+    @Test
+    @DisplayName("Should return the slowest operations first, up to the limit")
+    void testSlowestFirst() {
+        // Arrange
+        LedgerFlightRecorder recorder = new LedgerFlightRecorder(8, Duration.ZERO);
+        recorder.finished(recorder.start(Kind.POSTING, accountId).variant("seed"), Duration.ofMillis(30).toNanos());
+        recorder.finished(recorder.start(Kind.POSTING, accountId).variant("shard"), Duration.ofMillis(90).toNanos());
+        recorder.finished(recorder.start(Kind.POSTING, accountId).variant("increment"), Duration.ofMillis(60).toNanos());
+
+        // Act
+        List<SlowOperationResponse> result = recorder.slowest(2);
+
+        // Assert
+        assertEquals(List.of("shard", "increment"), result.stream().map(SlowOperationResponse::variant).toList());
+    }
+
+    @Test
+    @DisplayName("Should overwrite the oldest operation when the buffer is full")
+    void testOverwritesOldest() {
+        // Arrange
+        LedgerFlightRecorder recorder = new LedgerFlightRecorder(2, Duration.ZERO);
+
+        // Act
+        recorder.finished(recorder.start(Kind.BALANCE_RECOMPUTE, accountId).variant("first"), 1_000_000_000L);
+        recorder.finished(recorder.start(Kind.BALANCE_RECOMPUTE, accountId).variant("second"), 10L);
+        recorder.finished(recorder.start(Kind.BALANCE_RECOMPUTE, accountId).variant("third"), 20L);
+        List<SlowOperationResponse> result = recorder.slowest(10);
+
+        // Assert
+        assertEquals(List.of("third", "second"), result.stream().map(SlowOperationResponse::variant).toList());
+    }
+
+    @Test
+    @DisplayName("Should record an operation once even if ended twice")
+    void testEndIsIdempotent() {
+        // Arrange
+        LedgerFlightRecorder recorder = new LedgerFlightRecorder(8, Duration.ZERO);
+        LedgerOperation operation = recorder.start(Kind.POSTING, accountId).variant("increment");
+
+        // Act
+        operation.end();
+        operation.end();
+
+        // Assert
+        assertEquals(1, recorder.slowest(10).size());
+    }
+}
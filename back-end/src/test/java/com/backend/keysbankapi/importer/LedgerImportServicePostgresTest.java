@@ -0,0 +1,194 @@
+package com.backend.keysbankapi.importer;
+
+import com.backend.keysbankapi.PostgresIntegrationTest;
+import com.backend.keysbankapi.common.UuidV7;
+import com.backend.keysbankapi.importer.dto.ImportStatusResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LedgerImportService (PostgreSQL)")
+class LedgerImportServicePostgresTest extends PostgresIntegrationTest {
+
+    private static final LocalDate DAY_ONE = LocalDate.of(2020, 3, 10);
+    private static final LocalDate DAY_TWO = LocalDate.of(2020, 3, 11);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @TempDir
+    Path base;
+
+    private LedgerImportService service;
+    private Path dir;
+    private UUID customerId;
+    private UUID accountId;
+    private UUID creditId;
+    private UUID correlationId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new LedgerImportService(dataSource, base.toString());
+        dir = Files.createDirectory(base.resolve("legado"));
+        customerId = UuidV7.next();
+        accountId = UuidV7.next();
+        creditId = UuidV7.next();
+        correlationId = UUID.randomUUID();
+
+        Files.writeString(dir.resolve("customers.csv"), """
+            id,name,email,created_at
+            %s,Cliente legado,legado-%s@test.local,2020-03-01 09:00:00
+            """.formatted(customerId, customerId));
+        Files.writeString(dir.resolve("accounts.csv"), """
+            id,customer_id,agency,account_number,status,created_at
+            %s,%s,9994,L%s,ATIVA,2020-03-01 09:00:00
+            """.formatted(accountId, customerId, accountId));
+        Files.writeString(dir.resolve("transactions.csv"), """
+            id,account_id,type,category,amount,description,correlation_id,created_at
+            %s,%s,CREDIT,DEPOSITO,100.00,Depósito,%s,%s 10:00:00
+            %s,%s,DEBIT,SAQUE,30.00,Saque,,%s 15:00:00
+            %s,%s,CREDIT,DEPOSITO,50.00,Depósito,,%s 11:00:00
+            """.formatted(
+                creditId, accountId, correlationId, DAY_ONE,
+                UuidV7.next(), accountId, DAY_ONE,
+                UuidV7.next(), accountId, DAY_TWO));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transaction_idempotency_keys WHERE correlation_id = ?", correlationId);
+        jdbcTemplate.update("DELETE FROM ledger_daily_rollups WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM account_daily_balances WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", customerId);
+        jdbcTemplate.update("DELETE FROM import_checkpoints WHERE file_name LIKE 'legado/%'");
+    }
+
+    @Test
+    @DisplayName("Should load the files, checkpoint each one and rebuild balances, rollups and idempotency keys")
+    void testImportsAndRebuilds() throws Exception {
+        // Act
+        ImportStatusResponse status = runImport();
+
+        // Assert
+        assertEquals("COMPLETED", status.state(), status.error());
+        assertEquals(3, status.filesLoaded());
+        assertEquals(5, status.rowsLoaded());
+        assertEquals(List.of("legado/accounts.csv", "legado/customers.csv", "legado/transactions.csv"),
+            jdbcTemplate.queryForList("SELECT file_name FROM import_checkpoints WHERE file_name LIKE 'legado/%' ORDER BY file_name", String.class));
+
+        // Saldo corrente e saldo de cada dia (líquido do dia) a partir dos lançamentos importados
+        assertAmount("120.00", jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId));
+        Map<LocalDate, BigDecimal> days = new TreeMap<>();
+        jdbcTemplate.query("SELECT day, balance FROM account_daily_balances WHERE account_id = ?",
+            rs -> { days.put(rs.getObject("day", LocalDate.class), rs.getBigDecimal("balance")); }, accountId);
+        assertEquals(2, days.size());
+        assertAmount("70.00", days.get(DAY_ONE));
+        assertAmount("50.00", days.get(DAY_TWO));
+
+        // Rollups por dia, categoria e tipo, todos na parcela 0
+        List<Map<String, Object>> rollups = jdbcTemplate.queryForList(
+            "SELECT day, category, type, shard, total, tx_count FROM ledger_daily_rollups WHERE account_id = ? ORDER BY day, type",
+            accountId);
+        assertEquals(3, rollups.size());
+        assertRollup(rollups.get(0), DAY_ONE, "DEPOSITO", "CREDIT", "100.00");
+        assertRollup(rollups.get(1), DAY_ONE, "SAQUE", "DEBIT", "30.00");
+        assertRollup(rollups.get(2), DAY_TWO, "DEPOSITO", "CREDIT", "50.00");
+
+        // A chave de idempotência importada aponta para o lançamento
+        assertEquals(creditId, jdbcTemplate.queryForObject(
+            "SELECT transaction_id FROM transaction_idempotency_keys WHERE correlation_id = ?", UUID.class, correlationId));
+    }
+
+    @Test
+    @DisplayName("Should skip files already checkpointed by an interrupted run")
+    void testResumesFromCheckpoint() throws Exception {
+        // Arrange: a execução anterior carregou clientes e contas e caiu nos lançamentos
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Cliente legado', ?)",
+            customerId, "legado-" + customerId + "@test.local");
+        jdbcTemplate.update("INSERT INTO accounts (id, customer_id, agency, account_number, status) VALUES (?, ?, '9994', ?, 'ATIVA')",
+            accountId, customerId, "L" + accountId);
+        checkpoint("customers.csv", "customers", 1);
+        checkpoint("accounts.csv", "accounts", 1);
+
+        // Act: sem pular, o COPY de clientes e contas violaria a chave primária
+        ImportStatusResponse status = runImport();
+
+        // Assert
+        assertEquals("COMPLETED", status.state(), status.error());
+        assertEquals(2, status.filesSkipped());
+        assertEquals(1, status.filesLoaded());
+        assertEquals(3, status.rowsLoaded());
+        assertAmount("120.00", jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId));
+    }
+
+    @Test
+    @DisplayName("Should reload a file whose size changed since the checkpoint")
+    void testReloadsChangedFile() throws Exception {
+        // Arrange: checkpoint de uma versão anterior, menor, do arquivo de clientes
+        jdbcTemplate.update("INSERT INTO import_checkpoints (file_name, file_size, table_name, rows_loaded) VALUES (?, ?, 'customers', 0)",
+            "legado/customers.csv", Files.size(dir.resolve("customers.csv")) - 1);
+
+        // Act
+        ImportStatusResponse status = runImport();
+
+        // Assert
+        assertEquals("COMPLETED", status.state(), status.error());
+        assertEquals(0, status.filesSkipped());
+        assertEquals(3, status.filesLoaded());
+    }
+
+    private ImportStatusResponse runImport() throws InterruptedException {
+        service.start("legado");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            ImportStatusResponse status = service.status();
+            if (status.finishedAt() != null) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        return fail("Importação não terminou em 30s");
+    }
+
+    private void checkpoint(String file, String table, long rows) throws Exception {
+        jdbcTemplate.update("INSERT INTO import_checkpoints (file_name, file_size, table_name, rows_loaded) VALUES (?, ?, ?, ?)",
+            "legado/" + file, Files.size(dir.resolve(file)), table, rows);
+    }
+
+    private static void assertRollup(Map<String, Object> row, LocalDate day, String category, String type, String total) {
+        assertEquals(day, ((Date) row.get("day")).toLocalDate());
+        assertEquals(category, row.get("category"));
+        assertEquals(type, row.get("type"));
+        assertEquals(0, ((Number) row.get("shard")).intValue());
+        assertAmount(total, (BigDecimal) row.get("total"));
+        assertEquals(1L, ((Number) row.get("tx_count")).longValue());
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertNotNull(actual);
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "esperado " + expected + ", obtido " + actual);
+    }
+}
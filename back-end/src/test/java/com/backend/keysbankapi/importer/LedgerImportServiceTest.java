@@ -0,0 +1,56 @@
+package com.backend.keysbankapi.importer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LedgerImportService Tests")
+class LedgerImportServiceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @TempDir
+    Path root;
+
+    private LedgerImportService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path base = Files.createDirectory(root.resolve("import"));
+        Files.createDirectory(root.resolve("outside"));
+        service = new LedgerImportService(dataSource, base.toString());
+    }
+
+    @Test
+    @DisplayName("Should reject directories that escape the import base directory")
+    void testRejectsPathTraversal() {
+        // Act & Assert: o diretório existe, mas fora da base
+        for (String directory : new String[] {"../outside", "legado/../../outside", root.resolve("outside").toString()}) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> service.start(directory));
+            assertEquals("Diretório de importação inválido", exception.getMessage(), directory);
+        }
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    @DisplayName("Should reject a directory that does not exist")
+    void testRejectsMissingDirectory() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> service.start("legado-2026-01"));
+        assertEquals("Diretório de importação inválido", exception.getMessage());
+        verifyNoInteractions(dataSource);
+    }
+}
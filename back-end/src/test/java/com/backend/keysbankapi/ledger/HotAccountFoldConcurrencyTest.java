@@ -0,0 +1,161 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.PostgresIntegrationTest;
+import com.backend.keysbankapi.common.UuidV7;
+import com.backend.keysbankapi.ledger.TransactionRepositoryCustom.PostingOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hot account fold vs debit (PostgreSQL)")
+class HotAccountFoldConcurrencyTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID accountId;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Conta quente', ?)",
+            accountId, "fold-" + accountId + "@test.local");
+        // Conta quente com 100,00 só nas parcelas e nada na linha da conta
+        jdbcTemplate.update("""
+            INSERT INTO accounts (id, customer_id, agency, account_number, status, balance, balance_shards)
+            VALUES (?, ?, '9996', ?, 'ATIVA', 0, 16)
+            """, accountId, accountId, "F" + accountId);
+        jdbcTemplate.update("""
+            INSERT INTO account_balance_shards (account_id, shard, balance, ledger_version)
+            VALUES (?, 0, 60.00, 1), (?, 1, 40.00, 1)
+            """, accountId, accountId);
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        jdbcTemplate.update("DELETE FROM transactions WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM account_balance_shards WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", accountId);
+    }
+
+    @Test
+    @DisplayName("Should not count shards twice when a fold commits while a debit waits on the account row")
+    void testFoldBetweenDebits() throws Exception {
+        // Arrange: um débito de 100,00 consome tudo e segura a linha da conta até o commit
+        CountDownLatch debited = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<PostingOutcome> first = heldDebit("100.00", debited, release);
+        assertTrue(debited.await(10, TimeUnit.SECONDS));
+
+        // Act: a devolução das parcelas e um segundo débito de 100,00 esperam o primeiro, nessa ordem
+        Future<Integer> fold = executor.submit(() -> jdbcTemplate.update(HotAccountTracker.FOLD_BALANCE_SHARDS, accountId, accountId));
+        awaitBlockedSessions(1);
+        Future<PostingOutcome> second = executor.submit(() -> post(debit("100.00")));
+        awaitBlockedSessions(2);
+        release.countDown();
+
+        // Assert: o segundo débito não vê 100,00 na conta (devolvidos) e de novo nas parcelas
+        assertEquals(PostingOutcome.POSTED, first.get(10, TimeUnit.SECONDS));
+        assertEquals(PostingOutcome.INSUFFICIENT_FUNDS, second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, fold.get(10, TimeUnit.SECONDS));
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountBalance()));
+        assertEquals(0, shardCount());
+    }
+
+    @Test
+    @DisplayName("Should fold the shards after an in-flight debit commits")
+    void testFoldWaitingOnDebit() throws Exception {
+        // Arrange: débito lançado e ainda sem commit
+        CountDownLatch debited = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<PostingOutcome> debit = heldDebit("80.00", debited, release);
+        assertTrue(debited.await(10, TimeUnit.SECONDS));
+
+        // Act: a devolução espera o débito
+        Future<Integer> fold = executor.submit(() -> jdbcTemplate.update(HotAccountTracker.FOLD_BALANCE_SHARDS, accountId, accountId));
+        awaitBlockedSessions(1);
+        release.countDown();
+
+        // Assert
+        assertEquals(PostingOutcome.POSTED, debit.get(10, TimeUnit.SECONDS));
+        assertEquals(1, fold.get(10, TimeUnit.SECONDS));
+        assertEquals(0, new BigDecimal("20.00").compareTo(accountBalance()));
+        assertEquals(0, shardCount());
+    }
+
+    // Débito em uma transação que só termina quando release é liberado
+    private Future<PostingOutcome> heldDebit(String amount, CountDownLatch debited, CountDownLatch release) {
+        return executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            PostingOutcome outcome = transactionRepository.post(debit(amount));
+            debited.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return outcome;
+        }));
+    }
+
+    private PostingOutcome post(Transaction tx) {
+        return new TransactionTemplate(transactionManager).execute(status -> transactionRepository.post(tx));
+    }
+
+    private Transaction debit(String amount) {
+        Transaction tx = new Transaction();
+        tx.setAccountId(accountId);
+        tx.setType("DEBIT");
+        tx.setCategory("PAGAMENTO_CONTA");
+        tx.setAmount(new BigDecimal(amount));
+        tx.prePersist();
+        return tx;
+    }
+
+    private BigDecimal accountBalance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+
+    private int shardCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM account_balance_shards WHERE account_id = ?", Integer.class, accountId);
+    }
+
+    // Espera até {@code sessions} sessões do banco ficarem paradas em uma trava
+    private void awaitBlockedSessions(int sessions) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Integer blocked = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock' AND datname = current_database()",
+                Integer.class);
+            if (blocked != null && blocked >= sessions) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Esperando " + sessions + " sessões paradas em travas");
+    }
+}
@@ -0,0 +1,120 @@
+package com.backend.keysbankapi.ledger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HotAccountTracker Tests")
+class HotAccountTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private HotAccountTracker tracker;
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HotAccountTracker(jdbcTemplate, transactionManager, 16, 50, 10);
+        accountId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should promote an account whose write rate crosses the threshold")
+    void testPromoteBusyAccount() {
+        // Arrange
+        for (int i = 0; i < 1_000; i++) {
+            tracker.recordWrite(accountId);
+        }
+
+        // Act
+        tracker.evaluate();
+
+        // Assert
+        assertEquals(16, tracker.shardsFor(accountId));
+        verify(jdbcTemplate).update(startsWith("UPDATE accounts SET balance_shards = ?"), eq(16), eq(accountId));
+    }
+
+    @Test
+    @DisplayName("Should keep quiet accounts in normal mode")
+    void testQuietAccountStaysNormal() {
+        // Arrange
+        tracker.recordWrite(accountId);
+
+        // Act
+        tracker.evaluate();
+
+        // Assert
+        assertEquals(1, tracker.shardsFor(accountId));
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE accounts SET balance_shards = ?"), eq(16), eq(accountId));
+    }
+
+    @Test
+    @DisplayName("Should demote an idle hot account and fold its shards back")
+    void testDemoteIdleAccount() throws Exception {
+        // Arrange
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject(1, UUID.class)).thenReturn(accountId);
+        when(row.getInt(2)).thenReturn(16);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, balance_shards"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class))).thenReturn(List.of(accountId));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*) FROM transactions"), eq(Long.class), eq(accountId), any(Timestamp.class)))
+            .thenReturn(0L);
+
+        // Act
+        tracker.evaluate();
+
+        // Assert
+        assertEquals(1, tracker.shardsFor(accountId));
+        verify(jdbcTemplate).update("UPDATE accounts SET balance_shards = 1 WHERE id = ?", accountId);
+        verify(jdbcTemplate).update(contains("DELETE FROM account_balance_shards"), eq(accountId), eq(accountId));
+        verify(jdbcTemplate).update(contains("DELETE FROM account_daily_balance_shards"), eq(accountId), eq(accountId));
+    }
+
+    @Test
+    @DisplayName("Should keep a hot account busy on other instances even if this one sees no writes")
+    void testKeepAccountPromotedElsewhere() throws Exception {
+        // Arrange: promovida por outra instância, que recebe todos os lançamentos
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject(1, UUID.class)).thenReturn(accountId);
+        when(row.getInt(2)).thenReturn(16);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, balance_shards"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*) FROM transactions"), eq(Long.class), eq(accountId), any(Timestamp.class)))
+            .thenReturn(5_000L);
+
+        // Act
+        tracker.evaluate();
+
+        // Assert
+        assertEquals(16, tracker.shardsFor(accountId));
+        verify(jdbcTemplate, never()).update("UPDATE accounts SET balance_shards = 1 WHERE id = ?", accountId);
+    }
+}
@@ -0,0 +1,113 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.PostgresIntegrationTest;
+import com.backend.keysbankapi.common.UuidV7;
+import com.backend.keysbankapi.ledger.dto.MonthlySummaryResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Monthly summary (PostgreSQL)")
+class MonthlySummaryPostgresTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementService statementService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Resumo', ?)",
+            accountId, "summary-" + accountId + "@test.local");
+        // Saldo total 120,00: 90,00 na linha da conta e 30,00 de um crédito de conta quente ainda na parcela
+        jdbcTemplate.update("""
+            INSERT INTO accounts (id, customer_id, agency, account_number, status, balance, balance_shards)
+            VALUES (?, ?, '9991', ?, 'ATIVA', 90.00, 16)
+            """, accountId, accountId, "S" + accountId);
+        jdbcTemplate.update("INSERT INTO account_balance_shards (account_id, shard, balance, ledger_version) VALUES (?, 3, 30.00, 1)",
+            accountId);
+
+        // Abril: +100,00 e -30,00; maio: +20,00 na conta e +30,00 na parcela do dia
+        post(LocalDate.of(2022, 4, 10), "CREDIT", "100.00");
+        post(LocalDate.of(2022, 4, 20), "DEBIT", "30.00");
+        post(LocalDate.of(2022, 5, 5), "CREDIT", "20.00");
+        post(LocalDate.of(2022, 5, 5), "CREDIT", "30.00");
+        day(LocalDate.of(2022, 4, 10), "100.00");
+        day(LocalDate.of(2022, 4, 20), "-30.00");
+        day(LocalDate.of(2022, 5, 5), "20.00");
+        jdbcTemplate.update("""
+            INSERT INTO account_daily_balance_shards (account_id, day, shard, balance, updated_at)
+            VALUES (?, ?, 3, 30.00, now())
+            """, accountId, Date.valueOf(LocalDate.of(2022, 5, 5)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM account_daily_balance_shards WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM account_daily_balances WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM account_balance_shards WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", accountId);
+    }
+
+    @Test
+    @DisplayName("Should close a past month with the balance at its last day, not the last day's movement")
+    void testClosingBalanceOfPastMonth() {
+        // Act
+        MonthlySummaryResponse summary = statementService.getMonthlySummary(accountId, YearMonth.of(2022, 4));
+
+        // Assert
+        assertAmount("100.00", summary.creditTotal());
+        assertAmount("30.00", summary.debitTotal());
+        assertEquals(2L, summary.transactionCount());
+        assertAmount("70.00", summary.closingBalance());
+    }
+
+    @Test
+    @DisplayName("Should count the hot account shards in the closing balance")
+    void testClosingBalanceWithShards() {
+        // Act
+        MonthlySummaryResponse may = statementService.getMonthlySummary(accountId, YearMonth.of(2022, 5));
+        MonthlySummaryResponse march = statementService.getMonthlySummary(accountId, YearMonth.of(2022, 3));
+
+        // Assert
+        assertEquals(2L, may.transactionCount());
+        assertAmount("120.00", may.closingBalance());
+        assertEquals(0L, march.transactionCount());
+        assertAmount("0.00", march.closingBalance());
+    }
+
+    private void post(LocalDate day, String type, String amount) {
+        jdbcTemplate.update("""
+            INSERT INTO transactions (id, account_id, type, category, amount, description, created_at)
+            VALUES (?, ?, ?, 'DEPOSITO', ?, 'Lançamento', ?)
+            """, UuidV7.next(), accountId, type, new BigDecimal(amount), Timestamp.valueOf(day.atTime(12, 0)));
+    }
+
+    private void day(LocalDate day, String balance) {
+        jdbcTemplate.update("INSERT INTO account_daily_balances (account_id, day, balance, updated_at) VALUES (?, ?, ?, now())",
+            accountId, Date.valueOf(day), new BigDecimal(balance));
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertNotNull(actual);
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "esperado " + expected + ", obtido " + actual);
+    }
+}
@@ -0,0 +1,152 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.PostgresIntegrationTest;
+import com.backend.keysbankapi.common.UuidV7;
+import com.backend.keysbankapi.ledger.StatementExportService.Format;
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatementExportService (PostgreSQL)")
+class StatementExportPostgresTest extends PostgresIntegrationTest {
+
+    private static final LocalDate DAY_ONE = LocalDate.of(2021, 5, 3);
+    private static final LocalDate DAY_TWO = LocalDate.of(2021, 5, 4);
+    private static final LocalDate DAY_THREE = LocalDate.of(2021, 5, 5);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementExportService exportService;
+
+    @Autowired
+    private StatementService statementService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Exportação', ?)",
+            accountId, "export-" + accountId + "@test.local");
+        jdbcTemplate.update("""
+            INSERT INTO accounts (id, customer_id, agency, account_number, status, balance)
+            VALUES (?, ?, '9993', ?, 'ATIVA', 0)
+            """, accountId, accountId, "E" + accountId);
+
+        // Três dias com créditos e débitos e o saldo de cada dia gravado depois do último lançamento
+        BigDecimal balance = BigDecimal.ZERO;
+        for (LocalDate day : List.of(DAY_ONE, DAY_TWO, DAY_THREE)) {
+            balance = balance.add(insert("CREDIT", "DEPOSITO", "100.00", day.atTime(9, 0)));
+            balance = balance.add(insert("DEBIT", "PIX", "30.00", day.atTime(12, 30)));
+            balance = balance.add(insert("CREDIT", "TRANSFERENCIA", "15.50", day.atTime(18, 45)));
+            jdbcTemplate.update("INSERT INTO account_daily_balances (account_id, day, balance, updated_at) VALUES (?, ?, ?, ?)",
+                accountId, Date.valueOf(day), balance, Timestamp.valueOf(day.atTime(18, 45, 1)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM account_daily_balances WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", accountId);
+    }
+
+    @Test
+    @DisplayName("Should export the same items, in the same order, as the filtered statement")
+    void testExportMatchesFilteredStatement() throws Exception {
+        // Sem filtros, por período, por tipo, tipo e período, e só saldos diários com e sem período
+        assertSameAsStatement(null, null, null, 12);
+        assertSameAsStatement(DAY_TWO, DAY_THREE, null, 8);
+        assertSameAsStatement(null, null, "CREDIT", 6);
+        assertSameAsStatement(DAY_TWO, DAY_THREE, "DEBIT", 2);
+        assertSameAsStatement(null, null, "BALANCE", 3);
+        assertSameAsStatement(DAY_TWO, DAY_TWO, "BALANCE", 1);
+    }
+
+    @Test
+    @DisplayName("Should break created_at ties by descending id, like the paginated statement")
+    void testExportBreaksTiesById() throws Exception {
+        // Arrange: dois créditos no mesmo instante; o UUID v7 gerado depois é o maior
+        LocalDate day = DAY_THREE.plusDays(1);
+        Timestamp sameInstant = Timestamp.valueOf(day.atTime(10, 0));
+        UUID older = UuidV7.next();
+        UUID newer = UuidV7.next();
+        for (UUID id : List.of(older, newer)) {
+            jdbcTemplate.update("""
+                INSERT INTO transactions (id, account_id, type, category, amount, description, created_at)
+                VALUES (?, ?, 'CREDIT', 'DEPOSITO', 10.00, 'Empate', ?)
+                """, id, accountId, sameInstant);
+        }
+
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(accountId, day, day, "CREDIT", Format.CSV).writeTo(out);
+        List<String> lines = Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n"));
+
+        // Assert
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith(newer.toString()));
+        assertTrue(lines.get(2).startsWith(older.toString()));
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown account before streaming")
+    void testUnknownAccount() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> exportService.export(UuidV7.next(), null, null, null, Format.CSV));
+        assertEquals("Conta não encontrada", exception.getMessage());
+    }
+
+    private void assertSameAsStatement(LocalDate start, LocalDate end, String type, int expectedSize) throws Exception {
+        // Arrange
+        List<String> expected = statementService.getStatementFiltered(accountId, start, end, type).stream()
+            .map(StatementExportPostgresTest::csvLine)
+            .toList();
+
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(accountId, start, end, type, Format.CSV).writeTo(out);
+        List<String> lines = Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n"));
+
+        // Assert
+        String filter = start + ".." + end + " type=" + type;
+        assertEquals("transactionId,type,category,amount,description,createdAt", lines.get(0), filter);
+        assertEquals(expectedSize, expected.size(), filter);
+        assertEquals(expected, lines.subList(1, lines.size()), filter);
+    }
+
+    private BigDecimal insert(String type, String category, String amount, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+            INSERT INTO transactions (id, account_id, type, category, amount, description, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """, UuidV7.next(), accountId, type, category, new BigDecimal(amount), "Lançamento " + category,
+            Timestamp.valueOf(createdAt));
+        return TransactionService.signedAmount(type, new BigDecimal(amount));
+    }
+
+    private static String csvLine(StatementItemResponse item) {
+        return item.transactionId() + "," + item.type() + "," + item.category() + "," + item.amount().toPlainString()
+            + "," + item.description() + "," + item.createdAt();
+    }
+}
@@ -0,0 +1,37 @@
+package com.backend.keysbankapi.ledger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatementExportService Tests")
+class StatementExportServiceTest {
+
+    @Test
+    @DisplayName("Should parse supported export formats")
+    void testParseFormat() {
+        assertEquals(StatementExportService.Format.NDJSON, StatementExportService.parseFormat(null));
+        assertEquals(StatementExportService.Format.NDJSON, StatementExportService.parseFormat("ndjson"));
+        assertEquals(StatementExportService.Format.CSV, StatementExportService.parseFormat("CSV"));
+        assertThrows(IllegalArgumentException.class, () -> StatementExportService.parseFormat("xml"));
+    }
+
+    @Test
+    @DisplayName("Should quote CSV fields only when needed")
+    void testCsvEscaping() {
+        assertEquals("SAQUE", StatementExportService.csv("SAQUE"));
+        assertEquals("\"Pagamento, conta\"", StatementExportService.csv("Pagamento, conta"));
+        assertEquals("\"Loja \"\"Central\"\"\"", StatementExportService.csv("Loja \"Central\""));
+        assertEquals("", StatementExportService.csv(null));
+    }
+
+    @Test
+    @DisplayName("Should escape JSON strings")
+    void testJsonEscaping() {
+        assertEquals("\"Depósito\"", StatementExportService.json("Depósito"));
+        assertEquals("\"a\\\"b\\\\c\\nd\"", StatementExportService.json("a\"b\\c\nd"));
+        assertEquals("\"\\u0001\"", StatementExportService.json("\u0001"));
+        assertEquals("null", StatementExportService.json(null));
+    }
+}
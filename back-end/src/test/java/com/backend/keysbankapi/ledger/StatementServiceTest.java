@@ -0,0 +1,275 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.account.AccountDirectory;
+import com.backend.keysbankapi.archive.TransactionArchive;
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.ledger.dto.MonthlySummaryResponse;
+import com.backend.keysbankapi.ledger.dto.StatementItemResponse;
+import com.backend.keysbankapi.ledger.dto.StatementPageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatementService Tests")
+class StatementServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private AccountDirectory accountDirectory;
+
+    @Mock
+    private TransactionArchive archive;
+
+    @Spy
+    private LedgerFlightRecorder flightRecorder = new LedgerFlightRecorder(64, Duration.ofMillis(100));
+
+    @InjectMocks
+    private StatementService statementService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should return next cursor when there are more items than the limit")
+    void testFirstPageHasNextCursor() {
+        // Arrange
+        List<StatementItemResponse> rows = ledger(3);
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        when(transactionRepository.findStatementPage(accountId, null, StatementService.OPEN_START, StatementService.OPEN_END, Limit.of(3)))
+            .thenReturn(rows);
+
+        // Act
+        StatementPageResponse page = statementService.getStatementPage(accountId, null, null, null, null, 2);
+
+        // Assert
+        assertEquals(2, page.items().size());
+        assertNotNull(page.nextCursor());
+        StatementCursor cursor = StatementCursor.decode(page.nextCursor());
+        assertEquals(rows.get(1).transactionId(), cursor.id());
+        assertEquals(rows.get(1).createdAt(), cursor.createdAt());
+    }
+
+    @Test
+    @DisplayName("Should continue from the cursor position and end without next cursor")
+    void testNextPageUsesCursor() {
+        // Arrange
+        List<StatementItemResponse> rows = ledger(2);
+        String cursor = StatementCursor.ofItem(rows.get(0)).encode();
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        when(transactionRepository.findStatementPageAfter(accountId, null, StatementService.OPEN_START, StatementService.OPEN_END, rows.get(0).createdAt(), rows.get(0).transactionId(), Limit.of(3)))
+            .thenReturn(List.of(rows.get(1)));
+
+        // Act
+        StatementPageResponse page = statementService.getStatementPage(accountId, null, null, null, cursor, 2);
+
+        // Assert
+        assertEquals(1, page.items().size());
+        assertEquals(rows.get(1).transactionId(), page.items().get(0).transactionId());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should complete the page with archived rows when the database runs out")
+    void testPageMergesArchivedRows() {
+        // Arrange
+        List<StatementItemResponse> rows = ledger(3);
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        when(transactionRepository.findStatementPage(accountId, null, StatementService.OPEN_START, StatementService.OPEN_END, Limit.of(3)))
+            .thenReturn(List.of(rows.get(0)));
+        when(archive.hasMonths()).thenReturn(true);
+        when(archive.read(accountId, null, StatementService.OPEN_START, StatementService.OPEN_END, null, null, 3))
+            .thenReturn(List.of(rows.get(1), rows.get(2)));
+
+        // Act
+        StatementPageResponse page = statementService.getStatementPage(accountId, null, null, null, null, 2);
+
+        // Assert
+        assertEquals(List.of(rows.get(0), rows.get(1)), page.items());
+        assertEquals(rows.get(1).transactionId(), StatementCursor.decode(page.nextCursor()).id());
+    }
+
+    @Test
+    @DisplayName("Should skip the archive when the database page is newer than every archived month")
+    void testFullPageSkipsArchive() {
+        // Arrange
+        List<StatementItemResponse> rows = ledger(3);
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        when(transactionRepository.findStatementPage(accountId, null, StatementService.OPEN_START, StatementService.OPEN_END, Limit.of(3)))
+            .thenReturn(rows);
+        when(archive.hasMonths()).thenReturn(true);
+        when(archive.newestEnd()).thenReturn(Instant.parse("2025-01-01T00:00:00Z"));
+
+        // Act
+        StatementPageResponse page = statementService.getStatementPage(accountId, null, null, null, null, 2);
+
+        // Assert
+        assertEquals(2, page.items().size());
+        verify(archive, never()).read(any(), any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should return projected items for a type filter without loading daily balances")
+    void testFilteredStatementUsesProjection() {
+        // Arrange
+        List<StatementItemResponse> rows = ledger(2);
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        when(transactionRepository.findStatementItems(accountId, "CREDIT", StatementService.OPEN_START, StatementService.OPEN_END)).thenReturn(rows);
+
+        // Act
+        List<StatementItemResponse> items = statementService.getStatementFiltered(accountId, null, null, "CREDIT");
+
+        // Assert
+        assertEquals(rows, items);
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject limit outside the allowed range")
+    void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class,
+            () -> statementService.getStatementPage(accountId, null, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> statementService.getStatementPage(accountId, null, null, null, null, StatementService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(accountDirectory, transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed or mismatched cursors")
+    void testInvalidCursor() {
+        // Arrange
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        String ledgerCursor = StatementCursor.ofItem(ledger(1).get(0)).encode();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> statementService.getStatementPage(accountId, null, null, null, "nao-e-um-cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> statementService.getStatementPage(accountId, null, null, "BALANCE", ledgerCursor, 10));
+        verifyNoInteractions(transactionRepository, dailyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should build the monthly summary from the aggregate query over the month range")
+    void testMonthlySummary() {
+        // Arrange
+        YearMonth month = YearMonth.of(2026, 1);
+        Instant start = LocalDate.of(2026, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant end = LocalDate.of(2026, 2, 1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        when(transactionRepository.summarizeMonth(accountId, start, end, LocalDate.of(2026, 1, 31)))
+            .thenReturn(new MonthlyTotals(new BigDecimal("150.00"), new BigDecimal("40.00"), 3L, new BigDecimal("210.00")));
+
+        // Act
+        MonthlySummaryResponse summary = statementService.getMonthlySummary(accountId, month);
+
+        // Assert
+        assertEquals("2026-01", summary.month());
+        assertEquals(new BigDecimal("150.00"), summary.creditTotal());
+        assertEquals(new BigDecimal("40.00"), summary.debitTotal());
+        assertEquals(3L, summary.transactionCount());
+        assertEquals(new BigDecimal("210.00"), summary.closingBalance());
+    }
+
+    @Test
+    @DisplayName("Should add the archived rows of the month to the summary totals")
+    void testMonthlySummaryOfArchivedMonth() {
+        // Arrange
+        YearMonth month = YearMonth.of(2024, 3);
+        List<StatementItemResponse> archived = List.of(
+            new StatementItemResponse(UUID.randomUUID(), "CREDIT", "DEPOSITO", new BigDecimal("100.00"), null, Instant.parse("2024-03-10T12:00:00Z")),
+            new StatementItemResponse(UUID.randomUUID(), "DEBIT", "PIX", new BigDecimal("30.00"), null, Instant.parse("2024-03-05T12:00:00Z")));
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        when(transactionRepository.summarizeMonth(eq(accountId), any(), any(), any()))
+            .thenReturn(new MonthlyTotals(null, null, 0L, new BigDecimal("70.00")));
+        when(archive.contains(month)).thenReturn(true);
+        when(archive.readMonth(accountId, month)).thenReturn(archived);
+
+        // Act
+        MonthlySummaryResponse summary = statementService.getMonthlySummary(accountId, month);
+
+        // Assert
+        assertEquals(new BigDecimal("100.00"), summary.creditTotal());
+        assertEquals(new BigDecimal("30.00"), summary.debitTotal());
+        assertEquals(2L, summary.transactionCount());
+        assertEquals(new BigDecimal("70.00"), summary.closingBalance());
+    }
+
+    @Test
+    @DisplayName("Should return zero totals for a month without movements")
+    void testMonthlySummaryWithoutMovements() {
+        // Arrange
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        when(transactionRepository.summarizeMonth(eq(accountId), any(), any(), any()))
+            .thenReturn(new MonthlyTotals(null, null, 0L, null));
+
+        // Act
+        MonthlySummaryResponse summary = statementService.getMonthlySummary(accountId, YearMonth.of(2025, 12));
+
+        // Assert
+        assertEquals(BigDecimal.ZERO, summary.creditTotal());
+        assertEquals(BigDecimal.ZERO, summary.debitTotal());
+        assertEquals(0L, summary.transactionCount());
+        assertEquals(BigDecimal.ZERO, summary.closingBalance());
+    }
+
+    @Test
+    @DisplayName("Should reject the monthly summary for an unknown account")
+    void testMonthlySummaryUnknownAccount() {
+        // Arrange
+        when(accountDirectory.exists(accountId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> statementService.getMonthlySummary(accountId, YearMonth.of(2026, 1)));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    // Lançamentos em ordem decrescente de data, como retornados pelo banco
+    private List<StatementItemResponse> ledger(int size) {
+        List<StatementItemResponse> rows = new ArrayList<>();
+        Instant now = Instant.parse("2026-01-15T22:45:34.123456Z");
+        for (int i = 0; i < size; i++) {
+            rows.add(new StatementItemResponse(
+                UUID.randomUUID(),
+                "CREDIT",
+                "DEPOSITO",
+                new BigDecimal("10.00"),
+                "Depósito " + i,
+                now.minusSeconds(i * 60L)
+            ));
+        }
+        return rows;
+    }
+}
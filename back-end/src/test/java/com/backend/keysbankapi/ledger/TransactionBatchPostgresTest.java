@@ -0,0 +1,83 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.PostgresIntegrationTest;
+import com.backend.keysbankapi.common.UuidV7;
+import com.backend.keysbankapi.ledger.dto.BatchTransactionResponse;
+import com.backend.keysbankapi.ledger.dto.TransactionCreatedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionBatchService (PostgreSQL)")
+class TransactionBatchPostgresTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionBatchService batchService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Lote', ?)",
+            accountId, "batch-" + accountId + "@test.local");
+        // Conta já negativa (ex.: tarifa lançada antes da regra de saldo)
+        jdbcTemplate.update("""
+            INSERT INTO accounts (id, customer_id, agency, account_number, status, balance)
+            VALUES (?, ?, '9992', ?, 'ATIVA', -50.00)
+            """, accountId, accountId, "L" + accountId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM ledger_daily_rollups WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM account_daily_balances WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE account_id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", accountId);
+    }
+
+    @Test
+    @DisplayName("Should post a credit-only batch on an account that is already negative")
+    void testCreditOnNegativeAccount() {
+        // Act: o crédito não cobre o saldo negativo, mas só reduz a dívida
+        BatchTransactionResponse response = batchService.createBatch(List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("20.00"), "Depósito")
+        ), null);
+
+        // Assert
+        assertEquals(1, response.created());
+        assertEquals(0, new BigDecimal("-30.00").compareTo(balance()));
+    }
+
+    @Test
+    @DisplayName("Should reject a batch whose net debit leaves the account negative")
+    void testNetDebitOnNegativeAccount() {
+        // Act: líquido de -10,00 em uma conta com -50,00
+        BatchTransactionResponse response = batchService.createBatch(List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("20.00"), "Depósito"),
+            new TransactionCreatedRequest(accountId, "DEBIT", "SAQUE", new BigDecimal("30.00"), "Saque")
+        ), null);
+
+        // Assert
+        assertEquals(0, response.created());
+        assertEquals("Saldo insuficiente", response.results().get(0).error());
+        assertEquals(0, new BigDecimal("-50.00").compareTo(balance()));
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
@@ -0,0 +1,329 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.account.AccountDirectory;
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.diagnostics.dto.SlowOperationResponse;
+import com.backend.keysbankapi.ledger.dto.BatchTransactionResponse;
+import com.backend.keysbankapi.ledger.dto.TransactionCreatedRequest;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionBatchService Tests")
+class TransactionBatchServiceTest {
+
+    @Mock
+    private AccountDirectory accountDirectory;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Limite zero: todo lote entra no buffer de operações lentas
+    private final LedgerFlightRecorder flightRecorder = new LedgerFlightRecorder(64, Duration.ZERO);
+
+    private TransactionBatchService batchService;
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new TransactionBatchService(accountDirectory, dailyBalanceRepository, transactionRepository,
+            Validation.buildDefaultValidatorFactory().getValidator(), jdbcTemplate, flightRecorder, transactionManager);
+        accountId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should report per-item results and update each account once per batch")
+    @SuppressWarnings("unchecked")
+    void testCreateBatchMixedResults() {
+        // Arrange
+        UUID unknownAccount = UUID.randomUUID();
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("100.00"), "Depósito"),
+            new TransactionCreatedRequest(accountId, "DEBIT", "SAQUE", new BigDecimal("-5.00"), "Valor inválido"),
+            new TransactionCreatedRequest(unknownAccount, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Conta inexistente"),
+            new TransactionCreatedRequest(accountId, "DEBIT", "SAQUE", new BigDecimal("30.00"), "Saque")
+        );
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), anyList())).thenReturn(new int[] {1});
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE account_daily_balances"), anyList())).thenReturn(new int[] {1});
+
+        // Act
+        BatchTransactionResponse response = batchService.createBatch(items, null);
+
+        // Assert
+        assertEquals(2, response.created());
+        assertEquals(2, response.rejected());
+        assertEquals("CREATED", response.results().get(0).status());
+        assertNotNull(response.results().get(0).id());
+        assertEquals("REJECTED", response.results().get(1).status());
+        assertEquals("Conta não encontrada", response.results().get(2).error());
+        assertEquals("CREATED", response.results().get(3).status());
+
+        ArgumentCaptor<List<Object[]>> accountUpdates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE accounts"), accountUpdates.capture());
+        assertEquals(1, accountUpdates.getValue().size());
+        assertEquals(new BigDecimal("70.00"), accountUpdates.getValue().get(0)[0]);
+        assertEquals(false, accountUpdates.getValue().get(0)[2]);
+
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO transactions"), inserts.capture());
+        assertEquals(2, inserts.getValue().size());
+
+        verify(accountDirectory, times(1)).findExisting(any());
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should seed the daily balance when the batch is the first posting of the day")
+    void testCreateBatchSeedsDailyBalance() {
+        // Arrange
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("40.00"), "Depósito"),
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("60.00"), "Depósito")
+        );
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), anyList())).thenReturn(new int[] {1});
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE account_daily_balances"), anyList())).thenReturn(new int[] {0});
+        when(dailyBalanceRepository.seedBalance(eq(accountId), any(), any())).thenReturn(new DaySeed(new BigDecimal("200.00"), 2L));
+
+        // Act
+        batchService.createBatch(items, null);
+
+        // Assert
+        verify(dailyBalanceRepository).upsertBalance(eq(accountId), any(), eq(new BigDecimal("200.00")), eq(new BigDecimal("100.00")), any());
+    }
+
+    @Test
+    @DisplayName("Should write one rollup row per account, day, category and type of the batch")
+    @SuppressWarnings("unchecked")
+    void testCreateBatchAggregatesRollups() {
+        // Arrange
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("40.00"), "Depósito"),
+            new TransactionCreatedRequest(accountId, "DEBIT", "PAGAMENTO_CONTA", new BigDecimal("15.00"), "Conta de luz"),
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("60.00"), "Depósito")
+        );
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), anyList())).thenReturn(new int[] {1});
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE account_daily_balances"), anyList())).thenReturn(new int[] {1});
+
+        // Act
+        batchService.createBatch(items, null);
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> rollups = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO ledger_daily_rollups"), rollups.capture());
+        assertEquals(2, rollups.getValue().size());
+        Object[] deposits = rollups.getValue().stream().filter(r -> "DEPOSITO".equals(r[2])).findFirst().orElseThrow();
+        assertEquals(new BigDecimal("100.00"), deposits[4]);
+        assertEquals(2L, deposits[5]);
+    }
+
+    @Test
+    @DisplayName("Should reject every item of an account whose net debit exceeds its balance")
+    void testCreateBatchInsufficientFunds() {
+        // Arrange
+        UUID poorAccount = UUID.randomUUID();
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito"),
+            new TransactionCreatedRequest(poorAccount, "DEBIT", "SAQUE", new BigDecimal("900.00"), "Saque")
+        );
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId, poorAccount));
+        // Contas são atualizadas em ordem de id
+        int[] accountResults = accountId.compareTo(poorAccount) < 0 ? new int[] {1, 0} : new int[] {0, 1};
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), anyList())).thenReturn(accountResults);
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE account_daily_balances"), anyList())).thenReturn(new int[] {1});
+
+        // Act
+        BatchTransactionResponse response = batchService.createBatch(items, null);
+
+        // Assert
+        assertEquals(1, response.created());
+        assertEquals("CREATED", response.results().get(0).status());
+        assertEquals("Saldo insuficiente", response.results().get(1).error());
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when every item is invalid")
+    void testCreateBatchAllRejected() {
+        // Arrange
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "", "DEPOSITO", new BigDecimal("10.00"), "Sem tipo")
+        );
+
+        // Act
+        BatchTransactionResponse response = batchService.createBatch(items, null);
+
+        // Assert
+        assertEquals(0, response.created());
+        assertEquals(1, response.rejected());
+        verifyNoInteractions(accountDirectory, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should return the items a previous attempt posted and post only the rest on a retried batch")
+    @SuppressWarnings("unchecked")
+    void testCreateBatchRetryWithIdempotencyKey() {
+        // Arrange: a tentativa anterior lançou o item 0; o item 1 tinha sido recusado
+        UUID batchKey = UUID.randomUUID();
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("100.00"), "Depósito"),
+            new TransactionCreatedRequest(accountId, "DEBIT", "SAQUE", new BigDecimal("30.00"), "Saque")
+        );
+        Transaction original = posted(TransactionBatchService.itemKey(batchKey, 0), "CREDIT", "100.00");
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId));
+        when(transactionRepository.findByCorrelationIdIn(anyCollection())).thenReturn(List.of(original));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), anyList())).thenReturn(new int[] {1});
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE account_daily_balances"), anyList())).thenReturn(new int[] {1});
+
+        // Act
+        BatchTransactionResponse response = batchService.createBatch(items, batchKey);
+
+        // Assert
+        assertEquals(2, response.created());
+        assertEquals(original.getId(), response.results().get(0).id());
+        assertEquals(original.getCreatedAt(), response.results().get(0).createdAt());
+
+        ArgumentCaptor<List<Object[]>> accountUpdates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE accounts"), accountUpdates.capture());
+        assertEquals(new BigDecimal("-30.00"), accountUpdates.getValue().get(0)[0]);
+        assertEquals(true, accountUpdates.getValue().get(0)[2]);
+
+        ArgumentCaptor<List<Object[]>> keys = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO transaction_idempotency_keys"), keys.capture());
+        assertEquals(1, keys.getValue().size());
+        assertEquals(TransactionBatchService.itemKey(batchKey, 1), keys.getValue().get(0)[0]);
+
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO transactions"), inserts.capture());
+        assertEquals(1, inserts.getValue().size());
+        assertEquals(TransactionBatchService.itemKey(batchKey, 1), inserts.getValue().get(0)[6]);
+    }
+
+    @Test
+    @DisplayName("Should reject a batch whose Idempotency-Key already posted a different item")
+    void testCreateBatchIdempotencyKeyReused() {
+        // Arrange: a chave do lote já lançou, na posição 0, um crédito de outro valor
+        UUID batchKey = UUID.randomUUID();
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("100.00"), "Depósito")
+        );
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId));
+        when(transactionRepository.findByCorrelationIdIn(anyCollection()))
+            .thenReturn(List.of(posted(TransactionBatchService.itemKey(batchKey, 0), "CREDIT", "75.00")));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class, () -> batchService.createBatch(items, batchKey));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 when a concurrent retry of the same batch claimed the keys first")
+    void testCreateBatchConcurrentRetry() {
+        // Arrange
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("100.00"), "Depósito")
+        );
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId));
+        when(transactionRepository.findByCorrelationIdIn(anyCollection())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), anyList())).thenReturn(new int[] {1});
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO transaction_idempotency_keys"), anyList()))
+            .thenThrow(new DuplicateKeyException("transaction_idempotency_keys_pkey"));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class, () -> batchService.createBatch(items, UUID.randomUUID()));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO transactions"), anyList());
+    }
+
+    @Test
+    @DisplayName("Should record the batch in the flight recorder with its outcome and item count")
+    void testCreateBatchRecordsOperation() {
+        // Arrange
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("40.00"), "Depósito"),
+            new TransactionCreatedRequest(accountId, "", "DEPOSITO", new BigDecimal("10.00"), "Sem tipo"),
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("60.00"), "Depósito")
+        );
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), anyList())).thenReturn(new int[] {1});
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE account_daily_balances"), anyList())).thenReturn(new int[] {1});
+
+        // Act
+        batchService.createBatch(items, null);
+        List<SlowOperationResponse> result = flightRecorder.slowest(10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("batch-posting", result.get(0).operation());
+        assertNull(result.get(0).accountId());
+        assertEquals("partial", result.get(0).variant());
+        assertEquals(3, result.get(0).rows());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should record a batch that lost the idempotency keys to a concurrent retry as a conflict")
+    void testCreateBatchRecordsConflict() {
+        // Arrange
+        List<TransactionCreatedRequest> items = List.of(
+            new TransactionCreatedRequest(accountId, "CREDIT", "DEPOSITO", new BigDecimal("100.00"), "Depósito")
+        );
+        when(accountDirectory.findExisting(any())).thenReturn(Set.of(accountId));
+        when(transactionRepository.findByCorrelationIdIn(anyCollection())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), anyList())).thenReturn(new int[] {1});
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO transaction_idempotency_keys"), anyList()))
+            .thenThrow(new DuplicateKeyException("transaction_idempotency_keys_pkey"));
+
+        // Act
+        assertThrows(IdempotencyKeyConflictException.class, () -> batchService.createBatch(items, UUID.randomUUID()));
+        List<SlowOperationResponse> result = flightRecorder.slowest(10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("conflict", result.get(0).variant());
+        verify(transactionManager).rollback(any());
+    }
+
+    private Transaction posted(UUID correlationId, String type, String amount) {
+        Transaction tx = new Transaction();
+        tx.setAccountId(accountId);
+        tx.setType(type);
+        tx.setCategory("DEPOSITO");
+        tx.setAmount(new BigDecimal(amount));
+        tx.setCorrelationId(correlationId);
+        tx.prePersist();
+        return tx;
+    }
+}
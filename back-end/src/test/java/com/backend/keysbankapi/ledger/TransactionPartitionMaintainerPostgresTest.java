@@ -0,0 +1,107 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.PostgresIntegrationTest;
+import com.backend.keysbankapi.common.UuidV7;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionPartitionMaintainer (PostgreSQL)")
+class TransactionPartitionMaintainerPostgresTest extends PostgresIntegrationTest {
+
+    // Bem depois do months-ahead: ainda sem partição, os lançamentos do mês caem na default
+    private static final YearMonth MONTH = YearMonth.now().plusYears(5);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionPartitionMaintainer maintainer;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Partições', ?)",
+            accountId, "partitions-" + accountId + "@test.local");
+        jdbcTemplate.update("""
+            INSERT INTO accounts (id, customer_id, agency, account_number, status, balance)
+            VALUES (?, ?, '9995', ?, 'ATIVA', 0)
+            """, accountId, accountId, "P" + accountId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE account_id = ?", accountId);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TransactionPartitionMaintainer.partitionName(MONTH));
+        jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", accountId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", accountId);
+    }
+
+    @Test
+    @DisplayName("Should create a month that has no rows in the default partition")
+    void testCreatesEmptyMonth() {
+        // Act
+        boolean created = maintainer.create(MONTH);
+
+        // Assert
+        assertTrue(created);
+        assertTrue(attached(TransactionPartitionMaintainer.partitionName(MONTH)));
+    }
+
+    @Test
+    @DisplayName("Should move the month's rows out of the default partition and keep the default attached")
+    void testMovesRowsOutOfDefault() {
+        // Arrange: dois lançamentos do mês e um de outro mês sem partição, todos na default
+        UUID first = insert(MONTH.atDay(1).atStartOfDay().plusMinutes(1));
+        UUID last = insert(MONTH.atEndOfMonth().atTime(23, 59, 59));
+        UUID other = insert(MONTH.plusMonths(1).atDay(10).atStartOfDay());
+        String name = TransactionPartitionMaintainer.partitionName(MONTH);
+
+        // Act
+        boolean created = maintainer.create(MONTH);
+
+        // Assert
+        assertTrue(created);
+        assertTrue(attached(name));
+        assertTrue(attached("transactions_default"));
+        assertEquals(name, partitionOf(first));
+        assertEquals(name, partitionOf(last));
+        assertEquals("transactions_default", partitionOf(other));
+        assertEquals(3, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM transactions WHERE account_id = ?", Integer.class, accountId));
+    }
+
+    private UUID insert(LocalDateTime createdAt) {
+        UUID id = UuidV7.next();
+        jdbcTemplate.update("""
+            INSERT INTO transactions (id, account_id, type, category, amount, description, created_at)
+            VALUES (?, ?, 'CREDIT', 'DEPOSITO', 10.00, 'Depósito', ?)
+            """, id, accountId, Timestamp.valueOf(createdAt));
+        return id;
+    }
+
+    private String partitionOf(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM transactions WHERE id = ?", String.class, id);
+    }
+
+    private boolean attached(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+            SELECT EXISTS (
+              SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+              WHERE i.inhparent = 'transactions'::regclass AND c.relname = ?
+            )
+            """, Boolean.class, partition));
+    }
+}
@@ -0,0 +1,53 @@
+package com.backend.keysbankapi.ledger;
+
+import com.backend.keysbankapi.ledger.TransactionPartitionMaintainer.Plan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionPartitionMaintainer Tests")
+class TransactionPartitionMaintainerTest {
+
+    private static final YearMonth NOW = YearMonth.of(2026, 10);
+
+    @Test
+    @DisplayName("Should create only the missing months from the current one up to months-ahead")
+    void testCreatesMissingFutureMonths() {
+        // Arrange
+        Set<YearMonth> existing = Set.of(YearMonth.of(2026, 9), NOW, YearMonth.of(2026, 11));
+
+        // Act
+        Plan plan = TransactionPartitionMaintainer.plan(NOW, existing, 3, 0);
+
+        // Assert
+        assertEquals(List.of(YearMonth.of(2026, 12), YearMonth.of(2027, 1)), plan.create());
+        assertTrue(plan.detach().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should detach months older than the retention, oldest first")
+    void testDetachesMonthsBeyondRetention() {
+        // Arrange
+        Set<YearMonth> existing = Set.of(
+            YearMonth.of(2026, 6), YearMonth.of(2026, 5), YearMonth.of(2026, 7), NOW,
+            YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1));
+
+        // Act
+        Plan plan = TransactionPartitionMaintainer.plan(NOW, existing, 3, 3);
+
+        // Assert
+        assertEquals(List.of(YearMonth.of(2026, 5), YearMonth.of(2026, 6)), plan.detach());
+        assertTrue(plan.create().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should name partitions by year and month")
+    void testPartitionName() {
+        assertEquals("transactions_p2026_01", TransactionPartitionMaintainer.partitionName(YearMonth.of(2026, 1)));
+    }
+}
@@ -1,19 +1,34 @@
 package com.backend.keysbankapi.ledger;
 
-import com.backend.keysbankapi.account.AccountRepository;
+import com.backend.keysbankapi.diagnostics.LedgerFlightRecorder;
+import com.backend.keysbankapi.ledger.TransactionRepositoryCustom.PostingOutcome;
+import com.backend.keysbankapi.metrics.LedgerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,7 +39,17 @@ class TransactionServiceTest {
     private TransactionRepository transactionRepository;
 
     @Mock
-    private AccountRepository accountRepository;
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private HotAccountTracker hotAccounts;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LedgerMetrics metrics = new LedgerMetrics(registry);
+    private final LedgerFlightRecorder flightRecorder = new LedgerFlightRecorder(64, Duration.ofMillis(100));
 
     private UUID accountId;
 
@@ -160,4 +185,347 @@ class TransactionServiceTest {
         // Assert
         assertEquals(description, tx.getDescription());
     }
+
+    @Test
+    @DisplayName("Incremental daily balance should match full recompute on randomized ledgers")
+    void testIncrementalDailyBalanceMatchesRecompute() {
+        Random random = new Random(20260117L);
+
+        for (int ledger = 0; ledger < 25; ledger++) {
+            UUID ledgerAccountId = UUID.randomUUID();
+            List<Transaction> store = new ArrayList<>();
+            Map<LocalDate, BigDecimal> balances = new HashMap<>();
+            stubInMemoryLedger(ledgerAccountId, store, balances);
+
+            // Histórico aleatório de dias anteriores (e às vezes um bônus de hoje ainda sem saldo)
+            Instant now = Instant.now();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                Transaction old = ledgerTx(ledgerAccountId, random.nextBoolean() ? "CREDIT" : "DEBIT", randomAmount(random));
+                old.setCreatedAt(now.minus(Duration.ofHours(24 + random.nextInt(24 * 90))));
+                store.add(old);
+            }
+            if (random.nextBoolean()) {
+                Transaction bonus = ledgerTx(ledgerAccountId, "CREDIT", new BigDecimal("100.00"));
+                bonus.setCreatedAt(startOfToday());
+                store.add(bonus);
+            }
+
+            TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+            int postings = 1 + random.nextInt(30);
+            for (int i = 0; i < postings; i++) {
+                String type = random.nextBoolean() ? "CREDIT" : "DEBIT";
+                service.createTransaction(ledgerAccountId, type, "TESTE", randomAmount(random), "Lançamento aleatório", null);
+
+                assertEquals(1, balances.size());
+                assertEquals(0, recomputeDayBalance(store).compareTo(balances.get(LocalDate.now())),
+                    "ledger " + ledger + ", posting " + i);
+            }
+
+            verify(transactionRepository, never()).findByAccountIdOrderByCreatedAtDesc(ledgerAccountId);
+            reset(transactionRepository, dailyBalanceRepository);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject posting to unknown account without touching balances")
+    void testCreateTransactionAccountNotFound() {
+        // Arrange
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.ACCOUNT_NOT_FOUND);
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", null)
+        );
+        assertEquals("Conta não encontrada", exception.getMessage());
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should answer a retry with the same idempotency key from memory")
+    void testIdempotentRetryServedFromCache() {
+        // Arrange
+        UUID key = UUID.randomUUID();
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.POSTED);
+        when(dailyBalanceRepository.addToBalance(eq(accountId), any(LocalDate.class), any(BigDecimal.class), any(Instant.class))).thenReturn(1);
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act
+        Transaction first = service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", key);
+        Transaction retry = service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", key);
+
+        // Assert
+        assertSame(first, retry);
+        assertEquals(key, first.getCorrelationId());
+        verify(transactionRepository, times(1)).post(any(Transaction.class));
+        verify(transactionRepository, never()).findByCorrelationId(any());
+        verify(dailyBalanceRepository, times(1)).addToBalance(eq(accountId), any(LocalDate.class), eq(new BigDecimal("10.00")), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should return the original posting when the database already has the idempotency key")
+    void testIdempotentRetryDetectedByDatabase() {
+        // Arrange
+        UUID key = UUID.randomUUID();
+        Transaction original = ledgerTx(accountId, "CREDIT", new BigDecimal("10.00"));
+        original.setCorrelationId(key);
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.DUPLICATE);
+        when(transactionRepository.findByCorrelationId(key)).thenReturn(Optional.of(original));
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act
+        Transaction result = service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", key);
+
+        // Assert
+        assertSame(original, result);
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should fail naming the idempotency key when its original posting is missing")
+    void testIdempotentRetryWithoutOriginal() {
+        // Arrange
+        UUID key = UUID.randomUUID();
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.DUPLICATE);
+        when(transactionRepository.findByCorrelationId(key)).thenReturn(Optional.empty());
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(
+            IllegalStateException.class,
+            () -> service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", key)
+        );
+        assertTrue(exception.getMessage().contains(key.toString()));
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a cached idempotency key reused with another amount or account")
+    void testIdempotencyKeyReusedFromCache() {
+        // Arrange
+        UUID key = UUID.randomUUID();
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.POSTED);
+        when(dailyBalanceRepository.addToBalance(eq(accountId), any(LocalDate.class), any(BigDecimal.class), any(Instant.class))).thenReturn(1);
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+        service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", key);
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class,
+            () -> service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("99.00"), "Depósito", key));
+        assertThrows(IdempotencyKeyConflictException.class,
+            () -> service.createTransaction(UUID.randomUUID(), "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", key));
+        assertThrows(IdempotencyKeyConflictException.class,
+            () -> service.createTransaction(accountId, "DEBIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", key));
+        verify(transactionRepository, times(1)).post(any(Transaction.class));
+        // Só o primeiro lançamento abriu transação: os retries são resolvidos antes dela
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should reject an idempotency key the database holds for another account")
+    void testIdempotencyKeyReusedDetectedByDatabase() {
+        // Arrange
+        UUID key = UUID.randomUUID();
+        Transaction original = ledgerTx(UUID.randomUUID(), "CREDIT", new BigDecimal("10.00"));
+        original.setCorrelationId(key);
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.DUPLICATE);
+        when(transactionRepository.findByCorrelationId(key)).thenReturn(Optional.of(original));
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act & Assert
+        IdempotencyKeyConflictException exception = assertThrows(
+            IdempotencyKeyConflictException.class,
+            () -> service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Depósito", key)
+        );
+        assertEquals("Idempotency-Key já usada em outra transação", exception.getMessage());
+        verifyNoInteractions(dailyBalanceRepository);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a debit without funds without touching balances")
+    void testDebitInsufficientFunds() {
+        // Arrange
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.INSUFFICIENT_FUNDS);
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.createTransaction(accountId, "DEBIT", "SAQUE", new BigDecimal("1000.00"), "Saque", null)
+        );
+        assertEquals("Saldo insuficiente", exception.getMessage());
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should post a debit in a single statement and apply it to the daily balance")
+    void testDebitPostedInSingleStatement() {
+        // Arrange
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.POSTED);
+        when(dailyBalanceRepository.addToBalance(eq(accountId), any(LocalDate.class), any(BigDecimal.class), any(Instant.class))).thenReturn(1);
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act
+        Transaction result = service.createTransaction(accountId, "DEBIT", "SAQUE", new BigDecimal("40.00"), "Saque", null);
+
+        // Assert
+        assertEquals("DEBIT", result.getType());
+        verify(transactionRepository, times(1)).post(any(Transaction.class));
+        verify(dailyBalanceRepository).addToBalance(eq(accountId), any(LocalDate.class), eq(new BigDecimal("-40.00")), any(Instant.class));
+        verify(dailyBalanceRepository).addToRollup(accountId, LocalDate.now(), "SAQUE", "DEBIT", 0, new BigDecimal("40.00"));
+    }
+
+    @Test
+    @DisplayName("Should return the original debit when the idempotency key was already used")
+    void testDebitIdempotentRetry() {
+        // Arrange
+        UUID key = UUID.randomUUID();
+        Transaction original = ledgerTx(accountId, "DEBIT", new BigDecimal("40.00"));
+        original.setCorrelationId(key);
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.DUPLICATE);
+        when(transactionRepository.findByCorrelationId(key)).thenReturn(Optional.of(original));
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act
+        Transaction result = service.createTransaction(accountId, "DEBIT", "SAQUE", new BigDecimal("40.00"), "Saque", key);
+
+        // Assert
+        assertSame(original, result);
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should spread credits of a hot account over balance shards")
+    void testHotAccountCreditGoesToShard() {
+        // Arrange
+        when(hotAccounts.shardsFor(accountId)).thenReturn(16);
+        when(transactionRepository.postToShard(any(Transaction.class), anyInt())).thenReturn(PostingOutcome.POSTED);
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act
+        Transaction result = service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("25.00"), "Recebimento", null);
+
+        // Assert
+        int shard = Math.floorMod(result.getId().hashCode(), 16);
+        verify(transactionRepository).postToShard(result, shard);
+        verify(transactionRepository, never()).post(any(Transaction.class));
+        verify(dailyBalanceRepository).addToShard(eq(accountId), any(LocalDate.class), eq(shard), eq(new BigDecimal("25.00")), any(Instant.class));
+        verify(dailyBalanceRepository, never()).addToBalance(any(), any(), any(), any());
+        verify(dailyBalanceRepository).addToRollup(accountId, LocalDate.now(), "DEPOSITO", "CREDIT", shard, new BigDecimal("25.00"));
+        verify(hotAccounts).recordWrite(accountId);
+    }
+
+    @Test
+    @DisplayName("Should keep debits of a hot account on the main balance row")
+    void testHotAccountDebitUsesMainRow() {
+        // Arrange
+        when(hotAccounts.shardsFor(accountId)).thenReturn(16);
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.POSTED);
+        when(dailyBalanceRepository.addToBalance(eq(accountId), any(LocalDate.class), any(BigDecimal.class), any(Instant.class))).thenReturn(1);
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act
+        service.createTransaction(accountId, "DEBIT", "SAQUE", new BigDecimal("25.00"), "Saque", null);
+
+        // Assert
+        verify(transactionRepository, never()).postToShard(any(Transaction.class), anyInt());
+        verify(dailyBalanceRepository, never()).addToShard(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should time the day balance by path and record the rows read to seed it")
+    void testDayBalanceMetrics() {
+        // Arrange
+        when(transactionRepository.post(any(Transaction.class))).thenReturn(PostingOutcome.POSTED);
+        when(dailyBalanceRepository.addToBalance(eq(accountId), any(LocalDate.class), any(BigDecimal.class), any(Instant.class)))
+            .thenReturn(0, 1);
+        when(dailyBalanceRepository.seedBalance(eq(accountId), any(LocalDate.class), any(Instant.class)))
+            .thenReturn(new DaySeed(new BigDecimal("70.00"), 7L));
+        TransactionService service = new TransactionService(transactionRepository, dailyBalanceRepository, hotAccounts, metrics, flightRecorder, transactionManager);
+
+        // Act
+        service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Primeiro do dia", null);
+        service.createTransaction(accountId, "CREDIT", "DEPOSITO", new BigDecimal("10.00"), "Segundo do dia", null);
+
+        // Assert
+        assertEquals(1, registry.get("keysbank.posting.day.balance").tag("path", "seed").timer().count());
+        assertEquals(1, registry.get("keysbank.posting.day.balance").tag("path", "increment").timer().count());
+        assertEquals(2, registry.get("keysbank.posting.rows.scanned").summary().count());
+        assertEquals(8.0, registry.get("keysbank.posting.rows.scanned").summary().totalAmount());
+    }
+
+    private void stubInMemoryLedger(UUID ledgerAccountId, List<Transaction> store, Map<LocalDate, BigDecimal> balances) {
+        when(transactionRepository.post(any(Transaction.class))).thenAnswer(invocation -> {
+            store.add(invocation.getArgument(0));
+            return PostingOutcome.POSTED;
+        });
+        when(dailyBalanceRepository.addToBalance(eq(ledgerAccountId), any(LocalDate.class), any(BigDecimal.class), any(Instant.class)))
+            .thenAnswer(invocation -> {
+                LocalDate day = invocation.getArgument(1);
+                BigDecimal delta = invocation.getArgument(2);
+                return balances.computeIfPresent(day, (d, balance) -> balance.add(delta)) != null ? 1 : 0;
+            });
+        lenient().when(dailyBalanceRepository.upsertBalance(eq(ledgerAccountId), any(LocalDate.class), any(BigDecimal.class), any(BigDecimal.class), any(Instant.class)))
+            .thenAnswer(invocation -> {
+                LocalDate day = invocation.getArgument(1);
+                BigDecimal seed = invocation.getArgument(2);
+                BigDecimal delta = invocation.getArgument(3);
+                balances.merge(day, seed, (balance, ignored) -> balance.add(delta));
+                return 1;
+            });
+        lenient().when(dailyBalanceRepository.seedBalance(eq(ledgerAccountId), any(LocalDate.class), any(Instant.class)))
+            .thenAnswer(invocation -> {
+                Instant start = invocation.getArgument(2);
+                List<Transaction> today = store.stream()
+                    .filter(tx -> !tx.getCreatedAt().isBefore(start))
+                    .toList();
+                return new DaySeed(
+                    today.stream().map(TransactionServiceTest::signed).reduce(BigDecimal.ZERO, BigDecimal::add),
+                    (long) today.size());
+            });
+    }
+
+    // Recalculo completo, como era feito antes: varre o histórico em ordem decrescente até o início do dia
+    private static BigDecimal recomputeDayBalance(List<Transaction> store) {
+        Instant startOfDay = startOfToday();
+        List<Transaction> desc = new ArrayList<>(store);
+        desc.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
+
+        BigDecimal balance = BigDecimal.ZERO;
+        for (Transaction tx : desc) {
+            if (tx.getCreatedAt().isBefore(startOfDay)) {
+                break;
+            }
+            balance = balance.add(signed(tx));
+        }
+        return balance;
+    }
+
+    private static BigDecimal signed(Transaction tx) {
+        return switch (tx.getType()) {
+            case "CREDIT" -> tx.getAmount();
+            case "DEBIT" -> tx.getAmount().negate();
+            default -> BigDecimal.ZERO;
+        };
+    }
+
+    private static Instant startOfToday() {
+        return LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static BigDecimal randomAmount(Random random) {
+        return BigDecimal.valueOf(1 + random.nextInt(500_000), 2);
+    }
+
+    private static Transaction ledgerTx(UUID accountId, String type, BigDecimal amount) {
+        Transaction tx = new Transaction();
+        tx.setAccountId(accountId);
+        tx.setType(type);
+        tx.setCategory("TESTE");
+        tx.setAmount(amount);
+        tx.setDescription("Histórico");
+        return tx;
+    }
 }
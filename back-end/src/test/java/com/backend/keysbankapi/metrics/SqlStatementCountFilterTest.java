@@ -0,0 +1,105 @@
+package com.backend.keysbankapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SqlStatementCountFilter Tests")
+class SqlStatementCountFilterTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry registry;
+    private SqlStatementCountFilter filter;
+    private StatementCountingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new SimpleMeterRegistry();
+        filter = new SqlStatementCountFilter(registry);
+        dataSource = new StatementCountingDataSource(target);
+        lenient().when(target.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    @DisplayName("Should record the statements prepared during the request under the endpoint pattern")
+    void testCountsStatementsPerRequest() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/123/statement");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/accounts/{accountId}/statement");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            try (Connection conn = dataSource.getConnection()) {
+                conn.prepareStatement("SELECT 1");
+                conn.prepareStatement("SELECT 2");
+                conn.createStatement();
+                conn.setAutoCommit(false);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Assert
+        DistributionSummary summary = registry.get("keysbank.http.sql.statements")
+            .tag("uri", "/accounts/{accountId}/statement")
+            .tag("method", "GET")
+            .summary();
+        assertEquals(1, summary.count());
+        assertEquals(3.0, summary.totalAmount());
+        verify(connection).setAutoCommit(false);
+    }
+
+    @Test
+    @DisplayName("Should record every request of an endpoint in the same summary")
+    void testReusesSummaryPerEndpoint() throws Exception {
+        // Arrange
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/transaction");
+        first.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/transaction");
+        MockHttpServletRequest second = new MockHttpServletRequest("POST", "/transaction");
+        second.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/transaction");
+
+        // Act
+        filter.doFilter(first, new MockHttpServletResponse(), (req, res) -> { });
+        filter.doFilter(second, new MockHttpServletResponse(), (req, res) -> { });
+
+        // Assert
+        assertEquals(1, registry.find("keysbank.http.sql.statements").summaries().size());
+        assertEquals(2, registry.get("keysbank.http.sql.statements").tag("uri", "/transaction").summary().count());
+    }
+
+    @Test
+    @DisplayName("Should not count statements outside a request nor tag raw URIs")
+    void testIgnoresStatementsOutsideRequests() throws Exception {
+        // Arrange: um comando fora de requisição (job agendado) não vaza para a próxima requisição
+        dataSource.getConnection().prepareStatement("SELECT 1");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/nao-existe");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        // Assert
+        DistributionSummary summary = registry.get("keysbank.http.sql.statements").tag("uri", "UNKNOWN").summary();
+        assertEquals(1, summary.count());
+        assertEquals(0.0, summary.totalAmount());
+    }
+}
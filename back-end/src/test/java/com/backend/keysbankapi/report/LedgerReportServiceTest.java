@@ -0,0 +1,96 @@
+package com.backend.keysbankapi.report;
+
+import com.backend.keysbankapi.account.AccountDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LedgerReportService Tests")
+class LedgerReportServiceTest {
+
+    @Mock
+    private AccountDirectory accountDirectory;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LedgerReportService reportService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should read the daily report from the rollups filtered by account")
+    void testDailyReportByAccount() {
+        // Arrange
+        when(accountDirectory.exists(accountId)).thenReturn(true);
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 1, 31);
+
+        // Act
+        reportService.daily(start, end, accountId);
+
+        // Assert
+        verify(jdbcTemplate).query(contains("FROM ledger_daily_rollups"), any(RowMapper.class),
+            eq(Date.valueOf(start)), eq(Date.valueOf(end)), eq(accountId));
+    }
+
+    @Test
+    @DisplayName("Should derive the monthly report from the daily rollups of the whole months")
+    void testMonthlyReportUsesDayRange() {
+        // Act
+        reportService.monthly(YearMonth.of(2025, 11), YearMonth.of(2026, 2), null);
+
+        // Assert
+        verify(jdbcTemplate).query(contains("to_char(day, 'YYYY-MM')"), any(RowMapper.class),
+            eq(Date.valueOf(LocalDate.of(2025, 11, 1))), eq(Date.valueOf(LocalDate.of(2026, 2, 28))));
+        verifyNoInteractions(accountDirectory);
+    }
+
+    @Test
+    @DisplayName("Should reject inverted or too long periods")
+    void testInvalidPeriod() {
+        assertThrows(IllegalArgumentException.class,
+            () -> reportService.daily(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 1, 1), null));
+        assertThrows(IllegalArgumentException.class,
+            () -> reportService.daily(LocalDate.of(2024, 1, 1), LocalDate.of(2026, 1, 1), null));
+        assertThrows(IllegalArgumentException.class,
+            () -> reportService.monthly(YearMonth.of(2020, 1), YearMonth.of(2026, 1), null));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should reject a report for an unknown account")
+    void testUnknownAccount() {
+        // Arrange
+        when(accountDirectory.exists(accountId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> reportService.daily(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31), accountId));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -3,9 +3,8 @@ import { Eye, EyeOff, TrendingUp, TrendingDown, RefreshCw } from 'lucide-react';
 import { Card, CardContent } from '@/components/ui/card';
 import { Button } from '@/components/ui/button';
 import { formatCurrency } from '@/utils/formatters';
-import { getBalance, getStatement } from '@/services/api';
+import { getBalance, getMonthlySummary } from '@/services/api';
 import { useAuth } from '@/context/AuthContext';
-import type { Statement } from '@/types';
 
 export function BalanceCard() {
   const { accountId } = useAuth();
@@ -18,25 +17,15 @@ export function BalanceCard() {
     if (!accountId) return;
     setIsLoading(true);
     try {
-      const bal = await getBalance(accountId);
-      setBalance(bal);
-
-      // Get this month's transactions
+      // Month totals are aggregated by the API
       const now = new Date();
-      const startOfMonth = new Date(now.getFullYear(), now.getMonth(), 1);
-      const statements = await getStatement(accountId, {
-        startDate: startOfMonth.toISOString().split('T')[0],
-        endDate: now.toISOString().split('T')[0],
-      });
-
-      const credits = statements
-        .filter((s) => s.type === 'CREDIT')
-        .reduce((sum, s) => sum + s.amount, 0);
-      const debits = statements
-        .filter((s) => s.type === 'DEBIT')
-        .reduce((sum, s) => sum + s.amount, 0);
-
-      setMonthStats({ credits, debits });
+      const month = `${now.getFullYear()}-${String(now.getMonth() + 1).padStart(2, '0')}`;
+      const [bal, summary] = await Promise.all([
+        getBalance(accountId),
+        getMonthlySummary(accountId, month),
+      ]);
+      setBalance(bal);
+      setMonthStats({ credits: summary.creditTotal, debits: summary.debitTotal });
     } catch (error) {
       console.error('Failed to fetch balance:', error);
     } finally {
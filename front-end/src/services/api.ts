@@ -4,6 +4,7 @@ import type {
   LoginResponse,
   Transaction,
   Statement,
+  MonthlySummary,
   CreateCustomerRequest,
   CreateAccountRequest,
   CreateTransactionRequest,
@@ -89,12 +90,15 @@ export async function getStatement(
 }
 
 export async function getBalance(accountId: string): Promise<number> {
-  const statements = await getStatement(accountId, { type: 'BALANCE' });
-  if (statements.length === 0) return 0;
-  
-  // Get the most recent balance
-  const sorted = statements.sort((a, b) => 
-    new Date(b.date).getTime() - new Date(a.date).getTime()
+  const response = await fetch(`${API_BASE_URL}/accounts/${accountId}/balance`);
+  const data = await handleResponse<{ accountId: string; balance: number }>(response);
+  return data.balance;
+}
+
+// Monthly summary (month in YYYY-MM format)
+export async function getMonthlySummary(accountId: string, month: string): Promise<MonthlySummary> {
+  const response = await fetch(
+    `${API_BASE_URL}/accounts/${accountId}/summary?month=${encodeURIComponent(month)}`
   );
-  return sorted[0].amount;
+  return handleResponse<MonthlySummary>(response);
 }
@@ -42,6 +42,15 @@ export interface Statement {
   date?: string;
 }
 
+export interface MonthlySummary {
+  accountId: string;
+  month: string;
+  creditTotal: number;
+  debitTotal: number;
+  transactionCount: number;
+  closingBalance: number;
+}
+
 export interface CreateCustomerRequest {
   name: string;
   email: string;
@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Benchmark de ingestão: os mesmos lançamentos pelo endpoint individual (POST /transaction) e em
+# lotes (POST /transaction/batch).
+#
+# Uso (API rodando localmente contra o banco do docker-compose, com as migrations aplicadas):
+#   PGPASSWORD=bankpass infra/bench/batch_vs_single.sh [lancamentos] [tamanho-do-lote] [clientes] [url-base]
+#
+# Os lançamentos são créditos espalhados por 100 contas. No modo individual, cada lançamento é uma
+# requisição e "clientes" requisições correm em paralelo; no modo em lote, os mesmos lançamentos vão
+# em lotes de "tamanho-do-lote" itens, também com "clientes" lotes em paralelo. O relatório mostra o
+# tempo total e os lançamentos por segundo de cada modo. Requer curl e jq no PATH.
+# As contas de teste usam a agência 9997 e são removidas ao final.
+set -euo pipefail
+
+POSTINGS=${1:-20000}
+BATCH_SIZE=${2:-500}
+CLIENTS=${3:-16}
+BASE_URL=${4:-http://localhost:8080}
+CONN="-h ${PGHOST:-localhost} -U ${PGUSER:-bankuser} ${PGDATABASE:-bank}"
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+psql $CONN -q -v ON_ERROR_STOP=1 <<'SQL'
+DROP TABLE IF EXISTS bench_batch_accounts;
+CREATE TABLE bench_batch_accounts AS SELECT g AS n, gen_random_uuid() AS id FROM generate_series(1, 100) g;
+INSERT INTO customers (id, name, email)
+SELECT id, 'Bench lote ' || n, 'bench-batch-' || n || '@bench.local' FROM bench_batch_accounts;
+INSERT INTO accounts (id, customer_id, agency, account_number, status)
+SELECT id, id, '9997', 'BLT' || n, 'ATIVA' FROM bench_batch_accounts;
+SQL
+
+# Um item JSON por linha, distribuído entre as contas
+psql $CONN -At -c "SELECT id FROM bench_batch_accounts ORDER BY n" >"$WORK/accounts"
+awk -v total="$POSTINGS" '{ ids[NR] = $1 } END {
+  for (i = 0; i < total; i++) {
+    printf "{\"accountId\":\"%s\",\"type\":\"CREDIT\",\"category\":\"DEPOSITO\",\"amount\":1.00,\"description\":\"bench\"}\n", ids[i % NR + 1]
+  }
+}' "$WORK/accounts" >"$WORK/items"
+split -l "$BATCH_SIZE" "$WORK/items" "$WORK/batch-"
+for file in "$WORK"/batch-*; do
+  jq -cs '{ items: . }' "$file" >"$file.json"
+done
+
+# Aquecimento: JIT e caches da aplicação
+head -50 "$WORK/items" | while read -r item; do
+  curl -sf -o /dev/null -H 'Content-Type: application/json' -d "$item" "$BASE_URL/transaction"
+done
+
+run() {
+  local label=$1 started elapsed
+  shift
+  started=$(date +%s.%N)
+  "$@"
+  elapsed=$(echo "$(date +%s.%N) - $started" | bc)
+  printf "%-10s lançamentos=%s segundos=%.2f lançamentos/s=%.0f\n" "$label" "$POSTINGS" "$elapsed" "$(echo "$POSTINGS / $elapsed" | bc -l)"
+}
+
+single() {
+  xargs -d '\n' -P "$CLIENTS" -n 1 curl -sf -o /dev/null -H 'Content-Type: application/json' \
+    "$BASE_URL/transaction" -d <"$WORK/items"
+}
+
+batch() {
+  ls "$WORK"/batch-*.json | xargs -P "$CLIENTS" -I{} curl -sf -o /dev/null -H 'Content-Type: application/json' \
+    "$BASE_URL/transaction/batch" -d @{}
+}
+
+run individual single
+run lote batch
+
+psql $CONN -q -v ON_ERROR_STOP=1 <<'SQL'
+DELETE FROM ledger_daily_rollups WHERE account_id IN (SELECT id FROM bench_batch_accounts);
+DELETE FROM account_daily_balances WHERE account_id IN (SELECT id FROM bench_batch_accounts);
+DELETE FROM transactions WHERE account_id IN (SELECT id FROM bench_batch_accounts);
+DELETE FROM accounts WHERE id IN (SELECT id FROM bench_batch_accounts);
+DELETE FROM customers WHERE id IN (SELECT id FROM bench_batch_accounts);
+DROP TABLE bench_batch_accounts;
+SQL
@@ -0,0 +1,23 @@
+-- Script do pgbench usado por hot_account_contention.sh: crédito em conta quente do mesmo jeito
+-- que TransactionRepository.postToShard (parcela de saldo + lançamento), depois a parcela do dia.
+-- :shards define em quantas parcelas os créditos da conta são espalhados.
+\set shard random(0, :shards - 1)
+BEGIN;
+WITH locked AS (
+  INSERT INTO account_balance_shards (account_id, shard, balance)
+  SELECT id, :shard, 1.00 FROM bench_hot_account
+  ON CONFLICT (account_id, shard) DO UPDATE SET balance = account_balance_shards.balance + EXCLUDED.balance
+  RETURNING account_id
+),
+inserted AS (
+  INSERT INTO transactions (id, account_id, type, category, amount, description, created_at)
+  SELECT gen_random_uuid(), l.account_id, 'CREDIT', 'BENCH', 1.00, 'bench', now()
+  FROM locked l
+  RETURNING id
+)
+SELECT count(*) FROM inserted;
+INSERT INTO account_daily_balance_shards (account_id, day, shard, balance, updated_at)
+SELECT id, current_date, :shard, 1.00, now() FROM bench_hot_account
+ON CONFLICT (account_id, day, shard)
+DO UPDATE SET balance = account_daily_balance_shards.balance + EXCLUDED.balance, updated_at = EXCLUDED.updated_at;
+COMMIT;
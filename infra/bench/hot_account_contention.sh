@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Benchmark de contenção em uma conta quente: 1 parcela de saldo x N parcelas.
+#
+# Uso (banco local do docker-compose, com as migrations aplicadas):
+#   PGPASSWORD=bankpass infra/bench/hot_account_contention.sh [clientes] [segundos]
+#
+# Todos os clientes creditam a mesma conta. Com 1 parcela os créditos entram em fila na mesma
+# linha; com N parcelas (16 é o padrão de keysbank.hot-accounts.shards) só disputam os que caem
+# na mesma parcela. O relatório mostra tps e latência média de cada cenário.
+# A conta de teste usa a agência 9999 e é removida ao final.
+set -euo pipefail
+
+CLIENTS=${1:-32}
+DURATION=${2:-30}
+CONN="-h ${PGHOST:-localhost} -U ${PGUSER:-bankuser} ${PGDATABASE:-bank}"
+DIR=$(cd "$(dirname "$0")" && pwd)
+
+psql $CONN -q -v ON_ERROR_STOP=1 <<'SQL'
+DROP TABLE IF EXISTS bench_hot_account;
+CREATE TABLE bench_hot_account AS SELECT gen_random_uuid() AS id;
+INSERT INTO customers (id, name, email) SELECT id, 'Bench quente', 'bench-hot@bench.local' FROM bench_hot_account;
+INSERT INTO accounts (id, customer_id, agency, account_number, status, balance_shards)
+SELECT id, id, '9999', 'BHOT', 'ATIVA', 16 FROM bench_hot_account;
+SQL
+
+for shards in 1 4 16 64; do
+  result=$(pgbench $CONN -n -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -D shards="$shards" \
+    -f "$DIR/hot_account.pgbench.sql")
+  tps=$(awk '/^tps/ { print int($3) }' <<<"$result")
+  latency=$(awk '/^latency average/ { print $4 }' <<<"$result")
+  echo "parcelas=$shards clientes=$CLIENTS tps=$tps latencia_ms=$latency"
+done
+
+psql $CONN -q -v ON_ERROR_STOP=1 <<'SQL'
+DELETE FROM transactions WHERE account_id IN (SELECT id FROM bench_hot_account);
+DELETE FROM account_daily_balance_shards WHERE account_id IN (SELECT id FROM bench_hot_account);
+DELETE FROM account_balance_shards WHERE account_id IN (SELECT id FROM bench_hot_account);
+DELETE FROM accounts WHERE id IN (SELECT id FROM bench_hot_account);
+DELETE FROM customers WHERE id IN (SELECT id FROM bench_hot_account);
+DROP TABLE bench_hot_account;
+SQL
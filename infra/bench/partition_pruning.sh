@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Mostra, via EXPLAIN, que as consultas do extrato leem só as partições mensais do período.
+#
+# Uso (banco local do docker-compose, com as migrations aplicadas até a V9):
+#   PGPASSWORD=bankpass infra/bench/partition_pruning.sh [account-id]
+#
+# Sem account-id usa a conta com mais lançamentos. Cada consulta roda como prepared statement
+# (como chega do JDBC) duas vezes: com plano customizado, em que a poda acontece no planejamento,
+# e com plano genérico, em que a poda acontece na execução ("Subplans Removed"). Para cada plano
+# o relatório lista as partições de transactions efetivamente lidas.
+#
+# Os parâmetros de data são timestamptz, como o driver recebe os Instant do Hibernate, enquanto
+# created_at é timestamp. A comparação depende do TimeZone da sessão (não é imutável), então mesmo
+# no plano customizado a poda pode ficar para o início da execução; o que importa é a lista de
+# partições lidas.
+set -euo pipefail
+
+CONN="-h ${PGHOST:-localhost} -U ${PGUSER:-bankuser} ${PGDATABASE:-bank}"
+ACCOUNT=${1:-$(psql $CONN -At -c "SELECT account_id FROM transactions GROUP BY account_id ORDER BY count(*) DESC LIMIT 1")}
+
+if [ -z "$ACCOUNT" ]; then
+  echo "Nenhum lançamento encontrado" >&2
+  exit 1
+fi
+
+# nome|PREPARE|EXECUTE: as consultas são as que o Hibernate gera para TransactionRepository
+QUERIES=(
+"extrato por período (findStatementItems)|PREPARE q(uuid, timestamptz, timestamptz) AS SELECT id, type, category, amount, description, created_at FROM transactions WHERE account_id = \$1 AND created_at >= \$2 AND created_at <= \$3 ORDER BY created_at DESC, id DESC|EXECUTE q('$ACCOUNT', date_trunc('month', now()) - interval '1 month', now())"
+"página do extrato sem filtro (findStatementPage)|PREPARE q(uuid, timestamptz, timestamptz) AS SELECT id, type, category, amount, description, created_at FROM transactions WHERE account_id = \$1 AND created_at >= \$2 AND created_at <= \$3 ORDER BY created_at DESC, id DESC LIMIT 51|EXECUTE q('$ACCOUNT', '1970-01-01', '9999-12-31')"
+"resumo mensal (summarizeMonth)|PREPARE q(uuid, timestamptz, timestamptz) AS SELECT SUM(CASE WHEN type = 'CREDIT' THEN amount END), SUM(CASE WHEN type = 'DEBIT' THEN amount END), count(*) FROM transactions WHERE account_id = \$1 AND created_at >= \$2 AND created_at < \$3|EXECUTE q('$ACCOUNT', date_trunc('month', now()), date_trunc('month', now()) + interval '1 month')"
+"saldo inicial do dia (seedBalance)|PREPARE q(uuid, timestamptz) AS SELECT SUM(CASE WHEN type = 'CREDIT' THEN amount WHEN type = 'DEBIT' THEN -amount ELSE 0 END) FROM transactions WHERE account_id = \$1 AND created_at >= \$2|EXECUTE q('$ACCOUNT', date_trunc('day', now()))"
+)
+
+total=$(psql $CONN -At -c "SELECT count(*) FROM pg_inherits WHERE inhparent = 'transactions'::regclass")
+echo "conta=$ACCOUNT partições_de_transactions=$total"
+
+for entry in "${QUERIES[@]}"; do
+  IFS='|' read -r name prepare execute <<<"$entry"
+  for mode in force_custom_plan force_generic_plan; do
+    plan=$(psql $CONN -At -v ON_ERROR_STOP=1 <<SQL
+SET plan_cache_mode = $mode;
+$prepare;
+EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) $execute;
+SQL
+)
+    read_partitions=$(grep -v "never executed" <<<"$plan" | grep -oE 'transactions_(p[0-9]{4}_[0-9]{2}|default)' | sort -u | paste -sd, -)
+    removed=$(grep -o 'Subplans Removed: [0-9]*' <<<"$plan" | awk '{ s += $3 } END { print s + 0 }')
+    echo
+    echo "== $name [$mode] lidas: ${read_partitions:-nenhuma} | podadas na execução: $removed"
+    echo "$plan"
+  done
+done
@@ -0,0 +1,21 @@
+-- Script do pgbench usado por posting_scaling.sh: um lançamento CREDIT do mesmo jeito que
+-- TransactionService faz (UPDATE de accounts + INSERT em um comando, depois o saldo do dia).
+-- :accounts define quantas contas disputam os lançamentos.
+\set n random(1, :accounts)
+BEGIN;
+WITH locked AS (
+  UPDATE accounts a SET balance = balance + 1.00
+  FROM bench_posting_accounts b
+  WHERE b.n = :n AND a.id = b.id
+  RETURNING a.id
+),
+inserted AS (
+  INSERT INTO transactions (id, account_id, type, category, amount, description, created_at)
+  SELECT gen_random_uuid(), l.id, 'CREDIT', 'BENCH', 1.00, 'bench', now()
+  FROM locked l
+  RETURNING id
+)
+SELECT count(*) FROM inserted;
+UPDATE account_daily_balances SET balance = balance + 1.00, updated_at = now()
+WHERE account_id = (SELECT id FROM bench_posting_accounts WHERE n = :n) AND day = current_date;
+COMMIT;
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Benchmark de vazão dos lançamentos por número de clientes concorrentes.
+#
+# Uso (banco local do docker-compose, com as migrations aplicadas):
+#   PGPASSWORD=bankpass infra/bench/posting_scaling.sh [contas] [segundos]
+#
+# Roda o mesmo lançamento com 1, 2, 4, ... clientes em dois cenários:
+#   - muitas contas: a trava por conta quase nunca é disputada, a vazão deve crescer
+#     perto do linear até o número de núcleos do banco;
+#   - uma conta só: todos os lançamentos entram na fila da mesma linha de accounts,
+#     a vazão fica estável independente do número de clientes.
+# As contas de teste usam a agência 9999 e são removidas ao final.
+set -euo pipefail
+
+ACCOUNTS=${1:-10000}
+DURATION=${2:-30}
+CONN="-h ${PGHOST:-localhost} -U ${PGUSER:-bankuser} ${PGDATABASE:-bank}"
+DIR=$(cd "$(dirname "$0")" && pwd)
+MAX_CLIENTS=$(( $(nproc) * 2 ))
+
+psql $CONN -q -v ON_ERROR_STOP=1 -v accounts="$ACCOUNTS" <<'SQL'
+DROP TABLE IF EXISTS bench_posting_accounts;
+CREATE TABLE bench_posting_accounts (n INT PRIMARY KEY, id UUID NOT NULL);
+INSERT INTO bench_posting_accounts SELECT g, gen_random_uuid() FROM generate_series(1, :accounts) g;
+INSERT INTO customers (id, name, email)
+SELECT id, 'Bench ' || n, 'bench-' || n || '@bench.local' FROM bench_posting_accounts;
+INSERT INTO accounts (id, customer_id, agency, account_number, status, balance)
+SELECT id, id, '9999', 'B' || n, 'ATIVA', 0 FROM bench_posting_accounts;
+INSERT INTO account_daily_balances (account_id, day, balance, updated_at)
+SELECT id, current_date, 0, now() FROM bench_posting_accounts;
+SQL
+
+run() {
+  local label=$1 accounts=$2
+  echo "== $label"
+  for (( clients = 1; clients <= MAX_CLIENTS; clients *= 2 )); do
+    tps=$(pgbench $CONN -n -c "$clients" -j "$clients" -T "$DURATION" -D accounts="$accounts" \
+      -f "$DIR/posting.pgbench.sql" | awk '/^tps/ { print int($3) }')
+    echo "clientes=$clients tps=$tps"
+  done
+}
+
+run "muitas contas ($ACCOUNTS)" "$ACCOUNTS"
+run "uma conta" 1
+
+psql $CONN -q -v ON_ERROR_STOP=1 <<'SQL'
+DELETE FROM transactions WHERE account_id IN (SELECT id FROM bench_posting_accounts);
+DELETE FROM account_daily_balances WHERE account_id IN (SELECT id FROM bench_posting_accounts);
+DELETE FROM accounts WHERE id IN (SELECT id FROM bench_posting_accounts);
+DELETE FROM customers WHERE id IN (SELECT id FROM bench_posting_accounts);
+DROP TABLE bench_posting_accounts;
+SQL
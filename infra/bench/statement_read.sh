@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Benchmark de leitura do extrato: latência e alocação por requisição em contas com 10k e 100k lançamentos.
+#
+# Uso (API rodando localmente contra o banco do docker-compose, com as migrations aplicadas):
+#   PGPASSWORD=bankpass infra/bench/statement_read.sh [requisicoes] [url-base]
+#
+# Para comparar antes/depois, rode o script com a API no commit anterior e no atual.
+# A latência vem do curl (média e p95 de time_total). A alocação vem de uma gravação JFR
+# da API durante as requisições: soma o peso dos eventos jdk.ObjectAllocationSample
+# (estimativa do total alocado) e divide pelo número de requisições. Requer jcmd, jfr e jq
+# no PATH e a API rodando na mesma máquina (ou API_PID apontando para o processo).
+# As contas de teste usam a agência 9998 e são removidas ao final.
+set -euo pipefail
+
+REQUESTS=${1:-50}
+BASE_URL=${2:-http://localhost:8080}
+CONN="-h ${PGHOST:-localhost} -U ${PGUSER:-bankuser} ${PGDATABASE:-bank}"
+PID=${API_PID:-$(jcmd | awk 'tolower($0) ~ /keysbank/ { print $1; exit }')}
+JFR_FILE=$(mktemp --suffix=.jfr)
+
+psql $CONN -q -v ON_ERROR_STOP=1 <<'SQL'
+DROP TABLE IF EXISTS bench_statement_accounts;
+CREATE TABLE bench_statement_accounts AS
+SELECT gen_random_uuid() AS id, rows FROM (VALUES (10000), (100000)) AS v(rows);
+INSERT INTO customers (id, name, email)
+SELECT id, 'Bench extrato ' || rows, 'bench-statement-' || rows || '@bench.local' FROM bench_statement_accounts;
+INSERT INTO accounts (id, customer_id, agency, account_number, status)
+SELECT id, id, '9998', 'BST' || rows, 'ATIVA' FROM bench_statement_accounts;
+INSERT INTO transactions (id, account_id, type, category, amount, description, correlation_id, created_at)
+SELECT gen_random_uuid(), a.id, 'CREDIT', 'DEPOSITO', 1.00, 'Lançamento de bench', gen_random_uuid(),
+       now() - make_interval(secs => g)
+FROM bench_statement_accounts a, generate_series(1, a.rows) AS g;
+UPDATE accounts a SET balance = b.rows FROM bench_statement_accounts b WHERE a.id = b.id;
+ANALYZE transactions;
+SQL
+
+while read -r account rows; do
+  url="$BASE_URL/accounts/$account/statement"
+  # Aquecimento: JIT e caches da aplicação
+  for _ in $(seq 1 5); do curl -sf -o /dev/null "$url"; done
+
+  jcmd "$PID" JFR.start name=statement settings=profile filename="$JFR_FILE" >/dev/null
+  latencies=$(for _ in $(seq 1 "$REQUESTS"); do curl -sf -o /dev/null -w '%{time_total}\n' "$url"; done | sort -n)
+  jcmd "$PID" JFR.stop name=statement >/dev/null
+
+  avg=$(awk '{ s += $1 } END { printf "%.1f", s / NR * 1000 }' <<<"$latencies")
+  p95=$(awk -v n="$REQUESTS" 'NR == int(n * 0.95) { printf "%.1f", $1 * 1000 }' <<<"$latencies")
+  allocated=$(jfr print --json --events jdk.ObjectAllocationSample "$JFR_FILE" \
+    | jq '[.recording.events[].values.weight] | add // 0')
+  echo "lancamentos=$rows media_ms=$avg p95_ms=$p95 alocado_mb_por_req=$(awk -v a="$allocated" -v n="$REQUESTS" 'BEGIN { printf "%.1f", a / n / 1048576 }')"
+done < <(psql $CONN -At -F ' ' -c "SELECT id, rows FROM bench_statement_accounts ORDER BY rows")
+
+rm -f "$JFR_FILE"
+psql $CONN -q -v ON_ERROR_STOP=1 <<'SQL'
+DELETE FROM transactions WHERE account_id IN (SELECT id FROM bench_statement_accounts);
+DELETE FROM accounts WHERE id IN (SELECT id FROM bench_statement_accounts);
+DELETE FROM customers WHERE id IN (SELECT id FROM bench_statement_accounts);
+DROP TABLE bench_statement_accounts;
+SQL
@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Compara as requisições em threads de plataforma (pool do Tomcat) e em threads virtuais (perfil
+# virtual-threads, com controle de admissão) sob a mesma carga do loadtest.
+#
+# Uso (banco local do docker-compose com o seed do loadtest já feito, API parada):
+#   cd back-end && ./mvnw -q package -DskipTests && (cd loadtest && mvn -B -q package)
+#   infra/bench/thread_modes.sh [concorrência] [duração]
+#
+# Para cada modo o script sobe a API, espera o health da porta de gestão, roda o mesmo
+# "loadtest run" e derruba a API. A concorrência padrão (400) passa das 200 threads do Tomcat, que
+# é onde os modos se separam. Com RATE=<req/s> a carga é em malha aberta. O resultado completo de
+# cada modo fica em results/thread-modes-<modo>.json; o resumo mostra a linha total de cada um.
+set -euo pipefail
+
+CONCURRENCY=${1:-400}
+DURATION=${2:-60s}
+DIR=$(cd "$(dirname "$0")/../.." && pwd)
+APP=$(ls "$DIR"/back-end/target/keysbankapi-*.jar | grep -v -e plain -e classes | head -1)
+LOADTEST="$DIR/back-end/loadtest/target/loadtest.jar"
+RESULTS="$DIR/results"
+mkdir -p "$RESULTS"
+
+run_mode() {
+  local mode=$1 profile=$2 pid
+  java -jar "$APP" ${profile:+--spring.profiles.active=$profile} >"$RESULTS/thread-modes-$mode.log" 2>&1 &
+  pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+  until curl -sf http://127.0.0.1:8081/actuator/health >/dev/null; do
+    kill -0 "$pid" 2>/dev/null || { echo "API não subiu ($mode), ver $RESULTS/thread-modes-$mode.log" >&2; exit 1; }
+    sleep 1
+  done
+
+  java -jar "$LOADTEST" run --concurrency "$CONCURRENCY" --duration "$DURATION" ${RATE:+--rate $RATE} \
+    --out "$RESULTS/thread-modes-$mode.json" | tee "$RESULTS/thread-modes-$mode.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode platform ""
+run_mode virtual virtual-threads
+
+echo
+printf "%-10s %10s %9s %9s %9s\n" "modo" "req/s" "p50 ms" "p99 ms" "erros"
+for mode in platform virtual; do
+  awk -v mode="$mode" '$1 == "total" { printf "%-10s %10s %9s %9s %9s\n", mode, $4, $5, $6, $3 }' \
+    "$RESULTS/thread-modes-$mode.txt"
+done
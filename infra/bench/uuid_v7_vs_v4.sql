@@ -0,0 +1,81 @@
+-- Benchmark de inserção: chave primária UUID v4 (aleatória) x UUID v7 (ordenada por tempo)
+--
+-- Uso (banco local do docker-compose):
+--   psql -h localhost -U bankuser -d bank -v rows=20000000 -f infra/bench/uuid_v7_vs_v4.sql
+--
+-- Cada tabela imita o formato de "transactions". Compare os tempos do \timing, o tamanho
+-- do índice da PK e o volume de WAL gerado por cada carga.
+
+\if :{?rows}
+\else
+  \set rows 20000000
+\endif
+\timing on
+-- variáveis do psql não são expandidas dentro de blocos $$; o total vai por uma setting da sessão
+SELECT set_config('bench.rows', :'rows', false);
+
+-- uuid v7 no próprio banco (PostgreSQL 16 não tem uuidv7() nativo): 48 bits de ms + versão 7 + aleatório
+CREATE OR REPLACE FUNCTION bench_uuid_v7() RETURNS uuid AS $$
+  SELECT encode(
+    set_bit(set_bit(
+      overlay(uuid_send(gen_random_uuid())
+              PLACING substring(int8send((extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+              FROM 1 FOR 6),
+      52, 1), 53, 1), 'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+DROP TABLE IF EXISTS bench_tx_v4;
+DROP TABLE IF EXISTS bench_tx_v7;
+
+CREATE UNLOGGED TABLE bench_wal_marks (label text, lsn pg_lsn);
+
+CREATE TABLE bench_tx_v4 (
+  id UUID PRIMARY KEY,
+  account_id UUID NOT NULL,
+  type TEXT NOT NULL,
+  amount NUMERIC(18,2) NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+CREATE TABLE bench_tx_v7 (LIKE bench_tx_v4 INCLUDING ALL);
+
+-- Inserção em lotes de 100k, como uma carga contínua de lançamentos
+INSERT INTO bench_wal_marks VALUES ('v4_start', pg_current_wal_lsn());
+DO $$
+DECLARE total bigint := current_setting('bench.rows')::bigint;
+BEGIN
+  FOR batch IN 0 .. (total / 100000) - 1 LOOP
+    INSERT INTO bench_tx_v4 (id, account_id, type, amount)
+    SELECT gen_random_uuid(), gen_random_uuid(), 'CREDIT', 10.00
+    FROM generate_series(1, 100000);
+    COMMIT;
+  END LOOP;
+END $$;
+INSERT INTO bench_wal_marks VALUES ('v4_end', pg_current_wal_lsn());
+
+INSERT INTO bench_wal_marks VALUES ('v7_start', pg_current_wal_lsn());
+DO $$
+DECLARE total bigint := current_setting('bench.rows')::bigint;
+BEGIN
+  FOR batch IN 0 .. (total / 100000) - 1 LOOP
+    INSERT INTO bench_tx_v7 (id, account_id, type, amount)
+    SELECT bench_uuid_v7(), gen_random_uuid(), 'CREDIT', 10.00
+    FROM generate_series(1, 100000);
+    COMMIT;
+  END LOOP;
+END $$;
+INSERT INTO bench_wal_marks VALUES ('v7_end', pg_current_wal_lsn());
+
+SELECT 'v4' AS key_version,
+       pg_size_pretty(pg_relation_size('bench_tx_v4_pkey')) AS pk_index_size,
+       pg_size_pretty(pg_wal_lsn_diff((SELECT lsn FROM bench_wal_marks WHERE label = 'v4_end'),
+                                      (SELECT lsn FROM bench_wal_marks WHERE label = 'v4_start'))) AS wal
+UNION ALL
+SELECT 'v7',
+       pg_size_pretty(pg_relation_size('bench_tx_v7_pkey')),
+       pg_size_pretty(pg_wal_lsn_diff((SELECT lsn FROM bench_wal_marks WHERE label = 'v7_end'),
+                                      (SELECT lsn FROM bench_wal_marks WHERE label = 'v7_start')));
+
+DROP TABLE bench_wal_marks;
+DROP TABLE bench_tx_v4;
+DROP TABLE bench_tx_v7;
+DROP FUNCTION bench_uuid_v7();